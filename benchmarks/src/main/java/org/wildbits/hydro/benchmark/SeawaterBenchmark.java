@@ -0,0 +1,79 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildbits.hydro.impl.DoubleSeawaterImpl;
+import org.wildbits.hydro.impl.SeawaterImpl;
+
+import static org.wildbits.data.Utils.big;
+
+/**
+ * Benchmark the seawater density model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SeawaterBenchmark {
+
+    @Param({"0.035"})
+    public String salinity;
+
+    @Param({"20.5"})
+    public String temperature;
+
+    private SeawaterImpl seawater;
+
+    private DoubleSeawaterImpl doubleSeawater;
+
+    private BigDecimal bigTemperature;
+
+    private double doubleTemperature;
+
+    @Setup
+    public void setup() {
+        seawater = new SeawaterImpl(big(salinity));
+        doubleSeawater = new DoubleSeawaterImpl(Double.parseDouble(salinity));
+        bigTemperature = big(temperature);
+        doubleTemperature = Double.parseDouble(temperature);
+    }
+
+    @Benchmark
+    public BigDecimal density() {
+        return seawater.density(bigTemperature);
+    }
+
+    @Benchmark
+    public double doubleDensity() {
+        return doubleSeawater.densityAt(doubleTemperature);
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildbits.hydro.Solid;
+import org.wildbits.hydro.impl.CompositeSolid;
+import org.wildbits.hydro.impl.HomogeneousSolid;
+
+import static org.wildbits.data.Utils.big;
+
+/**
+ * Benchmark the hydrostatic characteristics of homogeneous and composite solids.
+ * A solid of {@code size} homogeneous parts is nested in {@code depth} levels of composites, a size of {@code 1}
+ * yields a single {@link HomogeneousSolid}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SolidBenchmark {
+
+    @Param({"1", "10", "10000"})
+    public int size;
+
+    @Param({"1", "3"})
+    public int depth;
+
+    private final BigDecimal temperature = big("20.5");
+
+    private final BigDecimal ρ = big("1025.0");
+
+    private Solid<BigDecimal> solid;
+
+    @Setup
+    public void setup() {
+        List<Solid<BigDecimal>> solids = new ArrayList<Solid<BigDecimal>>(size);
+        for (int i = 0 ; i < size ; i++) {
+            solids.add(new HomogeneousSolid(BigDecimal.valueOf(i + 1, 3), BigDecimal.valueOf(i + 500, 0)));
+        }
+        final int fanout = Math.max(2, (int) Math.ceil(Math.pow(size, 1.0 / depth)));
+        for (int level = 1 ; level < depth && solids.size() > fanout ; level++) {
+            List<Solid<BigDecimal>> composites = new ArrayList<Solid<BigDecimal>>();
+            for (int from = 0 ; from < solids.size() ; from += fanout) {
+                composites.add(composite(solids.subList(from, Math.min(solids.size(), from + fanout))));
+            }
+            solids = composites;
+        }
+        solid = composite(solids);
+    }
+
+    @Benchmark
+    public BigDecimal mass() {
+        return solid.mass();
+    }
+
+    @Benchmark
+    public BigDecimal volume() {
+        return solid.volume();
+    }
+
+    @Benchmark
+    public BigDecimal density() {
+        return solid.density(temperature);
+    }
+
+    @Benchmark
+    public BigDecimal buoyancy() {
+        return solid.buoyancy(ρ);
+    }
+
+    private static Solid<BigDecimal> composite(List<Solid<BigDecimal>> solids) {
+        return solids.size() == 1 ? solids.get(0) : new CompositeSolid(new ArrayList<Solid<BigDecimal>>(solids));
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildbits.hydro.Solid;
+import org.wildbits.hydro.impl.SolidBuilderImpl;
+
+/**
+ * Benchmark the {@link SolidBuilderImpl}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SolidBuilderBenchmark {
+
+    @Param({"10", "10000"})
+    public int size;
+
+    private BigDecimal[] volumes, masses;
+
+    private SolidBuilderImpl builder;
+
+    @Setup
+    public void setup() {
+        volumes = new BigDecimal[size];
+        masses = new BigDecimal[size];
+        builder = new SolidBuilderImpl();
+        for (int i = 0 ; i < size ; i++) {
+            volumes[i] = BigDecimal.valueOf(i + 1, 3);
+            masses[i] = BigDecimal.valueOf(i + 500, 0);
+            builder.add(volumes[i], masses[i]);
+        }
+    }
+
+    @Benchmark
+    public Solid<BigDecimal> addAndBuild() {
+        SolidBuilderImpl builder = new SolidBuilderImpl();
+        for (int i = 0 ; i < size ; i++) {
+            builder.add(volumes[i], masses[i]);
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public Solid<BigDecimal> build() {
+        return builder.build();
+    }
+}
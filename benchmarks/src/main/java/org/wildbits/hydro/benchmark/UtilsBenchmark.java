@@ -0,0 +1,78 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.benchmark;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildbits.data.Utils;
+
+/**
+ * Benchmark the conversion of each {@link Number} subtype with {@link Utils#big(Number)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UtilsBenchmark {
+
+    @Param({"Byte", "Short", "Integer", "Long", "Float", "Double", "BigInteger", "BigDecimal"})
+    public String type;
+
+    private Number number;
+
+    @Setup
+    public void setup() {
+        if ("Byte".equals(type)) {
+            number = (byte) 42;
+        } else if ("Short".equals(type)) {
+            number = (short) 1025;
+        } else if ("Integer".equals(type)) {
+            number = 1025;
+        } else if ("Long".equals(type)) {
+            number = 1025L;
+        } else if ("Float".equals(type)) {
+            number = 20.5F;
+        } else if ("Double".equals(type)) {
+            number = 20.5D;
+        } else if ("BigInteger".equals(type)) {
+            number = BigInteger.valueOf(1025);
+        } else if ("BigDecimal".equals(type)) {
+            number = new BigDecimal("20.5");
+        } else {
+            throw new IllegalArgumentException("unknown type " + type);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal big() {
+        return Utils.big(number);
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.data;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Util class for fixed point arithmetic on scaled {@code long} values.
+ * <p>
+ * A quantity {@code x} with scale {@code n} is represented by the {@code long} value {@code x•10^n}. The hydrostatic
+ * quantities use the following scales
+ * <ul>
+ *     <li>temperature: {@value #TEMPERATURE_SCALE} ({@code µ°C})</li>
+ *     <li>salinity: {@value #SALINITY_SCALE} ({@code 10^-9 kg/kg})</li>
+ *     <li>volume: {@value #VOLUME_SCALE} ({@code mm^3})</li>
+ *     <li>mass: {@value #MASS_SCALE} ({@code mg})</li>
+ *     <li>density: {@value #DENSITY_SCALE} ({@code mg•m^-3})</li>
+ * </ul>
+ * The results are rounded to the scale of the quantity with {@link RoundingMode#HALF_EVEN}, as
+ * {@link BigDecimal#setScale(int, RoundingMode)} does, from the exact 128 bits intermediate products. The operations
+ * throw an {@link ArithmeticException} instead of silently overflowing.
+ * The value {@link #UNDEFINED} ({@link Long#MIN_VALUE}) represents an undefined quantity and is never a valid
+ * operand.
+ */
+public final class FixedPoint {
+
+    public static final int TEMPERATURE_SCALE = 6;
+
+    public static final int SALINITY_SCALE = 9;
+
+    public static final int VOLUME_SCALE = 9;
+
+    public static final int MASS_SCALE = 6;
+
+    public static final int DENSITY_SCALE = 6;
+
+    /**
+     * The value representing an undefined quantity.
+     */
+    public static final long UNDEFINED = Long.MIN_VALUE;
+
+    private static final long[] POWERS = new long[19];
+
+    static {
+        POWERS[0] = 1;
+        for (int i = 1 ; i < POWERS.length ; i++) {
+            POWERS[i] = POWERS[i - 1] * 10;
+        }
+    }
+
+    private FixedPoint() {}
+
+    /**
+     * @param n the exponent, in {@code [0, 18]}
+     * @return {@code 10^n}
+     */
+    public static long pow10(final int n) {
+        return POWERS[n];
+    }
+
+    /**
+     * Convert a decimal {@link Number} into a fixed point value, rounded to the scale. {@link Long} instances are
+     * decimal values as any other number; fixed point values are passed to the primitive methods instead.
+     *
+     * @param number the number to convert.
+     * @param scale the scale of the fixed point value.
+     * @return the fixed point value.
+     * @throws ArithmeticException if the value does not fit in a {@code long}.
+     */
+    public static long valueOf(@Nonnull final Number number, final int scale) {
+        return Utils.big(number).setScale(scale, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    /**
+     * @param value a fixed point value.
+     * @param scale the scale of the fixed point value.
+     * @return the {@link BigDecimal} equal to the fixed point value.
+     */
+    @Nonnull
+    public static BigDecimal toBigDecimal(final long value, final int scale) {
+        return BigDecimal.valueOf(value, scale);
+    }
+
+    /**
+     * @return the fixed point value {@code value} with scale {@code from}, rounded to the scale {@code to}.
+     * @throws ArithmeticException if the result overflows.
+     */
+    public static long rescale(final long value, final int from, final int to) {
+        return to >= from ? Math.multiplyExact(value, POWERS[to - from]) : mulDiv(value, 1, POWERS[from - to]);
+    }
+
+    /**
+     * Compute {@code a•b/c} from the exact 128 bits product, rounded to the nearest {@code long} with
+     * {@link RoundingMode#HALF_EVEN}.
+     *
+     * @throws ArithmeticException if {@code c} is zero, an operand is {@link #UNDEFINED} or the result overflows.
+     */
+    public static long mulDiv(final long a, final long b, final long c) {
+        if (c == 0) {
+            throw new ArithmeticException("division by zero");
+        }
+        final boolean negative = (a < 0) ^ (b < 0) ^ (c < 0);
+        final long x = abs(a), y = abs(b), z = abs(c);
+        final long hi = Math.multiplyHigh(x, y), lo = x * y;
+        if (hi >= z) {
+            throw new ArithmeticException("long overflow");
+        }
+        final long q = hi == 0 ? Long.divideUnsigned(lo, z) : divide(hi, lo, z);
+        final long r = lo - q * z, half = z - r;
+        final long rounded = r > half || (r == half && (q & 1) != 0) ? q + 1 : q;
+        if (rounded < 0) {
+            throw new ArithmeticException("long overflow");
+        }
+        return negative ? -rounded : rounded;
+    }
+
+    private static long abs(final long value) {
+        return value < 0 ? Math.negateExact(value) : value;
+    }
+
+    /**
+     * Divide the unsigned 128 bits value {@code (u1, u0)} by {@code v}, with {@code u1 < v}, following the long
+     * division algorithm of Hacker's Delight (divlu) on 32 bits digits.
+     *
+     * @return the unsigned quotient.
+     */
+    private static long divide(final long u1, final long u0, final long v) {
+        final long b = 1L << 32;
+        final int s = Long.numberOfLeadingZeros(v);
+        final long vn = v << s;
+        final long vn1 = vn >>> 32, vn0 = vn & 0xFFFFFFFFL;
+        final long un32 = (u1 << s) | (s == 0 ? 0 : u0 >>> (64 - s));
+        final long un10 = u0 << s;
+        final long un1 = un10 >>> 32, un0 = un10 & 0xFFFFFFFFL;
+        long q1 = Long.divideUnsigned(un32, vn1);
+        long rhat = un32 - q1 * vn1;
+        while (Long.compareUnsigned(q1, b) >= 0 || Long.compareUnsigned(q1 * vn0, (rhat << 32) + un1) > 0) {
+            q1--;
+            rhat += vn1;
+            if (Long.compareUnsigned(rhat, b) >= 0) {
+                break;
+            }
+        }
+        final long un21 = (un32 << 32) + un1 - q1 * vn;
+        long q0 = Long.divideUnsigned(un21, vn1);
+        rhat = un21 - q0 * vn1;
+        while (Long.compareUnsigned(q0, b) >= 0 || Long.compareUnsigned(q0 * vn0, (rhat << 32) + un0) > 0) {
+            q0--;
+            rhat += vn1;
+            if (Long.compareUnsigned(rhat, b) >= 0) {
+                break;
+            }
+        }
+        return (q1 << 32) + q0;
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.data;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Precision policy applied to each {@link BigDecimal} arithmetic operation.
+ * <p>
+ * A policy either rounds each result to a number of significant digits ({@link #DECIMAL32}, {@link #DECIMAL64},
+ * {@link #DECIMAL128}), rounds each result to a fixed number of fractional digits ({@link #fixed(int)}), which bounds
+ * the growth of the scale across chained operations, or keeps each result exact ({@link #EXACT}).
+ * The rounding mode is always {@link RoundingMode#HALF_EVEN}.
+ */
+public final class Precision {
+
+    /**
+     * 7 significant digits.
+     */
+    public static final Precision DECIMAL32 = new Precision("DECIMAL32", MathContext.DECIMAL32, -1);
+
+    /**
+     * 16 significant digits.
+     */
+    public static final Precision DECIMAL64 = new Precision("DECIMAL64", MathContext.DECIMAL64, -1);
+
+    /**
+     * 34 significant digits.
+     */
+    public static final Precision DECIMAL128 = new Precision("DECIMAL128", MathContext.DECIMAL128, -1);
+
+    /**
+     * Unbounded precision. The quotients which have no terminating decimal expansion are rounded to
+     * {@link #DECIMAL128}.
+     */
+    public static final Precision EXACT = new Precision("EXACT", null, -1);
+
+    private static final String FIXED = "FIXED:";
+
+    private final String name;
+
+    @Nullable
+    private final MathContext mc;
+
+    private final int scale;
+
+    private Precision(@Nonnull final String name, @Nullable final MathContext mc, final int scale) {
+        this.name = name;
+        this.mc = mc;
+        this.scale = scale;
+    }
+
+    /**
+     * @param scale the number of fractional digits kept by each operation.
+     * @return the policy rounding each result to the given scale.
+     * @throws IllegalArgumentException if the scale is negative.
+     */
+    @Nonnull
+    public static Precision fixed(final int scale) {
+        if (scale < 0) {
+            throw new IllegalArgumentException("scale can't be negative");
+        }
+        return new Precision(FIXED + scale, null, scale);
+    }
+
+    /**
+     * @param name one of {@code DECIMAL32}, {@code DECIMAL64}, {@code DECIMAL128}, {@code EXACT} or
+     *             {@code FIXED:<scale>}, as returned by {@link #toString()}.
+     * @return the policy with the given name.
+     * @throws IllegalArgumentException if the name does not denote a policy.
+     */
+    @Nonnull
+    public static Precision valueOf(@Nonnull final String name) {
+        for (Precision precision : new Precision[]{DECIMAL32, DECIMAL64, DECIMAL128, EXACT}) {
+            if (precision.name.equals(name)) {
+                return precision;
+            }
+        }
+        if (name.startsWith(FIXED)) {
+            try {
+                return fixed(Integer.parseInt(name.substring(FIXED.length())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid scale in precision " + name, e);
+            }
+        }
+        throw new IllegalArgumentException("unknown precision " + name);
+    }
+
+    /**
+     * @return {@code a + b} rounded according to the policy.
+     */
+    @Nonnull
+    public BigDecimal add(@Nonnull final BigDecimal a, @Nonnull final BigDecimal b) {
+        return mc != null ? a.add(b, mc) : round(a.add(b));
+    }
+
+    /**
+     * @return {@code a - b} rounded according to the policy.
+     */
+    @Nonnull
+    public BigDecimal subtract(@Nonnull final BigDecimal a, @Nonnull final BigDecimal b) {
+        return mc != null ? a.subtract(b, mc) : round(a.subtract(b));
+    }
+
+    /**
+     * @return {@code a * b} rounded according to the policy.
+     */
+    @Nonnull
+    public BigDecimal multiply(@Nonnull final BigDecimal a, @Nonnull final BigDecimal b) {
+        return mc != null ? a.multiply(b, mc) : round(a.multiply(b));
+    }
+
+    /**
+     * @return {@code a / b} rounded according to the policy.
+     * @throws ArithmeticException if {@code b} is zero.
+     */
+    @Nonnull
+    public BigDecimal divide(@Nonnull final BigDecimal a, @Nonnull final BigDecimal b) {
+        if (mc != null) {
+            return a.divide(b, mc);
+        }
+        if (scale >= 0) {
+            return a.divide(b, scale, RoundingMode.HALF_EVEN);
+        }
+        try {
+            return a.divide(b);
+        } catch (ArithmeticException e) {
+            if (b.signum() == 0) {
+                throw e;
+            }
+            return a.divide(b, MathContext.DECIMAL128);
+        }
+    }
+
+    /**
+     * @return the value rounded according to the policy.
+     */
+    @Nonnull
+    public BigDecimal round(@Nonnull final BigDecimal value) {
+        if (mc != null) {
+            return value.round(mc);
+        }
+        return scale >= 0 && value.scale() != scale ? value.setScale(scale, RoundingMode.HALF_EVEN) : value;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof Precision && name.equals(((Precision) other).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.data;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Util class for the deterministic summation of large arrays.
+ * <p>
+ * The arrays are summed along a fixed binary tree: a range longer than {@value #BLOCK} elements is split at its
+ * middle, shorter ranges are summed sequentially. The shape of the tree only depends on the length of the array, the
+ * ranges are summed in parallel in a {@link ForkJoinPool} and combined in the tree order. The results thus do not
+ * depend on the number of threads nor on the order in which the ranges are summed.
+ * <ul>
+ *     <li>{@link BigDecimal} values are summed exactly, the caller rounds the result once.</li>
+ *     <li>{@code double} values are summed with the Neumaier variant of the Kahan compensated summation. Each range
+ *     carries its sum and the compensation of its rounding errors, which are combined with the error free
+ *     transformation of the sum of the two ranges. The error is bounded independently of the number of values
+ *     as long as the compensation does not overflow.</li>
+ * </ul>
+ */
+public final class Summation {
+
+    /**
+     * The length of the ranges summed sequentially.
+     */
+    public static final int BLOCK = 4096;
+
+    private Summation() {}
+
+    /**
+     * @param values the values to sum.
+     * @return the exact sum of the values.
+     */
+    @Nonnull
+    public static BigDecimal sum(@Nonnull final BigDecimal[] values) {
+        return sum(values, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param values the values to sum.
+     * @param pool the pool summing the ranges of the values in parallel.
+     * @return the exact sum of the values.
+     */
+    @Nonnull
+    public static BigDecimal sum(@Nonnull final BigDecimal[] values, @Nonnull final ForkJoinPool pool) {
+        final ExactSum task = new ExactSum(values, 0, values.length);
+        return values.length > BLOCK ? pool.invoke(task) : task.compute();
+    }
+
+    /**
+     * @param values the values to sum.
+     * @return the compensated sum of the values.
+     */
+    public static double sum(@Nonnull final double[] values) {
+        return sum(values, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param values the values to sum.
+     * @param pool the pool summing the ranges of the values in parallel.
+     * @return the compensated sum of the values.
+     */
+    public static double sum(@Nonnull final double[] values, @Nonnull final ForkJoinPool pool) {
+        final CompensatedSum task = new CompensatedSum(values, 0, values.length);
+        final double[] sum = values.length > BLOCK ? pool.invoke(task) : task.compute();
+        return sum[0] + sum[1];
+    }
+
+    private static final class ExactSum extends RecursiveTask<BigDecimal> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final BigDecimal[] values;
+
+        private final int from, to;
+
+        private ExactSum(@Nonnull final BigDecimal[] values, final int from, final int to) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BigDecimal compute() {
+            if (to - from <= BLOCK) {
+                BigDecimal σ = BigDecimal.ZERO;
+                for (int i = from ; i < to ; i++) {
+                    σ = σ.add(values[i]);
+                }
+                return σ;
+            }
+            final int middle = (from + to) >>> 1;
+            final ExactSum left = new ExactSum(values, from, middle);
+            left.fork();
+            final BigDecimal right = new ExactSum(values, middle, to).compute();
+            return left.join().add(right);
+        }
+    }
+
+    /**
+     * Compute the sum of a range and the compensation of its rounding errors, as {@code {sum, compensation}}.
+     */
+    private static final class CompensatedSum extends RecursiveTask<double[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] values;
+
+        private final int from, to;
+
+        private CompensatedSum(@Nonnull final double[] values, final int from, final int to) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from <= BLOCK) {
+                double σ = 0, c = 0;
+                for (int i = from ; i < to ; i++) {
+                    final double x = values[i], t = σ + x;
+                    c += Math.abs(σ) >= Math.abs(x) ? (σ - t) + x : (x - t) + σ;
+                    σ = t;
+                }
+                return new double[]{σ, c};
+            }
+            final int middle = (from + to) >>> 1;
+            final CompensatedSum left = new CompensatedSum(values, from, middle);
+            left.fork();
+            final double[] r = new CompensatedSum(values, middle, to).compute(), l = left.join();
+            final double t = l[0] + r[0];
+            final double e = Math.abs(l[0]) >= Math.abs(r[0]) ? (l[0] - t) + r[0] : (r[0] - t) + l[0];
+            return new double[]{t, l[1] + r[1] + e};
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro;
+
+/**
+ * A solid whose volume depends on the pressure, evaluated with primitive {@code double} arithmetic.
+ * <p>
+ * The pressure independent methods, {@link #volume()} and {@link #buoyancyIn(double)} among others, refer to the
+ * solid at the {@link #ATMOSPHERIC_PRESSURE}, i.e. at the surface.
+ */
+public interface CompressibleSolid extends DoubleSolid {
+
+    /**
+     * The standard atmospheric pressure in {@code Pa}.
+     */
+    double ATMOSPHERIC_PRESSURE = 101325;
+
+    /**
+     * The standard gravity in {@code m•s^-2}.
+     */
+    double GRAVITY = 9.80665;
+
+    /**
+     * @param pressure the absolute pressure in {@code Pa}
+     * @return the volume of the solid in {@code m^-3} at the given pressure or {@link Double#NaN} if undefined.
+     */
+    double volumeAt(double pressure);
+
+}
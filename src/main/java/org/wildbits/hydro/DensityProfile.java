@@ -0,0 +1,29 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro;
+
+/**
+ * The density of a water column as a function of the depth.
+ */
+public interface DensityProfile {
+
+    /**
+     * @param depth the depth in {@code m}, positive downwards from the surface.
+     * @return the density of the water in {@code kg•m^-3} at the given depth or {@link Double#NaN} if undefined.
+     */
+    double densityAt(double depth);
+
+}
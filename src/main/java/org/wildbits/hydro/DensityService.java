@@ -0,0 +1,134 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro;
+
+import java.util.concurrent.CompletableFuture;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The {@code DensityService} computes seawater densities and buoyancies asynchronously.
+ * <p>
+ * The futures complete with {@code null} when the value is undefined, as the synchronous {@link Density} and
+ * {@link Buoyancy} methods return {@code null}.
+ */
+public interface DensityService {
+
+    /**
+     * @param salinity the seawater salinity in {@code kg/kg}.
+     * @param temperature the seawater temperature in {@code °C}
+     * @return the future density of the seawater in {@code kg•m^-3}
+     * @throws IllegalArgumentException if the salinity is invalid.
+     */
+    @Nonnull
+    CompletableFuture<Double> density(double salinity, double temperature)
+            throws IllegalArgumentException;
+
+    /**
+     * @param solid the solid fully immersed in seawater.
+     * @param salinity the seawater salinity in {@code kg/kg}.
+     * @param temperature the seawater temperature in {@code °C}
+     * @return the future buoyancy of the solid in {@code kg}
+     * @throws IllegalArgumentException if the salinity is invalid.
+     */
+    @Nonnull
+    CompletableFuture<Double> buoyancy(@Nonnull Solid<? extends Number> solid, double salinity, double temperature)
+            throws IllegalArgumentException;
+
+    /**
+     * @return the statistics of the batches evaluated so far.
+     */
+    @Nonnull
+    Statistics statistics();
+
+    /**
+     * Statistics of the batches evaluated by a {@link DensityService}.
+     */
+    final class Statistics {
+
+        private final long batches, requests, keys, maxBatchSize, totalLatency, maxLatency;
+
+        /**
+         * @param batches the number of batches evaluated.
+         * @param requests the number of requests served by the batches.
+         * @param keys the number of distinct salinity/temperature pairs evaluated.
+         * @param maxBatchSize the largest number of distinct pairs evaluated in a batch.
+         * @param totalLatency the sum over the batches of the time between their first request and their
+         *                     completion, in nanoseconds.
+         * @param maxLatency the longest time between the first request of a batch and its completion, in
+         *                   nanoseconds.
+         */
+        public Statistics(long batches, long requests, long keys, long maxBatchSize, long totalLatency,
+                          long maxLatency) {
+            this.batches = batches;
+            this.requests = requests;
+            this.keys = keys;
+            this.maxBatchSize = maxBatchSize;
+            this.totalLatency = totalLatency;
+            this.maxLatency = maxLatency;
+        }
+
+        /**
+         * @return the number of batches evaluated.
+         */
+        public long batches() {
+            return batches;
+        }
+
+        /**
+         * @return the number of requests served by the batches.
+         */
+        public long requests() {
+            return requests;
+        }
+
+        /**
+         * @return the number of distinct salinity/temperature pairs evaluated. The difference with the number of
+         *         requests is the number of requests served by deduplication.
+         */
+        public long keys() {
+            return keys;
+        }
+
+        /**
+         * @return the mean number of distinct salinity/temperature pairs evaluated per batch, {@code 0} if none.
+         */
+        public double meanBatchSize() {
+            return batches > 0 ? (double) keys / batches : 0;
+        }
+
+        /**
+         * @return the largest number of distinct salinity/temperature pairs evaluated in a batch.
+         */
+        public long maxBatchSize() {
+            return maxBatchSize;
+        }
+
+        /**
+         * @return the mean time between the first request of a batch and its completion, in nanoseconds.
+         */
+        public double meanLatency() {
+            return batches > 0 ? (double) totalLatency / batches : 0;
+        }
+
+        /**
+         * @return the longest time between the first request of a batch and its completion, in nanoseconds.
+         */
+        public long maxLatency() {
+            return maxLatency;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A salted liquid represented by its hydrostatic characteristics, evaluated with primitive {@code double} arithmetic.
+ * The primitive methods do not allocate and report undefined values as {@link Double#NaN}.
+ */
+public interface DoubleSaltedLiquid extends SaltedLiquid<Double> {
+
+    /**
+     * Return the density of the liquid at a given temperature.
+     * @param temperature the temperature in {@code °C}
+     * @return the density in {@code kg•m^-3} or {@link Double#NaN} if undefined.
+     */
+    double densityAt(double temperature);
+
+    /**
+     * Compute the density of the liquid for each of the given temperatures.
+     * @param temperatures the temperatures in {@code °C}
+     * @param out the array receiving, at the same index, the density in {@code kg•m^-3} or {@link Double#NaN}
+     *            if undefined.
+     * @throws IllegalArgumentException if {@code out} is shorter than {@code temperatures}.
+     */
+    void density(@Nonnull double[] temperatures, @Nonnull double[] out)
+            throws IllegalArgumentException;
+
+}
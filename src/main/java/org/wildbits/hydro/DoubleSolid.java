@@ -0,0 +1,39 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro;
+
+/**
+ * A solid represented by its hydrostatic characteristics, evaluated with primitive {@code double} arithmetic.
+ * The primitive methods do not allocate and report undefined values as {@link Double#NaN}.
+ */
+public interface DoubleSolid extends Solid<Double> {
+
+    /**
+     * Return the density of the solid at a given temperature.
+     * @param temperature the temperature in {@code °C}
+     * @return the density in {@code kg•m^-3} or {@link Double#NaN} if undefined.
+     */
+    double densityAt(double temperature);
+
+    /**
+     * Return the buoyancy of the fully immersed solid in a liquid with the given density.
+     * @param ρ the density of the liquid containing the solid in {@code kg•m^-3}.
+     * @return the resulting buoyancy in {@code kg} or {@link Double#NaN} if undefined.
+     *         A positive resulting buoyancy indicates the solid is positively buoyant.
+     */
+    double buoyancyIn(double ρ);
+
+}
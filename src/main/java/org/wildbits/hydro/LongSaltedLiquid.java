@@ -0,0 +1,56 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro;
+
+import java.math.BigDecimal;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A salted liquid represented by its hydrostatic characteristics, evaluated with fixed point {@code long}
+ * arithmetic.
+ * <p>
+ * The generic methods take and return decimal values in SI units, as the other backends do: the {@link Number}
+ * arguments are decimal values, {@link Long} instances included, and the results are the exact {@link BigDecimal}
+ * values of the fixed point results. The primitive methods take and return fixed point values at the scales defined
+ * by {@link org.wildbits.data.FixedPoint}, do not allocate and report undefined values as
+ * {@link org.wildbits.data.FixedPoint#UNDEFINED}.
+ */
+public interface LongSaltedLiquid extends SaltedLiquid<BigDecimal> {
+
+    /**
+     * @return the salinity of the liquid in {@code 10^-9 kg/kg}
+     */
+    long fixedSalinity();
+
+    /**
+     * Return the density of the liquid at a given temperature.
+     * @param temperature the temperature in {@code µ°C}
+     * @return the density in {@code mg•m^-3} or {@link org.wildbits.data.FixedPoint#UNDEFINED} if undefined.
+     */
+    long densityAt(long temperature);
+
+    /**
+     * Compute the density of the liquid for each of the given temperatures.
+     * @param temperatures the temperatures in {@code µ°C}
+     * @param out the array receiving, at the same index, the density in {@code mg•m^-3} or
+     *            {@link org.wildbits.data.FixedPoint#UNDEFINED} if undefined.
+     * @throws IllegalArgumentException if {@code out} is shorter than {@code temperatures}.
+     */
+    void density(@Nonnull long[] temperatures, @Nonnull long[] out)
+            throws IllegalArgumentException;
+
+}
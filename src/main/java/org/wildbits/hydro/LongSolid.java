@@ -0,0 +1,61 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro;
+
+import java.math.BigDecimal;
+
+/**
+ * A solid represented by its hydrostatic characteristics, evaluated with fixed point {@code long} arithmetic.
+ * <p>
+ * The generic methods take and return decimal values in SI units, as the other backends do: the {@link Number}
+ * arguments are decimal values, {@link Long} instances included, and the results are the exact {@link BigDecimal}
+ * values of the fixed point results, so that {@code solid.buoyancy(seawater.density(t))} is consistent. The
+ * primitive methods take and return fixed point values at the scales defined by
+ * {@link org.wildbits.data.FixedPoint}, do not allocate and report undefined values as
+ * {@link org.wildbits.data.FixedPoint#UNDEFINED}. Overflows are reported with an {@link ArithmeticException}.
+ */
+public interface LongSolid extends Solid<BigDecimal> {
+
+    /**
+     * @return the volume of the solid in {@code mm^3}
+     */
+    long fixedVolume();
+
+    /**
+     * @return the mass of the solid in {@code mg}
+     */
+    long fixedMass();
+
+    /**
+     * Return the density of the solid at a given temperature.
+     * @param temperature the temperature in {@code µ°C}
+     * @return the density in {@code mg•m^-3} or {@link org.wildbits.data.FixedPoint#UNDEFINED} if undefined.
+     * @throws ArithmeticException if the computation overflows.
+     */
+    long densityAt(long temperature)
+            throws ArithmeticException;
+
+    /**
+     * Return the buoyancy of the fully immersed solid in a liquid with the given density.
+     * @param ρ the density of the liquid containing the solid in {@code mg•m^-3}.
+     * @return the resulting buoyancy in {@code mg}.
+     *         A positive resulting buoyancy indicates the solid is positively buoyant.
+     * @throws ArithmeticException if the computation overflows.
+     */
+    long buoyancyIn(long ρ)
+            throws ArithmeticException;
+
+}
@@ -22,6 +22,26 @@ import javax.annotation.Nonnull;
  */
 public interface SolidBuilderFactory<T> {
 
+    /**
+     * The service property naming the numeric backend of the service.
+     */
+    String BACKEND = "backend";
+
+    /**
+     * The {@link #BACKEND} value of services backed by {@link java.math.BigDecimal} arithmetic.
+     */
+    String BACKEND_BIG_DECIMAL = "BigDecimal";
+
+    /**
+     * The {@link #BACKEND} value of services backed by primitive {@code double} arithmetic.
+     */
+    String BACKEND_DOUBLE = "double";
+
+    /**
+     * The {@link #BACKEND} value of services backed by fixed point {@code long} arithmetic.
+     */
+    String BACKEND_LONG = "long";
+
     /**
      * @return a new instance of {@code SolidBuilder}
      */
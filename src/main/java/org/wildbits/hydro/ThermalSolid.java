@@ -0,0 +1,46 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A solid whose volume depends on the temperature.
+ * <p>
+ * The temperature independent {@link #volume()} and {@link #buoyancy(Number)} methods refer to the volume of the
+ * solid at its reference temperature.
+ */
+public interface ThermalSolid<T> extends Solid<T> {
+
+    /**
+     * @param temperature the temperature in {@code °C}
+     * @return the volume of the solid in {@code m^-3} at the given temperature or {@code null} if undefined.
+     */
+    @Nullable
+    T volume(@Nonnull Number temperature);
+
+    /**
+     * Return the buoyancy of the solid fully immersed in a liquid with the given density and temperature.
+     * @param ρ the density of the liquid containing the solid in {@code kg•m^-3}.
+     * @param temperature the temperature of the liquid and the solid in {@code °C}
+     * @return the resulting buoyancy in {@code kg} or {@code null} if undefined.
+     *         A positive resulting buoyancy indicates the solid is positively buoyant.
+     */
+    @Nullable
+    T buoyancy(@Nonnull Number ρ, @Nonnull Number temperature);
+
+}
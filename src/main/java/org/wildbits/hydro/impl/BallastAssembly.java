@@ -0,0 +1,264 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nonnull;
+
+import org.wildbits.hydro.DoubleSolid;
+import org.wildbits.hydro.Solid;
+
+/**
+ * Mutable assembly of components whose volume and mass change over time, such as ballast tanks, evaluated with
+ * primitive {@code double} arithmetic.
+ * <p>
+ * The volumes, masses and mass moments {@code m • ρ} are held in segment trees: updating a component recomputes the
+ * {@code O(log n)} partial sums on the path to the root from their children, and the totals are read from the root
+ * in {@code O(1)}. The density is the mass weighted density of the components {@code Σ m•ρ / Σ m}, as for
+ * {@link DoubleCompositeSolid}.
+ * Since every partial sum is recomputed rather than adjusted by the difference, the totals do not drift with the
+ * number of updates: they are always the sums of the current values, added in the same order.
+ * <p>
+ * The assembly is thread safe. A consistent immutable view is obtained with {@link #snapshot()}.
+ */
+public class BallastAssembly {
+
+    private final Lock lock = new ReentrantLock();
+
+    private final int size;
+
+    /**
+     * The index of the first leaf in the trees. The node {@code i} has the children {@code 2i} and {@code 2i + 1},
+     * the root is the node {@code 1}.
+     */
+    private final int leaves;
+
+    private final double[] volumes, masses;
+
+    /**
+     * The tree of the products of the mass and the density of the components.
+     */
+    private final double[] moments;
+
+    /**
+     * @param volumes the volumes of the components in {@code m^-3}
+     * @param masses the masses of the components in {@code kg}, at the same index as the corresponding volume
+     * @throws IllegalArgumentException if the arrays are empty or of different lengths.
+     */
+    public BallastAssembly(@Nonnull final double[] volumes, @Nonnull final double[] masses) {
+        if (volumes.length == 0) {
+            throw new IllegalArgumentException("no volume/mass pair is defined");
+        }
+        if (volumes.length != masses.length) {
+            throw new IllegalArgumentException("volumes and masses have different lengths");
+        }
+        size = volumes.length;
+        leaves = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.volumes = tree(volumes, leaves);
+        this.masses = tree(masses, leaves);
+        final double[] moments = new double[size];
+        for (int i = 0 ; i < size ; i++) {
+            moments[i] = moment(volumes[i], masses[i]);
+        }
+        this.moments = tree(moments, leaves);
+    }
+
+    /**
+     * @param solids the components of the assembly, of any backend.
+     * @return an assembly made of the volume and mass of each solid.
+     * @throws IllegalArgumentException if the list is empty.
+     */
+    @Nonnull
+    public static BallastAssembly of(@Nonnull final List<? extends Solid<? extends Number>> solids) {
+        final double[] volumes = new double[solids.size()], masses = new double[solids.size()];
+        for (int i = 0 ; i < volumes.length ; i++) {
+            final Solid<? extends Number> solid = solids.get(i);
+            volumes[i] = solid.volume().doubleValue();
+            masses[i] = solid.mass().doubleValue();
+        }
+        return new BallastAssembly(volumes, masses);
+    }
+
+    /**
+     * @return the number of components.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param i the index of the component.
+     * @return the volume of the component in {@code m^-3}
+     */
+    public double volume(final int i) {
+        final int node = leaves + checkIndex(i);
+        lock.lock();
+        try {
+            return volumes[node];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param i the index of the component.
+     * @return the mass of the component in {@code kg}
+     */
+    public double mass(final int i) {
+        final int node = leaves + checkIndex(i);
+        lock.lock();
+        try {
+            return masses[node];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Change the volume of a component in {@code O(log n)}.
+     * @param i the index of the component.
+     * @param volume the new volume of the component in {@code m^-3}
+     */
+    public void setVolume(final int i, final double volume) {
+        final int node = leaves + checkIndex(i);
+        lock.lock();
+        try {
+            update(volumes, node, volume);
+            update(moments, node, moment(volume, masses[node]));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Change the mass of a component in {@code O(log n)}.
+     * @param i the index of the component.
+     * @param mass the new mass of the component in {@code kg}
+     */
+    public void setMass(final int i, final double mass) {
+        final int node = leaves + checkIndex(i);
+        lock.lock();
+        try {
+            update(masses, node, mass);
+            update(moments, node, moment(volumes[node], mass));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the total volume of the assembly in {@code m^-3}
+     */
+    public double volume() {
+        lock.lock();
+        try {
+            return volumes[1];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the total mass of the assembly in {@code kg}
+     */
+    public double mass() {
+        lock.lock();
+        try {
+            return masses[1];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the mass weighted density of the components in {@code kg•m^-3}
+     */
+    public double density() {
+        lock.lock();
+        try {
+            return moments[1] / masses[1];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return the buoyancy of the fully immersed assembly in a liquid with the given density.
+     * @param ρ the density of the liquid containing the assembly in {@code kg•m^-3}.
+     * @return the resulting buoyancy in {@code kg}.
+     *         A positive resulting buoyancy indicates the assembly is positively buoyant.
+     */
+    public double buoyancyIn(final double ρ) {
+        lock.lock();
+        try {
+            return ρ * volumes[1] - masses[1];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return an immutable solid made of the components in their current state.
+     */
+    @Nonnull
+    public DoubleSolid snapshot() {
+        final List<DoubleSolid> solids = new ArrayList<DoubleSolid>(size);
+        lock.lock();
+        try {
+            for (int i = 0 ; i < size ; i++) {
+                solids.add(new DoubleHomogeneousSolid(volumes[leaves + i], masses[leaves + i]));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return size == 1 ? solids.get(0) : new DoubleCompositeSolid(solids);
+    }
+
+    private int checkIndex(final int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("index " + i + " out of [0, " + size + "[");
+        }
+        return i;
+    }
+
+    /**
+     * @return the product of the mass and the density of a component, {@code 0} for a component without mass.
+     */
+    private static double moment(final double volume, final double mass) {
+        return mass == 0 ? 0 : mass * (mass / volume);
+    }
+
+    @Nonnull
+    private static double[] tree(@Nonnull final double[] values, final int leaves) {
+        final double[] tree = new double[2 * leaves];
+        System.arraycopy(values, 0, tree, leaves, values.length);
+        for (int node = leaves - 1 ; node >= 1 ; node--) {
+            tree[node] = tree[2 * node] + tree[2 * node + 1];
+        }
+        return tree;
+    }
+
+    private static void update(@Nonnull final double[] tree, int node, final double value) {
+        tree[node] = value;
+        for (node >>= 1 ; node >= 1 ; node >>= 1) {
+            tree[node] = tree[2 * node] + tree[2 * node + 1];
+        }
+    }
+}
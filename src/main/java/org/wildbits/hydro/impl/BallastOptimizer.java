@@ -0,0 +1,422 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.wildbits.hydro.Solid;
+
+/**
+ * Select, from a catalog of weights and floats, the components to add to a solid so that its buoyancy falls within
+ * a target band with the smallest added mass.
+ * <p>
+ * The buoyancy contribution {@code ρ•v - m} of each component is discretized with a fixed resolution, and the
+ * selection is a 0/1 knapsack solved by dynamic programming over the discretized contributions. The table of the
+ * lightest mass reaching each buoyancy is only kept for the current item, so the selection is reconstructed meet in
+ * the middle: the catalog is split in halves whose tables are computed in parallel, the pair of buoyancies in the
+ * target band with the lightest total mass is chosen, and each half is solved recursively for its buoyancy.
+ * The tables hold at most as many cells as the range of reachable buoyancies, bounded by the configured maximum.
+ * <p>
+ * The band is met on the discretized contributions: the actual buoyancy may differ from its discretized value by at
+ * most half the resolution per selected component, which {@link Selection#withinBand()} reports. The band is clamped
+ * to the reachable buoyancies, so that wide or one sided bands cost no more than narrow ones.
+ */
+public class BallastOptimizer {
+
+    /**
+     * The default maximum number of cells of a table.
+     */
+    public static final int DEFAULT_MAX_CELLS = 1 << 24;
+
+    /**
+     * The number of item × cell updates below which the halves are solved sequentially.
+     */
+    private static final long SEQUENTIAL = 1 << 16;
+
+    private static final double INFINITY = Double.POSITIVE_INFINITY;
+
+    private final double resolution;
+
+    private final int maxCells;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * @param resolution the buoyancy discretization step in {@code kg}
+     * @throws IllegalArgumentException if the resolution is not positive.
+     */
+    public BallastOptimizer(final double resolution) {
+        this(resolution, DEFAULT_MAX_CELLS, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param resolution the buoyancy discretization step in {@code kg}
+     * @param maxCells the maximum number of cells of a table.
+     * @param pool the pool solving the halves of the catalog.
+     * @throws IllegalArgumentException if the resolution or the maximum number of cells is not positive.
+     */
+    public BallastOptimizer(final double resolution, final int maxCells, @Nonnull final ForkJoinPool pool) {
+        if (!(resolution > 0) || maxCells <= 0) {
+            throw new IllegalArgumentException("invalid resolution or maximum number of cells");
+        }
+        this.resolution = resolution;
+        this.maxCells = maxCells;
+        this.pool = pool;
+    }
+
+    /**
+     * @param solid the solid to ballast.
+     * @param catalog the components available, each of which can be selected at most once.
+     * @param ρ the density of the liquid containing the solid in {@code kg•m^-3}
+     * @param min the lower bound of the target buoyancy in {@code kg}
+     * @param max the upper bound of the target buoyancy in {@code kg}
+     * @return the lightest selection or {@code null} if no selection brings the buoyancy within the band.
+     * @throws IllegalArgumentException if the bounds are inverted or the range of reachable buoyancies exceeds the
+     *                                  maximum number of cells.
+     */
+    @Nullable
+    public Selection optimize(@Nonnull final Solid<? extends Number> solid,
+                              @Nonnull final List<? extends Solid<? extends Number>> catalog,
+                              final double ρ, final double min, final double max) {
+        if (!(max >= min)) {
+            throw new IllegalArgumentException("invalid buoyancy band");
+        }
+        final double buoyancy = DoubleHomogeneousSolid.of(solid).buoyancyIn(ρ);
+        final int[] index = new int[catalog.size()];
+        final long[] units = new long[catalog.size()];
+        final double[] masses = new double[catalog.size()];
+        int size = 0;
+        long width = 1;
+        for (int i = 0 ; i < catalog.size() ; i++) {
+            final Solid<? extends Number> component = catalog.get(i);
+            final double mass = component.mass().doubleValue();
+            final long unit = Math.round((ρ * component.volume().doubleValue() - mass) / resolution);
+            if (unit != 0) {
+                index[size] = i;
+                units[size] = unit;
+                masses[size++] = mass;
+                width += Math.abs(unit);
+            }
+        }
+        if (width > maxCells) {
+            throw new IllegalArgumentException("the range of reachable buoyancies exceeds " + maxCells + " cells");
+        }
+        final Items items = new Items(Arrays.copyOf(units, size), Arrays.copyOf(masses, size));
+        final long lowest = items.lowest(0, size), highest = items.highest(0, size);
+        final double lower = Math.ceil((min - buoyancy) / resolution);
+        final double upper = Math.floor((max - buoyancy) / resolution);
+        if (!(lower <= highest && upper >= lowest)) {
+            return null;
+        }
+        final long lo = lower <= lowest ? lowest : (long) lower, hi = upper >= highest ? highest : (long) upper;
+        if (size == 0) {
+            items.infeasible = lo > 0 || hi < 0;
+        } else {
+            pool.invoke(new Solve(items, 0, size, lo, hi));
+        }
+        if (items.infeasible) {
+            return null;
+        }
+        final List<Integer> selected = new ArrayList<Integer>();
+        final List<Solid<? extends Number>> components = new ArrayList<Solid<? extends Number>>();
+        double σb = buoyancy, σm = 0;
+        for (int i = 0 ; i < size ; i++) {
+            if (items.selected[i]) {
+                final Solid<? extends Number> component = catalog.get(index[i]);
+                selected.add(index[i]);
+                components.add(component);
+                σb += ρ * component.volume().doubleValue() - masses[i];
+                σm += masses[i];
+            }
+        }
+        return new Selection(selected, components, σm, σb, σb >= min && σb <= max);
+    }
+
+    /**
+     * The components selected to ballast a solid.
+     */
+    public static final class Selection {
+
+        private final List<Integer> indices;
+
+        private final Solid<BigDecimal> ballast;
+
+        private final double mass, buoyancy;
+
+        private final boolean withinBand;
+
+        private Selection(List<Integer> indices, List<Solid<? extends Number>> components, double mass,
+                          double buoyancy, boolean withinBand) {
+            this.indices = Collections.unmodifiableList(indices);
+            if (components.isEmpty()) {
+                this.ballast = null;
+            } else {
+                final SolidBuilderImpl builder = new SolidBuilderImpl();
+                for (Solid<? extends Number> component : components) {
+                    builder.add(component.volume(), component.mass());
+                }
+                this.ballast = builder.build();
+            }
+            this.mass = mass;
+            this.buoyancy = buoyancy;
+            this.withinBand = withinBand;
+        }
+
+        /**
+         * @return the indices in the catalog of the selected components, in increasing order.
+         */
+        @Nonnull
+        public List<Integer> indices() {
+            return indices;
+        }
+
+        /**
+         * @return the solid made of the selected components or {@code null} if the solid needs no ballast.
+         */
+        @Nullable
+        public Solid<BigDecimal> ballast() {
+            return ballast;
+        }
+
+        /**
+         * @return the mass of the selected components in {@code kg}
+         */
+        public double mass() {
+            return mass;
+        }
+
+        /**
+         * @return the buoyancy of the solid with the selected components in {@code kg}
+         */
+        public double buoyancy() {
+            return buoyancy;
+        }
+
+        /**
+         * @return {@code true} if the actual {@link #buoyancy()} is within the target band, {@code false} if only its
+         *         discretized value is.
+         */
+        public boolean withinBand() {
+            return withinBand;
+        }
+    }
+
+    /**
+     * The discretized catalog and the selection being reconstructed.
+     */
+    private static final class Items {
+
+        private final long[] units;
+
+        private final double[] masses;
+
+        private final boolean[] selected;
+
+        /**
+         * Set if no subset of the items reaches the target band.
+         */
+        private volatile boolean infeasible;
+
+        private Items(long[] units, double[] masses) {
+            this.units = units;
+            this.masses = masses;
+            this.selected = new boolean[units.length];
+        }
+
+        /**
+         * @return the lowest buoyancy reachable with the items {@code [from, to[}.
+         */
+        private long lowest(final int from, final int to) {
+            long low = 0;
+            for (int i = from ; i < to ; i++) {
+                low += Math.min(0, units[i]);
+            }
+            return low;
+        }
+
+        /**
+         * @return the highest buoyancy reachable with the items {@code [from, to[}.
+         */
+        private long highest(final int from, final int to) {
+            long high = 0;
+            for (int i = from ; i < to ; i++) {
+                high += Math.max(0, units[i]);
+            }
+            return high;
+        }
+
+        /**
+         * @return the lightest mass reaching each buoyancy in {@code [lowest, highest]} with the items
+         *         {@code [from, to[}, {@link Double#POSITIVE_INFINITY} if unreachable.
+         */
+        @Nonnull
+        private double[] table(final int from, final int to) {
+            final long low = lowest(from, to);
+            final int width = (int) (highest(from, to) - low + 1);
+            final double[] table = new double[width];
+            Arrays.fill(table, INFINITY);
+            table[(int) -low] = 0;
+            for (int i = from ; i < to ; i++) {
+                final int unit = (int) units[i];
+                final double mass = masses[i];
+                if (unit > 0) {
+                    for (int s = width - 1 ; s >= unit ; s--) {
+                        table[s] = Math.min(table[s], table[s - unit] + mass);
+                    }
+                } else {
+                    for (int s = 0 ; s < width + unit ; s++) {
+                        table[s] = Math.min(table[s], table[s - unit] + mass);
+                    }
+                }
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Select the lightest subset of the items {@code [from, to[} reaching a buoyancy in {@code [lo, hi]}.
+     * Such a subset is known to exist for every task but the root, which reports its absence.
+     */
+    private static final class Solve extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Items items;
+
+        private final int from, to;
+
+        private final long lo, hi;
+
+        private Solve(Items items, int from, int to, long lo, long hi) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                final long unit = items.units[from];
+                items.selected[from] = !(lo <= 0 && hi >= 0);
+                if (items.selected[from] && !(lo <= unit && hi >= unit)) {
+                    items.infeasible = true;
+                }
+                return;
+            }
+            final int mid = (from + to) >>> 1;
+            final long[] split = split(mid);
+            if (split == null) {
+                items.infeasible = true;
+                return;
+            }
+            final Solve first = new Solve(items, from, mid, split[0], split[0]);
+            final Solve second = new Solve(items, mid, to, split[1], split[1]);
+            if (work() <= SEQUENTIAL) {
+                first.compute();
+                second.compute();
+            } else {
+                invokeAll(first, second);
+            }
+        }
+
+        /**
+         * @return the buoyancies of the lightest pair of subsets of each half which sum in {@code [lo, hi]} or
+         *         {@code null} if there is none.
+         */
+        @Nullable
+        private long[] split(final int mid) {
+            final double[][] tables = new double[2][];
+            if (work() <= SEQUENTIAL) {
+                tables[0] = items.table(from, mid);
+                tables[1] = items.table(mid, to);
+            } else {
+                invokeAll(new Table(items, from, mid, tables, 0), new Table(items, mid, to, tables, 1));
+            }
+            final double[] first = tables[0], second = tables[1];
+            final long low1 = items.lowest(from, mid), low2 = items.lowest(mid, to);
+            // sliding window minimum of the second table over [lo - s1, hi - s1] as s1 decreases
+            final int[] window = new int[second.length];
+            int head = 0, tail = 0;
+            long next = Math.max(0, lo - (low1 + first.length - 1) - low2);
+            double best = INFINITY;
+            long best1 = 0, best2 = 0;
+            for (int c1 = first.length - 1 ; c1 >= 0 ; c1--) {
+                final long s1 = low1 + c1;
+                final long end = Math.min(hi - s1 - low2, second.length - 1);
+                for (; next <= end ; next++) {
+                    if (next >= 0) {
+                        final int c2 = (int) next;
+                        while (tail > head && second[window[tail - 1]] >= second[c2]) {
+                            tail--;
+                        }
+                        window[tail++] = c2;
+                    }
+                }
+                final long start = lo - s1 - low2;
+                while (tail > head && window[head] < start) {
+                    head++;
+                }
+                if (first[c1] < INFINITY && tail > head && first[c1] + second[window[head]] < best) {
+                    best = first[c1] + second[window[head]];
+                    best1 = s1;
+                    best2 = low2 + window[head];
+                }
+            }
+            return best < INFINITY ? new long[]{best1, best2} : null;
+        }
+
+        private long work() {
+            return (long) (to - from) * (items.highest(from, to) - items.lowest(from, to) + 1);
+        }
+    }
+
+    private static final class Table extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Items items;
+
+        private final int from, to;
+
+        private final double[][] out;
+
+        private final int slot;
+
+        private Table(Items items, int from, int to, double[][] out, int slot) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.out = out;
+            this.slot = slot;
+        }
+
+        @Override
+        protected void compute() {
+            out[slot] = items.table(from, to);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Concurrent cache holding a bounded number of entries.
+ * Lookups are lock free, the eviction of the entries in excess is serialized. The entries are kept in insertion
+ * order in a ring scanned by a clock hand, so that an insertion into a full cache evicts an entry in amortized
+ * constant time.
+ */
+public class BoundedCache<K, V> {
+
+    /**
+     * The policy selecting the entry to be evicted when the cache is full.
+     */
+    public enum Eviction {
+
+        /**
+         * Evict an entry not used since the clock hand last passed over it, approximating the least recently used
+         * entry (second chance). A lookup only marks its entry as used.
+         */
+        LRU,
+
+        /**
+         * Evict the least recently inserted entry.
+         */
+        FIFO
+    }
+
+    private final ConcurrentMap<K, Entry<K, V>> entries = new ConcurrentHashMap<K, Entry<K, V>>();
+
+    private final Object evictionLock = new Object();
+
+    private final int capacity;
+
+    private final Eviction eviction;
+
+    /**
+     * The entries in insertion order, from the clock hand, guarded by {@link #evictionLock}.
+     */
+    private final Entry<K, V>[] ring;
+
+    /**
+     * The position of the clock hand and the number of entries in the ring, guarded by {@link #evictionLock}.
+     */
+    private int hand, count;
+
+    /**
+     * @param capacity the maximum number of entries held by the cache.
+     * @param eviction the eviction policy.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedCache(final int capacity, @Nonnull final Eviction eviction) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.eviction = eviction;
+        this.ring = (Entry<K, V>[]) new Entry<?, ?>[capacity];
+    }
+
+    /**
+     * @param key the key of the entry.
+     * @return the value cached for the key or {@code null} if none.
+     */
+    @Nullable
+    public V get(@Nonnull final K key) {
+        final Entry<K, V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (eviction == Eviction.LRU && !entry.used) {
+            entry.used = true;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Cache a value unless a value is already cached for the key.
+     * @param key the key of the entry.
+     * @param value the value to cache.
+     * @return the value cached for the key, which is either {@code value} or the value cached concurrently.
+     */
+    @Nonnull
+    public V putIfAbsent(@Nonnull final K key, @Nonnull final V value) {
+        final Entry<K, V> entry = new Entry<K, V>(key, value);
+        final Entry<K, V> previous = entries.putIfAbsent(key, entry);
+        if (previous != null) {
+            return previous.value;
+        }
+        insert(entry);
+        return value;
+    }
+
+    /**
+     * @return the number of cached entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Insert the entry in the ring, evicting the first entry not used since the last pass of the hand if the ring
+     * is full.
+     */
+    private void insert(@Nonnull final Entry<K, V> entry) {
+        synchronized (evictionLock) {
+            if (count < capacity) {
+                ring[(hand + count++) % capacity] = entry;
+                return;
+            }
+            Entry<K, V> victim = ring[hand];
+            while (victim.used) {
+                victim.used = false;
+                hand = (hand + 1) % capacity;
+                victim = ring[hand];
+            }
+            entries.remove(victim.key, victim);
+            ring[hand] = entry;
+            hand = (hand + 1) % capacity;
+        }
+    }
+
+    private static final class Entry<K, V> {
+
+        private final K key;
+
+        private final V value;
+
+        /**
+         * Whether the entry was used since the last pass of the clock hand, for the {@link Eviction#LRU} policy.
+         */
+        private volatile boolean used;
+
+        private Entry(final K key, final V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.wildbits.hydro.CompressibleSolid;
+import org.wildbits.hydro.DoubleSolid;
+
+/**
+ * The buoyancy of a solid as a function of the depth, precompiled into a piecewise cubic polynomial.
+ * <p>
+ * At the depth {@code d}, the absolute pressure is {@code P(d) = P0 + ρ • g • d} and the buoyancy
+ * {@code ρ • V(P(d)) - m}, where the volume of the {@link CompressibleSolid} components depends on the pressure.
+ * The depth range is split adaptively: each segment is interpolated by the cubic polynomial through four evenly
+ * spaced depths and halved until the interpolation error, checked at three intermediate depths, is within the
+ * tolerance. Evaluating the curve is then a binary search over the segments and a cubic in Horner form, independently
+ * of the number of components. The rigid and {@link FoamSolid} components are linear in depth, thus interpolated
+ * exactly. The depths where the buoyancy is undefined, such as below the depth crushing a {@link FoamSolid}, are
+ * not split: they are covered by a single undefined segment.
+ */
+public class BuoyancyCurve {
+
+    /**
+     * The number of halvings below which a segment is not split anymore.
+     */
+    private static final int MAX_LEVEL = 24;
+
+    private final double ρ;
+
+    private final double rigidVolume, mass;
+
+    private final CompressibleSolid[] compressibles;
+
+    /**
+     * The {@code n + 1} segment bounds, by increasing depth.
+     */
+    private final double[] knots;
+
+    /**
+     * The {@code 4 • n} coefficients, by increasing degree, of the polynomial of each segment in the depth relative
+     * to the segment lower bound.
+     */
+    private final double[] coefficients;
+
+    /**
+     * @param solid the solid fully immersed in seawater.
+     * @param ρ the density of the seawater in {@code kg•m^-3}
+     * @param maxDepth the maximum depth of the curve in {@code m}
+     * @param tolerance the maximum interpolation error of the buoyancy in {@code kg}
+     * @throws IllegalArgumentException if the density, the depth or the tolerance are not positive.
+     */
+    public BuoyancyCurve(@Nonnull final DoubleSolid solid, final double ρ, final double maxDepth,
+                         final double tolerance) {
+        if (!(ρ > 0 && maxDepth > 0 && tolerance > 0)) {
+            throw new IllegalArgumentException("density, depth and tolerance must be positive");
+        }
+        this.ρ = ρ;
+        final DoubleSolid[] leaves = solid instanceof DoubleCompositeSolid
+                ? ((DoubleCompositeSolid) solid).solids() : new DoubleSolid[]{solid};
+        final List<CompressibleSolid> compressibles = new ArrayList<CompressibleSolid>();
+        double rigidVolume = 0, mass = 0;
+        for (DoubleSolid leaf : leaves) {
+            if (leaf instanceof CompressibleSolid) {
+                compressibles.add((CompressibleSolid) leaf);
+            } else {
+                rigidVolume += leaf.volume();
+            }
+            mass += leaf.mass();
+        }
+        this.rigidVolume = rigidVolume;
+        this.mass = mass;
+        this.compressibles = compressibles.toArray(new CompressibleSolid[compressibles.size()]);
+        final List<double[]> segments = new ArrayList<double[]>();
+        fit(0, maxDepth, tolerance, 0, segments);
+        knots = new double[segments.size() + 1];
+        coefficients = new double[4 * segments.size()];
+        for (int i = 0 ; i < segments.size() ; i++) {
+            final double[] segment = segments.get(i);
+            knots[i] = segment[0];
+            System.arraycopy(segment, 1, coefficients, 4 * i, 4);
+        }
+        knots[segments.size()] = maxDepth;
+    }
+
+    /**
+     * @param depth the depth in {@code m}
+     * @param ρ the density of the seawater in {@code kg•m^-3}
+     * @return the absolute hydrostatic pressure in {@code Pa} at the given depth.
+     */
+    public static double pressure(final double depth, final double ρ) {
+        return CompressibleSolid.ATMOSPHERIC_PRESSURE + ρ * CompressibleSolid.GRAVITY * depth;
+    }
+
+    /**
+     * @param depth the depth in {@code m}
+     * @return the interpolated buoyancy in {@code kg} at the given depth or {@link Double#NaN} if the depth is out
+     *         of the curve or the buoyancy is undefined.
+     */
+    public double buoyancyAt(final double depth) {
+        if (!(depth >= 0 && depth <= knots[knots.length - 1])) {
+            return Double.NaN;
+        }
+        int i = Arrays.binarySearch(knots, depth);
+        i = i >= 0 ? Math.min(i, knots.length - 2) : -i - 2;
+        final double u = depth - knots[i];
+        final int c = 4 * i;
+        return coefficients[c] + u * (coefficients[c + 1] + u * (coefficients[c + 2] + u * coefficients[c + 3]));
+    }
+
+    /**
+     * @param depth the depth in {@code m}
+     * @return the buoyancy in {@code kg} at the given depth computed from the components, or {@link Double#NaN} if
+     *         undefined.
+     */
+    public double exactBuoyancyAt(final double depth) {
+        final double pressure = pressure(depth, ρ);
+        double volume = rigidVolume;
+        for (CompressibleSolid compressible : compressibles) {
+            volume += compressible.volumeAt(pressure);
+        }
+        return ρ * volume - mass;
+    }
+
+    /**
+     * @return the number of segments of the curve.
+     */
+    public int segments() {
+        return knots.length - 1;
+    }
+
+    /**
+     * Append the segments interpolating the buoyancy over the depths from {@code a} to {@code b}, each as
+     * {@code {lower bound, c0, c1, c2, c3}}.
+     */
+    private void fit(final double a, final double b, final double tolerance, final int level,
+                     @Nonnull final List<double[]> segments) {
+        final double s = (b - a) / 3;
+        final double y0 = exactBuoyancyAt(a), y1 = exactBuoyancyAt(a + s), y2 = exactBuoyancyAt(a + 2 * s),
+                y3 = exactBuoyancyAt(b);
+        if (Double.isNaN(y0) && Double.isNaN(y1) && Double.isNaN(y2) && Double.isNaN(y3)) {
+            final int last = segments.size() - 1;
+            if (last < 0 || !Double.isNaN(segments.get(last)[1])) {
+                segments.add(new double[]{a, Double.NaN, Double.NaN, Double.NaN, Double.NaN});
+            }
+            return;
+        }
+        // Newton forward differences, expanded into the coefficients in the depth relative to a
+        final double d1 = y1 - y0, d2 = y2 - 2 * y1 + y0, d3 = y3 - 3 * y2 + 3 * y1 - y0;
+        final double[] segment = {a, y0, (d1 - d2 / 2 + d3 / 3) / s, (d2 - d3) / 2 / (s * s), d3 / 6 / (s * s * s)};
+        if (level < MAX_LEVEL) {
+            double error = 0;
+            for (int k = 1 ; k < 6 ; k += 2) {
+                final double u = k * (b - a) / 6;
+                final double y = segment[1] + u * (segment[2] + u * (segment[3] + u * segment[4]));
+                error = Math.max(error, Math.abs(y - exactBuoyancyAt(a + u)));
+            }
+            if (!(error <= tolerance)) {
+                final double middle = (a + b) / 2;
+                fit(a, middle, tolerance, level + 1, segments);
+                fit(middle, b, tolerance, level + 1, segments);
+                return;
+            }
+        }
+        segments.add(segment);
+    }
+}
@@ -0,0 +1,249 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.annotation.Nonnull;
+
+import org.wildbits.hydro.DoubleSolid;
+import org.wildbits.hydro.Solid;
+
+/**
+ * Compute the buoyancy of a solid fully immersed in seawater over a salinity × temperature grid.
+ * <p>
+ * The grid is split in tiles evaluated in parallel in a {@link ForkJoinPool}. Tiles span whole salinity rows as long
+ * as possible so that a single seawater instance is built per row and tile. The volume of a
+ * {@link org.wildbits.hydro.ThermalSolid} is taken at the temperature of each grid cell.
+ */
+public class BuoyancySweep {
+
+    /**
+     * The number of grid cells below which a tile is evaluated sequentially.
+     */
+    private static final int TILE = 1 << 14;
+
+    private final DoubleSolid solid;
+
+    /**
+     * The volume of the solid as a function of the temperature or {@code null} if the solid is not thermal.
+     */
+    private final ThermalVolume thermal;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * @param solid the solid to compute the buoyancy of.
+     */
+    public BuoyancySweep(@Nonnull final Solid<? extends Number> solid) {
+        this(solid, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param solid the solid to compute the buoyancy of.
+     * @param pool the pool evaluating the tiles.
+     */
+    public BuoyancySweep(@Nonnull final Solid<? extends Number> solid, @Nonnull final ForkJoinPool pool) {
+        this.solid = DoubleHomogeneousSolid.of(solid);
+        this.thermal = ThermalVolume.of(solid);
+        this.pool = pool;
+    }
+
+    /**
+     * Compute the buoyancy over a grid.
+     * @param salinities the salinity axis of the grid in {@code kg/kg}
+     * @param temperatures the temperature axis of the grid in {@code °C}
+     * @return the matrix of buoyancies in {@code kg}, indexed by salinity then temperature. Buoyancies outside
+     *         the seawater model validity range are {@link Double#NaN}.
+     * @throws IllegalArgumentException if the number of cells of the grid overflows an {@code int}.
+     */
+    @Nonnull
+    public double[][] buoyancy(@Nonnull final Axis salinities, @Nonnull final Axis temperatures)
+            throws IllegalArgumentException {
+        try {
+            Math.multiplyExact(salinities.size(), temperatures.size());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("the grid has too many cells", e);
+        }
+        final double[][] out = new double[salinities.size()][temperatures.size()];
+        pool.invoke(new Tile(salinities, temperatures, out, 0, salinities.size(), 0, temperatures.size()));
+        return out;
+    }
+
+    /**
+     * Compute the neutral buoyancy contour over a grid. Each salinity row is scanned by increasing temperature
+     * and the scan stops at the first temperature step over which the buoyancy changes sign.
+     * @param salinities the salinity axis of the grid in {@code kg/kg}
+     * @param temperatures the temperature axis of the grid in {@code °C}
+     * @return the temperatures in {@code °C} of neutral buoyancy, linearly interpolated within the temperature step,
+     *         indexed by salinity, or {@link Double#NaN} for the salinities where the buoyancy does not change sign.
+     */
+    @Nonnull
+    public double[] neutralContour(@Nonnull final Axis salinities, @Nonnull final Axis temperatures) {
+        final double[] out = new double[salinities.size()];
+        pool.invoke(new Contour(salinities, temperatures, out, 0, salinities.size()));
+        return out;
+    }
+
+    /**
+     * @return the buoyancy of the solid in {@code kg} in seawater of the given density and temperature.
+     */
+    private double buoyancy(final double ρ, final double temperature) {
+        return thermal != null ? ρ * thermal.volumeAt(temperature) - solid.mass() : solid.buoyancyIn(ρ);
+    }
+
+    /**
+     * Evenly spaced values along one axis of a grid.
+     */
+    public static final class Axis {
+
+        /**
+         * The maximum number of values of an axis, the largest array length supported by common JVMs.
+         */
+        static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+
+        private final double min, step;
+
+        private final int size;
+
+        /**
+         * @param min the first value of the axis.
+         * @param max the upper bound of the axis, included if it falls on a step.
+         * @param step the distance between two consecutive values.
+         * @throws IllegalArgumentException if the bounds are inverted, the step is not positive or the axis has more
+         *                                  than {@link #MAX_SIZE} values.
+         */
+        public Axis(final double min, final double max, final double step) {
+            if (!(step > 0 && max >= min)) {
+                throw new IllegalArgumentException("invalid axis");
+            }
+            final double size = Math.floor((max - min) / step * (1 + 1e-12)) + 1;
+            if (!(size <= MAX_SIZE)) {
+                throw new IllegalArgumentException("the axis has too many values");
+            }
+            this.min = min;
+            this.step = step;
+            this.size = (int) size;
+        }
+
+        /**
+         * @return the number of values of the axis.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @param index the index of the value.
+         * @return the value at the index.
+         */
+        public double get(final int index) {
+            return min + index * step;
+        }
+    }
+
+    private final class Tile extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Axis salinities, temperatures;
+
+        private final double[][] out;
+
+        private final int r0, r1, c0, c1;
+
+        private Tile(Axis salinities, Axis temperatures, double[][] out, int r0, int r1, int c0, int c1) {
+            this.salinities = salinities;
+            this.temperatures = temperatures;
+            this.out = out;
+            this.r0 = r0;
+            this.r1 = r1;
+            this.c0 = c0;
+            this.c1 = c1;
+        }
+
+        @Override
+        protected void compute() {
+            if ((long) (r1 - r0) * (c1 - c0) <= TILE) {
+                for (int r = r0 ; r < r1 ; r++) {
+                    final DoubleSeawaterImpl seawater = new DoubleSeawaterImpl(salinities.get(r));
+                    final double[] row = out[r];
+                    for (int c = c0 ; c < c1 ; c++) {
+                        final double t = temperatures.get(c);
+                        row[c] = buoyancy(seawater.densityAt(t), t);
+                    }
+                }
+            } else if (r1 - r0 > 1) {
+                final int r = (r0 + r1) >>> 1;
+                invokeAll(new Tile(salinities, temperatures, out, r0, r, c0, c1),
+                        new Tile(salinities, temperatures, out, r, r1, c0, c1));
+            } else {
+                final int c = (c0 + c1) >>> 1;
+                invokeAll(new Tile(salinities, temperatures, out, r0, r1, c0, c),
+                        new Tile(salinities, temperatures, out, r0, r1, c, c1));
+            }
+        }
+    }
+
+    private final class Contour extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Axis salinities, temperatures;
+
+        private final double[] out;
+
+        private final int r0, r1;
+
+        private Contour(Axis salinities, Axis temperatures, double[] out, int r0, int r1) {
+            this.salinities = salinities;
+            this.temperatures = temperatures;
+            this.out = out;
+            this.r0 = r0;
+            this.r1 = r1;
+        }
+
+        @Override
+        protected void compute() {
+            if ((long) (r1 - r0) * temperatures.size() <= TILE || r1 - r0 == 1) {
+                for (int r = r0 ; r < r1 ; r++) {
+                    out[r] = neutralTemperature(new DoubleSeawaterImpl(salinities.get(r)));
+                }
+            } else {
+                final int r = (r0 + r1) >>> 1;
+                invokeAll(new Contour(salinities, temperatures, out, r0, r),
+                        new Contour(salinities, temperatures, out, r, r1));
+            }
+        }
+
+        private double neutralTemperature(final DoubleSeawaterImpl seawater) {
+            double t0 = temperatures.get(0), b0 = buoyancy(seawater.densityAt(t0), t0);
+            for (int c = 1 ; c < temperatures.size() ; c++) {
+                final double t1 = temperatures.get(c), b1 = buoyancy(seawater.densityAt(t1), t1);
+                if (b0 == 0) {
+                    return t0;
+                }
+                if (b0 * b1 < 0 || b1 == 0) {
+                    return t0 + (t1 - t0) * b0 / (b0 - b1);
+                }
+                t0 = t1;
+                b0 = b1;
+            }
+            return b0 == 0 ? t0 : Double.NaN;
+        }
+    }
+}
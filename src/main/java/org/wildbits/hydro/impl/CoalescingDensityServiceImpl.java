@@ -0,0 +1,343 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+
+import org.apache.felix.scr.annotations.Activate;
+import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Deactivate;
+import org.apache.felix.scr.annotations.Properties;
+import org.apache.felix.scr.annotations.Property;
+import org.apache.felix.scr.annotations.Service;
+import org.wildbits.hydro.DensityService;
+import org.wildbits.hydro.DoubleSolid;
+import org.wildbits.hydro.Solid;
+
+/**
+ * {@link DensityService} coalescing the concurrent requests into micro-batches.
+ * <p>
+ * A batch is opened by its first request and evaluated when it holds {@code batch.size} distinct
+ * salinity/temperature pairs or when it has been open for {@code batch.window} milliseconds, whichever comes first.
+ * Identical pairs requested within a batch share their future. The pairs of a batch are sorted and the densities
+ * are computed with one bulk {@link DoubleSeawaterImpl} call per salinity, on the evaluation executor, so that the
+ * requesting threads never evaluate. The state is guarded by a {@link ReentrantLock} held only to register a request
+ * or swap the batch, which does not pin virtual threads.
+ */
+@Service
+@Component(metatype = true, label = "Wildbits Density Service",
+        description = "Computes seawater densities and buoyancies in coalesced micro-batches")
+@Properties({
+        @Property(name = CoalescingDensityServiceImpl.BATCH_SIZE,
+                intValue = CoalescingDensityServiceImpl.DEFAULT_BATCH_SIZE, label = "Batch size", description = "The maximum number of distinct salinity/temperature pairs "
+                + "evaluated in a batch"),
+        @Property(name = CoalescingDensityServiceImpl.BATCH_WINDOW,
+                longValue = CoalescingDensityServiceImpl.DEFAULT_BATCH_WINDOW, label = "Batch window",
+                description = "The maximum time in milliseconds a batch waits for requests before being evaluated")
+})
+public class CoalescingDensityServiceImpl implements DensityService {
+
+    static final String BATCH_SIZE = "batch.size";
+
+    static final String BATCH_WINDOW = "batch.window";
+
+    static final int DEFAULT_BATCH_SIZE = 256;
+
+    static final long DEFAULT_BATCH_WINDOW = 1;
+
+    private static final Comparator<Key> ORDER = new Comparator<Key>() {
+        @Override
+        public int compare(Key k1, Key k2) {
+            final int c = Double.compare(k1.salinity, k2.salinity);
+            return c != 0 ? c : Double.compare(k1.temperature, k2.temperature);
+        }
+    };
+
+    private final Lock lock = new ReentrantLock();
+
+    private final Executor executor;
+
+    private final ScheduledExecutorService scheduler;
+
+    private int batchSize;
+
+    private long window;
+
+    private Map<Key, CompletableFuture<Double>> batch = new HashMap<Key, CompletableFuture<Double>>();
+
+    private long opened, generation;
+
+    /**
+     * The number of requests coalesced in the open batch.
+     */
+    private long pending;
+
+    private long batches, requests, keys, maxBatchSize, totalLatency, maxLatency;
+
+    public CoalescingDensityServiceImpl() {
+        this(DEFAULT_BATCH_SIZE, DEFAULT_BATCH_WINDOW, TimeUnit.MILLISECONDS, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param batchSize the maximum number of distinct salinity/temperature pairs evaluated in a batch.
+     * @param window the maximum time a batch waits for requests before being evaluated.
+     * @param unit the unit of the window.
+     * @param executor the executor evaluating the batches and completing the futures.
+     * @throws IllegalArgumentException if the batch size is not positive or the window is negative.
+     */
+    public CoalescingDensityServiceImpl(final int batchSize, final long window, @Nonnull final TimeUnit unit,
+                                        @Nonnull final Executor executor) {
+        this.executor = executor;
+        final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(@Nonnull Runnable runnable) {
+                final Thread thread = new Thread(runnable, "wildbits-density-service");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        this.scheduler = scheduler;
+        configure(batchSize, unit.toNanos(window));
+    }
+
+    @Activate
+    protected void activate(@Nonnull final Map<String, Object> config) {
+        final Object size = config.get(BATCH_SIZE), window = config.get(BATCH_WINDOW);
+        final long millis = window != null ? Long.parseLong(window.toString()) : DEFAULT_BATCH_WINDOW;
+        configure(size != null ? Integer.parseInt(size.toString()) : DEFAULT_BATCH_SIZE,
+                TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        close();
+    }
+
+    /**
+     * Evaluate the pending batch and stop the scheduler. The service must not be used afterwards.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            flush();
+        } finally {
+            lock.unlock();
+        }
+        scheduler.shutdown();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public CompletableFuture<Double> density(final double salinity, final double temperature) {
+        if (!(salinity >= 0)) {
+            throw new IllegalArgumentException("salinity can't be negative");
+        }
+        final Key key = new Key(salinity, temperature);
+        lock.lock();
+        try {
+            pending++;
+            CompletableFuture<Double> future = batch.get(key);
+            if (future == null) {
+                future = new CompletableFuture<Double>();
+                batch.put(key, future);
+                if (batch.size() >= batchSize) {
+                    flush();
+                } else if (batch.size() == 1) {
+                    opened = System.nanoTime();
+                    final long scheduled = generation;
+                    scheduler.schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            flush(scheduled);
+                        }
+                    }, window, TimeUnit.NANOSECONDS);
+                }
+            }
+            return future;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public CompletableFuture<Double> buoyancy(@Nonnull final Solid<? extends Number> solid, final double salinity,
+                                              final double temperature) {
+        final DoubleSolid doubleSolid = DoubleHomogeneousSolid.of(solid);
+        return density(salinity, temperature).thenApply(new Function<Double, Double>() {
+            @Override
+            public Double apply(Double ρ) {
+                return ρ != null ? doubleSolid.buoyancyIn(ρ) : null;
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public Statistics statistics() {
+        lock.lock();
+        try {
+            return new Statistics(batches, requests, keys, maxBatchSize, totalLatency, maxLatency);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void configure(final int batchSize, final long window) {
+        if (batchSize <= 0 || window < 0) {
+            throw new IllegalArgumentException("batch size must be positive and window can't be negative");
+        }
+        lock.lock();
+        try {
+            this.batchSize = batchSize;
+            this.window = window;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Evaluate the batch if it has not been evaluated since the given generation.
+     */
+    private void flush(final long scheduled) {
+        lock.lock();
+        try {
+            if (generation == scheduled && !batch.isEmpty()) {
+                flush();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hand the batch over to the evaluation executor and open a new one.
+     */
+    private void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        final Map<Key, CompletableFuture<Double>> evaluated = batch;
+        final long opened = this.opened, served = pending;
+        batch = new HashMap<Key, CompletableFuture<Double>>();
+        pending = 0;
+        generation++;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                evaluate(evaluated, served, opened);
+            }
+        });
+    }
+
+    private void evaluate(@Nonnull final Map<Key, CompletableFuture<Double>> evaluated, final long served,
+                          final long opened) {
+        final List<Key> sorted = new ArrayList<Key>(evaluated.keySet());
+        Collections.sort(sorted, ORDER);
+        final int size = sorted.size();
+        final double[] temperatures = new double[size], group = new double[size], densities = new double[size];
+        RuntimeException failure = null;
+        try {
+            int from = 0;
+            while (from < size) {
+                final double salinity = sorted.get(from).salinity;
+                int to = from;
+                while (to < size && Double.compare(sorted.get(to).salinity, salinity) == 0) {
+                    temperatures[to - from] = sorted.get(to).temperature;
+                    to++;
+                }
+                new DoubleSeawaterImpl(salinity).density(temperatures, group, to - from);
+                System.arraycopy(group, 0, densities, from, to - from);
+                from = to;
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        // the statistics are recorded before completing the futures, so that they account for the batch once
+        // any of its requests is served
+        final long latency = System.nanoTime() - opened;
+        lock.lock();
+        try {
+            batches++;
+            requests += served;
+            keys += size;
+            maxBatchSize = Math.max(maxBatchSize, size);
+            totalLatency += latency;
+            maxLatency = Math.max(maxLatency, latency);
+        } finally {
+            lock.unlock();
+        }
+        for (int i = 0 ; i < size ; i++) {
+            final CompletableFuture<Double> future = evaluated.get(sorted.get(i));
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(Double.isNaN(densities[i]) ? null : densities[i]);
+            }
+        }
+    }
+
+    private static final class Key {
+
+        private final double salinity, temperature;
+
+        private Key(double salinity, double temperature) {
+            this.salinity = salinity;
+            this.temperature = temperature;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) other;
+            return Double.compare(salinity, key.salinity) == 0 && Double.compare(temperature, key.temperature) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Double.hashCode(salinity) + Double.hashCode(temperature);
+        }
+    }
+}
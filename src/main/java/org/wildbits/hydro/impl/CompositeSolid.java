@@ -16,30 +16,108 @@
 package org.wildbits.hydro.impl;
 
 import java.math.BigDecimal;
-import java.math.MathContext;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import org.wildbits.data.Precision;
 import org.wildbits.data.Utils;
 import org.wildbits.hydro.Solid;
+import org.wildbits.hydro.ThermalSolid;
 
 /**
  * Represent an composite of physically connected solids.
+ * The composite is immutable: nested composites are flattened into a single level and the total volume and mass
+ * are aggregated as the solids are added, with a single rounding of their exact, parallel sums (see
+ * {@link org.wildbits.data.Summation}). The solids are held in a persistent {@link SolidChain}, shared with the
+ * composites built from a common prefix. The density is the mass weighted density of the solids, computed on first
+ * use and then kept, when none of the solids has a temperature dependent density.
+ * <p>
+ * The volume and buoyancy at a given temperature account for the thermal expansion of the solids. The expansion of
+ * the {@link ThermalHomogeneousSolid} instances is folded into a polynomial in temperature as the composite is built,
+ * so that these queries do not walk the solids. When the solids are all homogeneous, some of them thermal, the density
+ * at a given temperature is the mass over that folded volume, in {@code O(1)} as well. Otherwise it is the mass
+ * weighted density of the solids, and the density at the last queried temperature is kept.
+ * The arithmetic is rounded according to a {@link Precision} policy, {@link Precision#DECIMAL128} by default.
  */
-public class CompositeSolid implements Solid<BigDecimal> {
+public class CompositeSolid implements ThermalSolid<BigDecimal> {
 
-    private static final MathContext MC = MathContext.DECIMAL128;
+    private final Precision precision;
 
-    private final List<Solid<BigDecimal>> solids;
+    private final SolidChain chain;
+
+    /**
+     * The solids, materialized from the chain on first use.
+     */
+    private volatile List<Solid<BigDecimal>> solids;
+
+    /**
+     * The density of the composite, once computed, if it does not depend on the temperature.
+     */
+    private volatile BigDecimal density;
+
+    /**
+     * The density of the composite at the last queried temperature, if it depends on the temperature.
+     */
+    private volatile Sample sample;
 
     /**
      * @param solids the list of physically connected solids.
      */
     public CompositeSolid(@Nonnull final List<Solid<BigDecimal>> solids) {
-        this.solids = Collections.unmodifiableList(solids);
+        this(solids, Precision.DECIMAL128);
+    }
+
+    /**
+     * @param solids the list of physically connected solids.
+     * @param precision the precision policy of the arithmetic.
+     */
+    public CompositeSolid(@Nonnull final List<Solid<BigDecimal>> solids, @Nonnull final Precision precision) {
+        this(chain(solids, precision), precision);
+    }
+
+    /**
+     * @param chain the physically connected solids, none of which is a composite.
+     * @param precision the precision policy of the arithmetic.
+     */
+    CompositeSolid(@Nonnull final SolidChain chain, @Nonnull final Precision precision) {
+        this.chain = chain;
+        this.precision = precision;
+    }
+
+    @Nonnull
+    private static SolidChain chain(@Nonnull final List<Solid<BigDecimal>> solids, @Nonnull final Precision precision) {
+        final List<Solid<BigDecimal>> leaves = new ArrayList<Solid<BigDecimal>>(solids.size());
+        for (Solid<BigDecimal> solid : solids) {
+            if (solid instanceof CompositeSolid) {
+                leaves.addAll(((CompositeSolid) solid).solids());
+            } else {
+                leaves.add(solid);
+            }
+        }
+        return SolidChain.EMPTY.appendAll(leaves, precision);
+    }
+
+    /**
+     * @return the chain of the solids of the composite, with their aggregates.
+     */
+    @Nonnull
+    SolidChain chain() {
+        return chain;
+    }
+
+    /**
+     * @return the solids of the composite.
+     */
+    @Nonnull
+    List<Solid<BigDecimal>> solids() {
+        List<Solid<BigDecimal>> solids = this.solids;
+        if (solids == null) {
+            this.solids = solids = chain.toList();
+        }
+        return solids;
     }
 
     /**
@@ -48,11 +126,7 @@ public class CompositeSolid implements Solid<BigDecimal> {
     @Override
     @Nonnull
     public BigDecimal volume() {
-        BigDecimal σv = BigDecimal.ZERO;
-        for (Solid<BigDecimal> solid : solids) {
-            σv = σv.add(solid.volume());
-        }
-        return σv;
+        return chain.volume;
     }
 
     /**
@@ -61,11 +135,7 @@ public class CompositeSolid implements Solid<BigDecimal> {
     @Override
     @Nonnull
     public BigDecimal mass() {
-        BigDecimal σm = BigDecimal.ZERO;
-        for (Solid<BigDecimal> solid : solids) {
-            σm = σm.add(solid.mass());
-        }
-        return σm;
+        return chain.mass;
     }
 
     /**
@@ -74,12 +144,23 @@ public class CompositeSolid implements Solid<BigDecimal> {
     @Override
     @Nullable
     public BigDecimal density(@Nonnull Number temperature) {
-        BigDecimal σm = mass();
-        BigDecimal ρ = BigDecimal.ZERO;
-        for (Solid<BigDecimal> solid : solids) {
-            ρ = ρ.add(solid.mass().divide(σm, MC).multiply(solid.density(temperature)));
+        if (!chain.constantDensity && chain.homogeneous) {
+            final BigDecimal v = volume(temperature);
+            return v != null ? precision.divide(chain.mass, v) : null;
         }
-        return ρ;
+        if (!chain.constantDensity) {
+            final BigDecimal t = Utils.big(temperature);
+            Sample sample = this.sample;
+            if (sample == null || sample.temperature.compareTo(t) != 0) {
+                this.sample = sample = new Sample(t, density(solids(), chain.mass, t, precision));
+            }
+            return sample.density;
+        }
+        BigDecimal density = this.density;
+        if (density == null) {
+            this.density = density = density(solids(), chain.mass, BigDecimal.ZERO, precision);
+        }
+        return density;
     }
 
     /**
@@ -88,6 +169,71 @@ public class CompositeSolid implements Solid<BigDecimal> {
     @Override
     @Nullable
     public BigDecimal buoyancy(@Nonnull Number ρ) {
-        return Utils.big(ρ).multiply(volume()).subtract(mass(), MC);
+        return precision.subtract(precision.multiply(Utils.big(ρ), chain.volume), chain.mass);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public BigDecimal volume(@Nonnull final Number temperature) {
+        BigDecimal v;
+        if (chain.linearVolume) {
+            v = precision.subtract(precision.add(chain.volume,
+                    precision.multiply(chain.expansion, Utils.big(temperature))), chain.offset);
+        } else {
+            v = BigDecimal.ZERO;
+            for (Solid<BigDecimal> solid : solids()) {
+                final BigDecimal vi = solid instanceof ThermalSolid
+                        ? ((ThermalSolid<BigDecimal>) solid).volume(temperature) : solid.volume();
+                if (vi == null) {
+                    return null;
+                }
+                v = precision.add(v, vi);
+            }
+        }
+        return v.signum() > 0 ? v : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public BigDecimal buoyancy(@Nonnull final Number ρ, @Nonnull final Number temperature) {
+        final BigDecimal v = volume(temperature);
+        return v != null ? precision.subtract(precision.multiply(Utils.big(ρ), v), chain.mass) : null;
+    }
+
+    /**
+     * @return the mass weighted density of the solids at the given temperature or {@code null} if undefined for
+     *         one of the solids.
+     */
+    @Nullable
+    private static BigDecimal density(@Nonnull final List<Solid<BigDecimal>> solids, @Nonnull final BigDecimal σm,
+                                      @Nonnull final Number temperature, @Nonnull final Precision precision) {
+        BigDecimal ρ = BigDecimal.ZERO;
+        for (Solid<BigDecimal> solid : solids) {
+            final BigDecimal ρi = solid.density(temperature);
+            if (ρi == null) {
+                return null;
+            }
+            ρ = precision.add(ρ, precision.multiply(precision.divide(solid.mass(), σm), ρi));
+        }
+        return ρ;
+    }
+
+    private static final class Sample {
+
+        private final BigDecimal temperature;
+
+        @Nullable
+        private final BigDecimal density;
+
+        private Sample(@Nonnull BigDecimal temperature, @Nullable BigDecimal density) {
+            this.temperature = temperature;
+            this.density = density;
+        }
     }
 }
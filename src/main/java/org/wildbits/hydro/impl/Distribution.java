@@ -0,0 +1,87 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.SplittableRandom;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Probability distribution of an uncertain quantity, sampled from a {@link SplittableRandom}.
+ */
+public abstract class Distribution {
+
+    protected Distribution() {}
+
+    /**
+     * @param random the source of randomness.
+     * @return a value drawn from the distribution.
+     */
+    public abstract double sample(@Nonnull SplittableRandom random);
+
+    /**
+     * @param value the value of the quantity.
+     * @return the distribution of an exactly known quantity. Sampling it does not consume randomness.
+     */
+    @Nonnull
+    public static Distribution constant(final double value) {
+        return new Distribution() {
+            @Override
+            public double sample(@Nonnull SplittableRandom random) {
+                return value;
+            }
+        };
+    }
+
+    /**
+     * @param min the lower bound, included.
+     * @param max the upper bound, excluded.
+     * @return the uniform distribution over {@code [min, max[}.
+     * @throws IllegalArgumentException if the bounds are inverted.
+     */
+    @Nonnull
+    public static Distribution uniform(final double min, final double max) {
+        if (!(max >= min)) {
+            throw new IllegalArgumentException("invalid bounds");
+        }
+        return new Distribution() {
+            @Override
+            public double sample(@Nonnull SplittableRandom random) {
+                return min + (max - min) * random.nextDouble();
+            }
+        };
+    }
+
+    /**
+     * @param mean the mean of the distribution.
+     * @param deviation the standard deviation of the distribution.
+     * @return the normal distribution, sampled with the Box-Muller transform.
+     * @throws IllegalArgumentException if the deviation is negative.
+     */
+    @Nonnull
+    public static Distribution normal(final double mean, final double deviation) {
+        if (!(deviation >= 0)) {
+            throw new IllegalArgumentException("deviation can't be negative");
+        }
+        return new Distribution() {
+            @Override
+            public double sample(@Nonnull SplittableRandom random) {
+                final double u = 1 - random.nextDouble(), v = random.nextDouble();
+                return mean + deviation * Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+            }
+        };
+    }
+}
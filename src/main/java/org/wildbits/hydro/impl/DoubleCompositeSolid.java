@@ -0,0 +1,182 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.wildbits.data.Summation;
+import org.wildbits.hydro.CompressibleSolid;
+import org.wildbits.hydro.DoubleSolid;
+
+/**
+ * Represent an composite of physically connected solids, evaluated with primitive {@code double} arithmetic.
+ * As for {@link CompositeSolid}, nested composites are flattened and the aggregates are computed at construction.
+ * The volume and mass are compensated sums (see {@link Summation}), which do not depend on the number of threads.
+ * The volume of the {@link CompressibleSolid} components depends on the pressure, the buoyancy as a function of the
+ * depth can be precompiled with {@link #buoyancyCurve(double, double, double)}.
+ */
+public class DoubleCompositeSolid implements CompressibleSolid {
+
+    private final DoubleSolid[] solids;
+
+    /**
+     * The mass fraction of each solid.
+     */
+    private final double[] weights;
+
+    private final double volume, mass;
+
+    /**
+     * The density of the composite or {@link Double#NaN} if it depends on the temperature.
+     */
+    private final double density;
+
+    private final Double boxedVolume, boxedMass;
+
+    /**
+     * @param solids the list of physically connected solids.
+     */
+    public DoubleCompositeSolid(@Nonnull final List<? extends DoubleSolid> solids) {
+        final List<DoubleSolid> leaves = new ArrayList<DoubleSolid>(solids.size());
+        boolean constantDensity = true;
+        final double[] volumes = new double[solids.size()], masses = new double[solids.size()];
+        int i = 0;
+        for (DoubleSolid solid : solids) {
+            if (solid instanceof DoubleCompositeSolid) {
+                final DoubleCompositeSolid composite = (DoubleCompositeSolid) solid;
+                leaves.addAll(Arrays.asList(composite.solids));
+                constantDensity &= !Double.isNaN(composite.density);
+            } else {
+                leaves.add(solid);
+                constantDensity &= solid instanceof DoubleHomogeneousSolid;
+            }
+            volumes[i] = solid.volume();
+            masses[i++] = solid.mass();
+        }
+        final double σv = Summation.sum(volumes), σm = Summation.sum(masses);
+        this.solids = leaves.toArray(new DoubleSolid[leaves.size()]);
+        weights = new double[this.solids.length];
+        for (int j = 0 ; j < weights.length ; j++) {
+            weights[j] = this.solids[j].mass() / σm;
+        }
+        volume = σv;
+        mass = σm;
+        boxedVolume = σv;
+        boxedMass = σm;
+        density = constantDensity ? density(0) : Double.NaN;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nonnull
+    public Double volume() {
+        return boxedVolume;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nonnull
+    public Double mass() {
+        return boxedMass;
+    }
+
+    /**
+     * @return the solids of the composite.
+     */
+    @Nonnull
+    DoubleSolid[] solids() {
+        return solids;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double volumeAt(final double pressure) {
+        double v = 0;
+        for (DoubleSolid solid : solids) {
+            v += solid instanceof CompressibleSolid ? ((CompressibleSolid) solid).volumeAt(pressure) : solid.volume();
+        }
+        return v;
+    }
+
+    /**
+     * @param ρ the density of the seawater in {@code kg•m^-3}
+     * @param maxDepth the maximum depth of the curve in {@code m}
+     * @param tolerance the maximum interpolation error of the buoyancy in {@code kg}
+     * @return the buoyancy of the composite as a function of the depth.
+     * @throws IllegalArgumentException if the density, the depth or the tolerance are not positive.
+     */
+    @Nonnull
+    public BuoyancyCurve buoyancyCurve(final double ρ, final double maxDepth, final double tolerance) {
+        return new BuoyancyCurve(this, ρ, maxDepth, tolerance);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double densityAt(final double temperature) {
+        return Double.isNaN(density) ? density(temperature) : density;
+    }
+
+    /**
+     * @return the mass weighted density of the solids at the given temperature.
+     */
+    private double density(final double temperature) {
+        double ρ = 0;
+        for (int i = 0 ; i < solids.length ; i++) {
+            ρ += weights[i] * solids[i].densityAt(temperature);
+        }
+        return ρ;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double buoyancyIn(final double ρ) {
+        return ρ * volume - mass;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public Double density(@Nonnull Number temperature) {
+        final double ρ = densityAt(temperature.doubleValue());
+        return Double.isNaN(ρ) ? null : ρ;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public Double buoyancy(@Nonnull Number ρ) {
+        return buoyancyIn(ρ.doubleValue());
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.wildbits.hydro.DoubleSolid;
+import org.wildbits.hydro.Solid;
+
+/**
+ * Represent an homogeneous solid, evaluated with primitive {@code double} arithmetic.
+ */
+public class DoubleHomogeneousSolid implements DoubleSolid {
+
+    private final double volume;
+
+    private final double mass;
+
+    private final Double boxedVolume, boxedMass;
+
+    /**
+     * @param volume in {@code m^-3}
+     * @param mass in {@code kg}
+     */
+    public DoubleHomogeneousSolid(final double volume, final double mass) {
+        this.volume = volume;
+        this.mass = mass;
+        this.boxedVolume = volume;
+        this.boxedMass = mass;
+    }
+
+    /**
+     * @param solid a solid of any backend.
+     * @return the solid itself if it is a {@link DoubleSolid}, or an homogeneous solid of the same volume and mass,
+     *         which has the same buoyancy.
+     */
+    @Nonnull
+    static DoubleSolid of(@Nonnull final Solid<? extends Number> solid) {
+        return solid instanceof DoubleSolid ? (DoubleSolid) solid
+                : new DoubleHomogeneousSolid(solid.volume().doubleValue(), solid.mass().doubleValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nonnull
+    public Double volume() {
+        return boxedVolume;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nonnull
+    public Double mass() {
+        return boxedMass;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double densityAt(final double temperature) {
+        return mass / volume;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double buoyancyIn(final double ρ) {
+        return ρ * volume - mass;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public Double density(@Nonnull Number temperature) {
+        return densityAt(temperature.doubleValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public Double buoyancy(@Nonnull Number ρ) {
+        return buoyancyIn(ρ.doubleValue());
+    }
+}
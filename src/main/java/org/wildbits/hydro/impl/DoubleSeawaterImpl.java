@@ -0,0 +1,288 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.Spliterator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.wildbits.hydro.DoubleSaltedLiquid;
+
+/**
+ * Salt Water Density model as defined in paper: The thermophysical properties of seawater: A review of existing
+ * correlations and data, Eq. 8, evaluated with primitive {@code double} arithmetic.
+ * The salinity dependent terms are folded once at construction so that the density is evaluated as a polynomial
+ * in temperature in Horner form, without allocation.
+ * <p>
+ * The bulk methods evaluate the polynomial over whole arrays. Their loops are kept free of data dependent branches
+ * (the validity range is applied as a select on the computed value) so that the JIT compiler can vectorize them.
+ *
+ * @see SeawaterImpl
+ */
+public class DoubleSeawaterImpl implements DoubleSaltedLiquid {
+
+    static final double
+            MIN_TEMPERATURE = SeawaterImpl.MIN_TEMPERATURE.doubleValue(),
+            MAX_TEMPERATURE = SeawaterImpl.MAX_TEMPERATURE.doubleValue(),
+            MIN_SALINITY = SeawaterImpl.MIN_SALINITY.doubleValue(),
+            MAX_SALINITY = SeawaterImpl.MAX_SALINITY.doubleValue();
+
+    static final double
+            A1 = SeawaterImpl.A1.doubleValue(),
+            A2 = SeawaterImpl.A2.doubleValue(),
+            A3 = SeawaterImpl.A3.doubleValue(),
+            A4 = SeawaterImpl.A4.doubleValue(),
+            A5 = SeawaterImpl.A5.doubleValue(),
+            B1 = SeawaterImpl.B1.doubleValue(),
+            B2 = SeawaterImpl.B2.doubleValue(),
+            B3 = SeawaterImpl.B3.doubleValue(),
+            B4 = SeawaterImpl.B4.doubleValue(),
+            B5 = SeawaterImpl.B5.doubleValue();
+
+    private final Double salinity;
+
+    /**
+     * The coefficients of the temperature polynomial for the salinity of this instance.
+     * The salinity dependent coefficients are {@link Double#NaN} if the salinity is out of the model range,
+     * making every density undefined.
+     */
+    private final double c0, c1, c2, c3, c4;
+
+    /**
+     * @param salinity the water salinity in {@code kg/kg}. Fresh water has salinity of {@code 0 kg/kg}.
+     */
+    public DoubleSeawaterImpl(final double salinity) {
+        if (!(salinity >= 0)) {
+            throw new IllegalArgumentException("salinity can't be negative");
+        }
+        this.salinity = salinity;
+        final double s = validSalinity(salinity) ? salinity : Double.NaN;
+        c0 = A1 + B1 * s;
+        c1 = A2 + B2 * s;
+        c2 = A3 + B3 * s + B5 * s * s;
+        c3 = A4 + B4 * s;
+        c4 = A5;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double densityAt(final double temperature) {
+        final double t = temperature;
+        final double ρ = c0 + t * (c1 + t * (c2 + t * (c3 + t * c4)));
+        return validTemperature(t) ? ρ : Double.NaN;
+    }
+
+    /**
+     * Return the partial derivative of the density with respect to the temperature.
+     * @param temperature the temperature in {@code °C}
+     * @return the derivative in {@code kg•m^-3•°C^-1} or {@link Double#NaN} if undefined.
+     */
+    public double dDensityDt(final double temperature) {
+        return validTemperature(temperature) && !Double.isNaN(c0)
+                ? c1 + temperature * (2 * c2 + temperature * (3 * c3 + temperature * 4 * c4)) : Double.NaN;
+    }
+
+    /**
+     * Return the partial derivative of the density with respect to the salinity.
+     * @param temperature the temperature in {@code °C}
+     * @return the derivative in {@code kg•m^-3} per {@code kg/kg} or {@link Double#NaN} if undefined.
+     */
+    public double dDensityDs(final double temperature) {
+        return validTemperature(temperature) && !Double.isNaN(c0)
+                ? dDensityDs(temperature, salinity) : Double.NaN;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void density(@Nonnull final double[] temperatures, @Nonnull final double[] out) {
+        checkLength(temperatures.length, out.length);
+        density(temperatures, out, temperatures.length);
+    }
+
+    /**
+     * Compute the density of the liquid for the first {@code length} temperatures.
+     */
+    void density(@Nonnull final double[] temperatures, @Nonnull final double[] out, final int length) {
+        final double c0 = this.c0, c1 = this.c1, c2 = this.c2, c3 = this.c3, c4 = this.c4;
+        for (int i = 0 ; i < length ; i++) {
+            final double t = temperatures[i];
+            final double ρ = c0 + t * (c1 + t * (c2 + t * (c3 + t * c4)));
+            out[i] = validTemperature(t) ? ρ : Double.NaN;
+        }
+    }
+
+    /**
+     * @param from the first temperature in {@code °C}
+     * @param step the distance between two consecutive temperatures in {@code °C}
+     * @param count the number of temperatures.
+     * @return the spliterator over the densities at the temperatures {@code from + i•step}, computed by forward
+     *         differencing (see {@link TemperatureSweep}).
+     */
+    @Nonnull
+    public Spliterator.OfDouble sweep(final double from, final double step, final long count) {
+        return TemperatureSweep.of(salinity, from, step, count);
+    }
+
+    /**
+     * Compute the density of seawater for each of the given temperature/salinity pairs.
+     * @param temperatures the temperatures in {@code °C}
+     * @param salinities the salinities in {@code kg/kg}, at the same index as the corresponding temperature
+     * @param out the array receiving, at the same index, the density in {@code kg•m^-3} or {@link Double#NaN}
+     *            if undefined.
+     * @throws IllegalArgumentException if {@code salinities} or {@code out} is shorter than {@code temperatures}.
+     */
+    public static void density(@Nonnull final double[] temperatures, @Nonnull final double[] salinities,
+                               @Nonnull final double[] out) {
+        final int length = temperatures.length;
+        checkLength(length, salinities.length);
+        checkLength(length, out.length);
+        for (int i = 0 ; i < length ; i++) {
+            final double t = temperatures[i], s = salinities[i];
+            final double ρ = density(t, s);
+            out[i] = validTemperature(t) & validSalinity(s) ? ρ : Double.NaN;
+        }
+    }
+
+    /**
+     * Return the salinity of seawater with the given density at the given temperature.
+     * <p>
+     * The Eq. 8 polynomial is quadratic in salinity, {@code ρ = P(t) + Q(t)•s + R(t)•s^2}. The salinity is the
+     * root continuous with the solution of the linear term, computed in the form which does not cancel,
+     * {@code s = 2•(ρ - P) / (Q + sign(Q)•sqrt(Q^2 + 4•R•(ρ - P)))}, which holds when {@code R} vanishes at
+     * {@code 0 °C}.
+     * @param density the density in {@code kg•m^-3}
+     * @param temperature the temperature in {@code °C}
+     * @return the salinity in {@code kg/kg} or {@link Double#NaN} if the temperature or the resulting salinity is out
+     *         of the model range.
+     */
+    public static double salinity(final double density, final double temperature) {
+        final double t = temperature;
+        final double c = density - (A1 + t * (A2 + t * (A3 + t * (A4 + t * A5))));
+        final double q = B1 + t * (B2 + t * (B3 + t * B4));
+        final double s = 2 * c / (q + Math.copySign(Math.sqrt(q * q + 4 * B5 * t * t * c), q));
+        return validTemperature(t) & validSalinity(s) ? s : Double.NaN;
+    }
+
+    /**
+     * Compute the salinity of seawater for each of the given density/temperature pairs, as
+     * {@link #salinity(double, double)} does. The loop is free of allocation and data dependent branches.
+     * @param densities the densities in {@code kg•m^-3}
+     * @param temperatures the temperatures in {@code °C}, at the same index as the corresponding density
+     * @param out the array receiving, at the same index, the salinity in {@code kg/kg} or {@link Double#NaN}
+     *            if out of the model range.
+     * @throws IllegalArgumentException if {@code temperatures} or {@code out} is shorter than {@code densities}.
+     */
+    public static void salinity(@Nonnull final double[] densities, @Nonnull final double[] temperatures,
+                                @Nonnull final double[] out) {
+        final int length = densities.length;
+        checkLength(length, temperatures.length);
+        checkLength(length, out.length);
+        for (int i = 0 ; i < length ; i++) {
+            out[i] = salinity(densities[i], temperatures[i]);
+        }
+    }
+
+    static void checkLength(final int expected, final int actual) {
+        if (actual < expected) {
+            throw new IllegalArgumentException("array of length " + actual + " is shorter than " + expected);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public Double density(@Nonnull Number temperature) {
+        final double ρ = densityAt(temperature.doubleValue());
+        return Double.isNaN(ρ) ? null : ρ;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public Double salinity() {
+        return salinity;
+    }
+
+    /**
+     * @return the density in {@code kg•m^-3} given by the Eq. 8 polynomial, regardless of the model validity range.
+     */
+    static double density(final double t, final double s) {
+        return A1 + B1 * s + t * (A2 + B2 * s + t * (A3 + s * (B3 + B5 * s) + t * (A4 + B4 * s + t * A5)));
+    }
+
+    /**
+     * @return the coefficients, by increasing degree, of the Eq. 8 polynomial in temperature for the salinity.
+     */
+    static double[] temperatureCoefficients(final double s) {
+        return new double[]{A1 + B1 * s, A2 + B2 * s, A3 + s * (B3 + B5 * s), A4 + B4 * s, A5};
+    }
+
+    /**
+     * @return the coefficients, by increasing degree, of the Eq. 8 polynomial in salinity for the temperature.
+     */
+    static double[] salinityCoefficients(final double t) {
+        return new double[]{
+                A1 + t * (A2 + t * (A3 + t * (A4 + t * A5))),
+                B1 + t * (B2 + t * (B3 + t * B4)),
+                B5 * t * t};
+    }
+
+    /**
+     * @return the partial derivative of the Eq. 8 polynomial with respect to the temperature.
+     */
+    static double dDensityDt(final double t, final double s) {
+        return A2 + B2 * s + t * (2 * (A3 + s * (B3 + B5 * s)) + t * (3 * (A4 + B4 * s) + t * 4 * A5));
+    }
+
+    /**
+     * @return the partial derivative of the Eq. 8 polynomial with respect to the salinity.
+     */
+    static double dDensityDs(final double t, final double s) {
+        return B1 + t * (B2 + t * (B3 + 2 * B5 * s + t * B4));
+    }
+
+    /**
+     * @return the mixed second derivative of the Eq. 8 polynomial with respect to the temperature and salinity.
+     */
+    static double d2DensityDtDs(final double t, final double s) {
+        return B2 + t * (2 * (B3 + 2 * B5 * s) + t * 3 * B4);
+    }
+
+    /**
+     * @param salinity in {@code kg/kg}
+     * @return {@code true} if the provided salinity is valid for the model ; {@code false} otherwise.
+     */
+    static boolean validSalinity(final double salinity) {
+        return salinity >= MIN_SALINITY && salinity < MAX_SALINITY;
+    }
+
+    /**
+     * @param temperature in {@code °C}
+     * @return {@code true} if the provided temperature is valid for the model ; {@code false} otherwise.
+     */
+    static boolean validTemperature(final double temperature) {
+        return temperature >= MIN_TEMPERATURE && temperature < MAX_TEMPERATURE;
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.wildbits.hydro.DoubleSolid;
+import org.wildbits.hydro.SolidBuilder;
+
+/**
+ * Builder for {@link DoubleSolid} instances.
+ */
+public class DoubleSolidBuilderImpl implements SolidBuilder<Double> {
+
+    private final List<DoubleSolid> solids = new ArrayList<DoubleSolid>();
+
+    public DoubleSolidBuilderImpl() {}
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public DoubleSolidBuilderImpl add(@Nonnull final Number volume, @Nonnull final Number mass) {
+        return add(volume.doubleValue(), mass.doubleValue());
+    }
+
+    /**
+     * Add a volume/mass pair to the solid being built.
+     * @param volume the volume to add in {@code m^-3}
+     * @param mass the mass to add in {@code kg}
+     * @return {@code this}
+     */
+    @Nonnull
+    public DoubleSolidBuilderImpl add(final double volume, final double mass) {
+        solids.add(new DoubleHomogeneousSolid(volume, mass));
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public DoubleSolid build()
+            throws IllegalArgumentException {
+        int size = solids.size();
+        if (size == 0) {
+            throw new IllegalArgumentException("no volume/mass pair is defined");
+        }
+        return solids.size() == 1 ? solids.get(0) : new DoubleCompositeSolid(solids);
+    }
+
+}
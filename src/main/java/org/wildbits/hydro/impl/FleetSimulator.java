@@ -0,0 +1,431 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.annotation.Nonnull;
+
+import org.wildbits.hydro.CompressibleSolid;
+import org.wildbits.hydro.DensityProfile;
+import org.wildbits.hydro.Solid;
+import org.wildbits.hydro.ThermalSolid;
+
+/**
+ * Simulate the vertical motion of a fleet of floats in a water column.
+ * <p>
+ * Each float moves under its weight, its buoyancy, the quadratic drag {@code ½ • ρ • Cd•A • |w| • w} and the inertia
+ * of the water it entrains (added mass {@code Ca • ρ • V}). The volume of the {@link CompressibleSolid} floats
+ * depends on the hydrostatic pressure, integrated over the density of a {@link WaterColumn} profile or
+ * approximated by {@code P0 + ρ(z) • g • z} for other profiles. The volume of the ballast (e.g. an oil bladder) is
+ * added to the volume of the float. The motion is integrated with the classic fourth order Runge-Kutta method at a
+ * fixed time step. The volume of the {@link ThermalSolid} floats is taken at the temperature of a
+ * {@link WaterColumn} profile, and at their reference temperature for other profiles, which have no temperature.
+ * <p>
+ * The state of the fleet is held in struct of arrays layout in a {@link Fleet}. The floats are split in ranges of
+ * {@value #CHUNK} floats integrated in parallel in a {@link ForkJoinPool}, each range over the whole run. A float
+ * stops when it surfaces, when it reaches the bottom of the water column or when the water density is undefined at
+ * its depth. The {@link Observer} receives the events and optionally the trajectories.
+ */
+public class FleetSimulator {
+
+    /**
+     * The events reported to the {@link Observer}.
+     */
+    public enum Event {
+
+        /**
+         * The float crossed, for the first time, the depth at which its weight and buoyancy balance. The event is
+         * reported at the linearly interpolated crossing.
+         */
+        NEUTRAL,
+
+        /**
+         * The float reached the surface while ascending and stopped.
+         */
+        SURFACED,
+
+        /**
+         * The float reached the bottom of the water column and stopped.
+         */
+        GROUNDED,
+
+        /**
+         * The water density is undefined at the depth of the float, which stopped.
+         */
+        UNDEFINED
+    }
+
+    /**
+     * Receive the events and trajectories of a run. The methods are called from the threads integrating the floats
+     * and must be thread safe. The calls for a given float are made by a single thread, in chronological order.
+     */
+    public abstract static class Observer {
+
+        /**
+         * @param body the index of the float in the fleet.
+         * @param time the time in {@code s}
+         * @param depth the depth in {@code m}
+         * @param velocity the velocity in {@code m•s^-1}, positive downwards.
+         */
+        public void position(int body, double time, double depth, double velocity) {}
+
+        /**
+         * @param body the index of the float in the fleet.
+         * @param event the event.
+         * @param time the time of the event in {@code s}
+         * @param depth the depth of the event in {@code m}
+         */
+        public void event(int body, @Nonnull Event event, double time, double depth) {}
+    }
+
+    /**
+     * The number of floats below which a range is integrated sequentially.
+     */
+    private static final int CHUNK = 256;
+
+    private static final double G = CompressibleSolid.GRAVITY;
+
+    private final DensityProfile profile;
+
+    /**
+     * The profile if it is a {@link WaterColumn}, whose integrated pressure is then used.
+     */
+    private final WaterColumn column;
+
+    private final double bottom;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * @param profile the density of the water column.
+     * @param bottom the depth of the bottom of the water column in {@code m}
+     */
+    public FleetSimulator(@Nonnull final DensityProfile profile, final double bottom) {
+        this(profile, bottom, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param profile the density of the water column.
+     * @param bottom the depth of the bottom of the water column in {@code m}
+     * @param pool the pool integrating the floats.
+     * @throws IllegalArgumentException if the bottom depth is not positive.
+     */
+    public FleetSimulator(@Nonnull final DensityProfile profile, final double bottom,
+                          @Nonnull final ForkJoinPool pool) {
+        if (!(bottom > 0)) {
+            throw new IllegalArgumentException("bottom depth must be positive");
+        }
+        this.profile = profile;
+        this.column = profile instanceof WaterColumn ? (WaterColumn) profile : null;
+        this.bottom = bottom;
+        this.pool = pool;
+    }
+
+    /**
+     * Integrate the motion of the floats of the fleet, from the time of the fleet, and update its state.
+     * @param fleet the fleet.
+     * @param duration the duration of the run in {@code s}
+     * @param step the time step in {@code s}
+     * @param sampling the number of steps between two positions reported to the observer, {@code 0} for none.
+     * @param observer the observer of the run.
+     * @throws IllegalArgumentException if the duration, the step or the sampling are invalid.
+     */
+    public void run(@Nonnull final Fleet fleet, final double duration, final double step, final int sampling,
+                    @Nonnull final Observer observer) {
+        if (!(duration >= 0 && step > 0) || sampling < 0) {
+            throw new IllegalArgumentException("invalid duration, step or sampling");
+        }
+        final long steps = (long) Math.ceil(duration / step);
+        final Range range = new Range(fleet, observer, steps, step, sampling, 0, fleet.size);
+        if (fleet.size > CHUNK) {
+            pool.invoke(range);
+        } else {
+            range.compute();
+        }
+        fleet.time += steps * step;
+    }
+
+    /**
+     * The state of a fleet of floats, in struct of arrays layout.
+     */
+    public static final class Fleet {
+
+        private int size;
+
+        private double time;
+
+        private double[] depth = new double[16], velocity = new double[16], ballast = new double[16];
+
+        private double[] volume = new double[16], mass = new double[16], drag = new double[16],
+                addedMass = new double[16];
+
+        private CompressibleSolid[] compressible = new CompressibleSolid[16];
+
+        private ThermalVolume[] thermal = new ThermalVolume[16];
+
+        /**
+         * The net buoyancy at the end of the last step, tracked until the float crosses its neutral depth.
+         */
+        private double[] net = new double[16];
+
+        private boolean[] stopped = new boolean[16], neutral = new boolean[16];
+
+        /**
+         * Add a float at rest.
+         * @param solid the float.
+         * @param drag the drag area {@code Cd•A} of the float in {@code m^2}
+         * @param addedMass the added mass coefficient {@code Ca} of the float.
+         * @param depth the initial depth in {@code m}
+         * @param ballast the volume of the ballast in {@code m^3}
+         * @return the index of the float.
+         */
+        public int add(@Nonnull final Solid<? extends Number> solid, final double drag, final double addedMass,
+                       final double depth, final double ballast) {
+            if (size == this.depth.length) {
+                grow();
+            }
+            final int i = size++;
+            this.depth[i] = depth;
+            this.velocity[i] = 0;
+            this.ballast[i] = ballast;
+            this.volume[i] = solid.volume().doubleValue();
+            this.mass[i] = solid.mass().doubleValue();
+            this.drag[i] = drag;
+            this.addedMass[i] = addedMass;
+            this.compressible[i] = solid instanceof CompressibleSolid ? (CompressibleSolid) solid : null;
+            this.thermal[i] = ThermalVolume.of(solid);
+            this.net[i] = Double.NaN;
+            return i;
+        }
+
+        /**
+         * @return the number of floats.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return the time of the fleet in {@code s}, increased by each run.
+         */
+        public double time() {
+            return time;
+        }
+
+        /**
+         * @return the depth of the float in {@code m}
+         */
+        public double depth(final int body) {
+            return depth[check(body)];
+        }
+
+        /**
+         * @return the velocity of the float in {@code m•s^-1}, positive downwards.
+         */
+        public double velocity(final int body) {
+            return velocity[check(body)];
+        }
+
+        /**
+         * @return the volume of the ballast of the float in {@code m^3}
+         */
+        public double ballast(final int body) {
+            return ballast[check(body)];
+        }
+
+        /**
+         * Set the volume of the ballast of the float, which resumes its motion if it had stopped.
+         * @param body the index of the float.
+         * @param ballast the volume of the ballast in {@code m^3}
+         */
+        public void setBallast(final int body, final double ballast) {
+            this.ballast[check(body)] = ballast;
+            stopped[body] = false;
+            neutral[body] = false;
+            net[body] = Double.NaN;
+        }
+
+        /**
+         * @return {@code true} if the float has stopped.
+         */
+        public boolean stopped(final int body) {
+            return stopped[check(body)];
+        }
+
+        private int check(final int body) {
+            if (body < 0 || body >= size) {
+                throw new IllegalArgumentException("no float " + body);
+            }
+            return body;
+        }
+
+        private void grow() {
+            final int length = 2 * depth.length;
+            depth = Arrays.copyOf(depth, length);
+            velocity = Arrays.copyOf(velocity, length);
+            ballast = Arrays.copyOf(ballast, length);
+            volume = Arrays.copyOf(volume, length);
+            mass = Arrays.copyOf(mass, length);
+            drag = Arrays.copyOf(drag, length);
+            addedMass = Arrays.copyOf(addedMass, length);
+            compressible = Arrays.copyOf(compressible, length);
+            thermal = Arrays.copyOf(thermal, length);
+            net = Arrays.copyOf(net, length);
+            stopped = Arrays.copyOf(stopped, length);
+            neutral = Arrays.copyOf(neutral, length);
+        }
+    }
+
+    /**
+     * Integrate a range of floats over the whole run.
+     */
+    private final class Range extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Fleet fleet;
+
+        private final Observer observer;
+
+        private final long steps;
+
+        private final double h;
+
+        private final int sampling, from, to;
+
+        /**
+         * The density and volume at the last evaluated state, set by {@link #acceleration}.
+         */
+        private double ρ, v;
+
+        private Range(Fleet fleet, Observer observer, long steps, double h, int sampling, int from, int to) {
+            this.fleet = fleet;
+            this.observer = observer;
+            this.steps = steps;
+            this.h = h;
+            this.sampling = sampling;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new Range(fleet, observer, steps, h, sampling, from, middle),
+                        new Range(fleet, observer, steps, h, sampling, middle, to));
+                return;
+            }
+            final Fleet f = fleet;
+            final double[] depth = f.depth, velocity = f.velocity;
+            for (int i = from ; i < to ; i++) {
+                if (!f.stopped[i] && !f.neutral[i]) {
+                    f.net[i] = net(i, depth[i]);
+                }
+            }
+            for (long n = 1 ; n <= steps ; n++) {
+                final double t0 = f.time + (n - 1) * h, t1 = f.time + n * h;
+                final boolean sample = sampling > 0 && n % sampling == 0;
+                for (int i = from ; i < to ; i++) {
+                    if (f.stopped[i]) {
+                        continue;
+                    }
+                    final double z = depth[i], w = velocity[i];
+                    final double k1z = w, k1w = acceleration(i, z, w);
+                    final double k2z = w + h / 2 * k1w, k2w = acceleration(i, z + h / 2 * k1z, k2z);
+                    final double k3z = w + h / 2 * k2w, k3w = acceleration(i, z + h / 2 * k2z, k3z);
+                    final double k4z = w + h * k3w, k4w = acceleration(i, z + h * k3z, k4z);
+                    final double z1 = z + h / 6 * (k1z + 2 * k2z + 2 * k3z + k4z);
+                    final double w1 = w + h / 6 * (k1w + 2 * k2w + 2 * k3w + k4w);
+                    if (Double.isNaN(z1) || Double.isNaN(w1)) {
+                        stop(i, Event.UNDEFINED, t0, z);
+                        continue;
+                    }
+                    if (z1 <= 0 && w1 < 0) {
+                        depth[i] = 0;
+                        velocity[i] = 0;
+                        stop(i, Event.SURFACED, t1, 0);
+                        continue;
+                    }
+                    if (z1 >= bottom) {
+                        depth[i] = bottom;
+                        velocity[i] = 0;
+                        stop(i, Event.GROUNDED, t1, bottom);
+                        continue;
+                    }
+                    depth[i] = z1;
+                    velocity[i] = w1;
+                    if (!f.neutral[i]) {
+                        final double b0 = f.net[i], b1 = net(i, z1);
+                        if (b0 == 0 || b0 * b1 < 0) {
+                            final double fraction = b0 / (b0 - b1);
+                            f.neutral[i] = true;
+                            observer.event(i, Event.NEUTRAL, t0 + fraction * h, z + fraction * (z1 - z));
+                        }
+                        f.net[i] = b1;
+                    }
+                    if (sample) {
+                        observer.position(i, t1, z1, w1);
+                    }
+                }
+            }
+        }
+
+        private void stop(final int body, @Nonnull final Event event, final double time, final double depth) {
+            fleet.stopped[body] = true;
+            observer.event(body, event, time, depth);
+        }
+
+        /**
+         * Set the density {@link #ρ} and volume {@link #v} of the float at the given depth.
+         */
+        private void state(final int body, final double z) {
+            ρ = profile.densityAt(Math.max(z, 0));
+            final CompressibleSolid compressible = fleet.compressible[body];
+            final ThermalVolume thermal = fleet.thermal[body];
+            if (compressible != null) {
+                final double pressure = column != null ? column.pressureAt(Math.max(z, 0))
+                        : BuoyancyCurve.pressure(Math.max(z, 0), ρ);
+                v = compressible.volumeAt(pressure) + fleet.ballast[body];
+            } else if (thermal != null && column != null) {
+                v = thermal.volumeAt(column.temperatureAt(Math.max(z, 0))) + fleet.ballast[body];
+            } else {
+                v = fleet.volume[body] + fleet.ballast[body];
+            }
+        }
+
+        /**
+         * @return the net buoyancy in {@code kg} of the float at the given depth.
+         */
+        private double net(final int body, final double z) {
+            state(body, z);
+            return ρ * v - fleet.mass[body];
+        }
+
+        /**
+         * @return the acceleration in {@code m•s^-2}, positive downwards, of the float at the given depth and velocity.
+         */
+        private double acceleration(final int body, final double z, final double w) {
+            state(body, z);
+            final double m = fleet.mass[body];
+            final double force = G * (m - ρ * v) - 0.5 * ρ * fleet.drag[body] * Math.abs(w) * w;
+            return force / (m + fleet.addedMass[body] * ρ * v);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import org.wildbits.hydro.CompressibleSolid;
+
+/**
+ * Represent a compressible solid, such as a closed cell foam, with a constant bulk modulus {@code K}: the volume
+ * decreases linearly with the pressure, {@code V(P) = V0 • (1 - (P - P0) / K)} with {@code V0} the volume at the
+ * atmospheric pressure {@code P0}. The volume is undefined at pressures where it would not be positive.
+ */
+public class FoamSolid extends DoubleHomogeneousSolid implements CompressibleSolid {
+
+    private final double volume;
+
+    private final double modulus;
+
+    /**
+     * @param volume in {@code m^-3} at the atmospheric pressure
+     * @param mass in {@code kg}
+     * @param modulus the bulk modulus in {@code Pa}
+     * @throws IllegalArgumentException if the bulk modulus is not positive.
+     */
+    public FoamSolid(final double volume, final double mass, final double modulus) {
+        super(volume, mass);
+        if (!(modulus > 0)) {
+            throw new IllegalArgumentException("bulk modulus must be positive");
+        }
+        this.volume = volume;
+        this.modulus = modulus;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double volumeAt(final double pressure) {
+        final double v = volume * (1 - (pressure - ATMOSPHERIC_PRESSURE) / modulus);
+        return v > 0 ? v : Double.NaN;
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import org.wildbits.hydro.CompressibleSolid;
+
+/**
+ * Represent a flexible gas filled solid, such as a lift bag or a buoyancy compensator, whose gas follows Boyle's law
+ * at constant temperature: {@code V(P) = V0 • P0 / P} with {@code V0} the volume at the atmospheric pressure
+ * {@code P0}. The envelope and the mass of the gas are accounted in the mass, the volume of the envelope material is
+ * neglected.
+ */
+public class GasSolid extends DoubleHomogeneousSolid implements CompressibleSolid {
+
+    private final double volume;
+
+    /**
+     * @param volume in {@code m^-3} at the atmospheric pressure
+     * @param mass in {@code kg}, including the gas
+     */
+    public GasSolid(final double volume, final double mass) {
+        super(volume, mass);
+        this.volume = volume;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double volumeAt(final double pressure) {
+        return pressure > 0 ? volume * ATMOSPHERIC_PRESSURE / pressure : Double.NaN;
+    }
+}
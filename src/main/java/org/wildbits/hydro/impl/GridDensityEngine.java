@@ -0,0 +1,171 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.FloatBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.wildbits.hydro.DoubleSolid;
+import org.wildbits.hydro.Solid;
+
+/**
+ * Evaluate the seawater density (Eq. 8), or the buoyancy of a solid, over the cells of {@link GridFile} planes.
+ * <p>
+ * The planes are split in tiles of contiguous cells evaluated in parallel in a {@link ForkJoinPool}. Each tile maps
+ * its window of the temperature, salinity and output planes and evaluates its cells without allocation. Cells out of
+ * the model validity range are set to {@code NaN}.
+ */
+public class GridDensityEngine {
+
+    /**
+     * The default number of cells of a tile.
+     */
+    public static final int DEFAULT_TILE_SIZE = 1 << 20;
+
+    private final ForkJoinPool pool;
+
+    private final int tileSize;
+
+    public GridDensityEngine() {
+        this(ForkJoinPool.commonPool(), DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * @param pool the pool evaluating the tiles.
+     * @param tileSize the number of cells of a tile, at most {@code 2^29}.
+     * @throws IllegalArgumentException if the tile size is out of range.
+     */
+    public GridDensityEngine(@Nonnull final ForkJoinPool pool, final int tileSize) {
+        if (tileSize <= 0 || tileSize > 1 << 29) {
+            throw new IllegalArgumentException("invalid tile size " + tileSize);
+        }
+        this.pool = pool;
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * Compute the seawater density plane in {@code kg•m^-3}.
+     * @param temperature the file holding the temperature plane in {@code °C}
+     * @param temperaturePlane the index of the temperature plane.
+     * @param salinity the file holding the salinity plane in {@code kg/kg}
+     * @param salinityPlane the index of the salinity plane.
+     * @param out the file, open for writing, receiving the density plane.
+     * @param outPlane the index of the density plane.
+     * @throws IllegalArgumentException if the files have different grids.
+     * @throws IOException if a plane can't be mapped.
+     */
+    public void density(@Nonnull final GridFile temperature, final int temperaturePlane,
+                        @Nonnull final GridFile salinity, final int salinityPlane,
+                        @Nonnull final GridFile out, final int outPlane) throws IOException {
+        evaluate(null, temperature, temperaturePlane, salinity, salinityPlane, out, outPlane);
+    }
+
+    /**
+     * Compute the buoyancy plane in {@code kg} of a solid fully immersed in the seawater of each cell.
+     * @param solid the solid to compute the buoyancy of.
+     * @param temperature the file holding the temperature plane in {@code °C}
+     * @param temperaturePlane the index of the temperature plane.
+     * @param salinity the file holding the salinity plane in {@code kg/kg}
+     * @param salinityPlane the index of the salinity plane.
+     * @param out the file, open for writing, receiving the buoyancy plane.
+     * @param outPlane the index of the buoyancy plane.
+     * @throws IllegalArgumentException if the files have different grids.
+     * @throws IOException if a plane can't be mapped.
+     */
+    public void buoyancy(@Nonnull final Solid<? extends Number> solid,
+                         @Nonnull final GridFile temperature, final int temperaturePlane,
+                         @Nonnull final GridFile salinity, final int salinityPlane,
+                         @Nonnull final GridFile out, final int outPlane) throws IOException {
+        evaluate(DoubleHomogeneousSolid.of(solid), temperature, temperaturePlane, salinity, salinityPlane,
+                out, outPlane);
+    }
+
+    private void evaluate(@Nullable final DoubleSolid solid,
+                          @Nonnull final GridFile temperature, final int temperaturePlane,
+                          @Nonnull final GridFile salinity, final int salinityPlane,
+                          @Nonnull final GridFile out, final int outPlane) throws IOException {
+        if (!temperature.sameGrid(salinity) || !temperature.sameGrid(out)) {
+            throw new IllegalArgumentException("the grids have different dimensions");
+        }
+        try {
+            pool.invoke(new Tile(solid, temperature, temperaturePlane, salinity, salinityPlane, out, outPlane,
+                    0, temperature.cells()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class Tile extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final DoubleSolid solid;
+
+        private final GridFile temperature, salinity, out;
+
+        private final int temperaturePlane, salinityPlane, outPlane;
+
+        private final long from, to;
+
+        private Tile(DoubleSolid solid, GridFile temperature, int temperaturePlane, GridFile salinity,
+                     int salinityPlane, GridFile out, int outPlane, long from, long to) {
+            this.solid = solid;
+            this.temperature = temperature;
+            this.temperaturePlane = temperaturePlane;
+            this.salinity = salinity;
+            this.salinityPlane = salinityPlane;
+            this.out = out;
+            this.outPlane = outPlane;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > tileSize) {
+                final long middle = from + (to - from) / tileSize / 2 * tileSize;
+                invokeAll(new Tile(solid, temperature, temperaturePlane, salinity, salinityPlane, out, outPlane,
+                                from, Math.max(middle, from + tileSize)),
+                        new Tile(solid, temperature, temperaturePlane, salinity, salinityPlane, out, outPlane,
+                                Math.max(middle, from + tileSize), to));
+            } else {
+                try {
+                    final int count = (int) (to - from);
+                    evaluate(temperature.map(temperaturePlane, from, count),
+                            salinity.map(salinityPlane, from, count), out.map(outPlane, from, count), count);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        private void evaluate(final FloatBuffer temperatures, final FloatBuffer salinities, final FloatBuffer out,
+                              final int count) {
+            for (int i = 0 ; i < count ; i++) {
+                final double t = temperatures.get(i), s = salinities.get(i);
+                final double ρ = DoubleSeawaterImpl.validTemperature(t) & DoubleSeawaterImpl.validSalinity(s)
+                        ? DoubleSeawaterImpl.density(t, s) : Double.NaN;
+                out.put(i, (float) (solid != null ? solid.buoyancyIn(ρ) : ρ));
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Memory mapped file holding planes of a gridded ocean field (latitude × longitude × depth).
+ * <p>
+ * The file is made of a 64 bytes header followed by the planes. All values are little endian.
+ * <pre>
+ * offset  size  content
+ *      0     8  magic number, the ASCII string "HYDROGRD"
+ *      8     4  format version, 1
+ *     12     4  number of planes
+ *     16     4  number of latitudes
+ *     20     4  number of longitudes
+ *     24     4  number of depths
+ *     28    36  reserved, 0
+ *     64     -  the planes, one after the other
+ * </pre>
+ * Each plane holds one IEEE 754 single precision value per cell, cells being ordered by latitude, then longitude,
+ * then depth: the cell {@code (lat, lon, depth)} has index {@code (lat * longitudes + lon) * depths + depth}.
+ * Missing values (for instance land cells) are {@code NaN}.
+ * <p>
+ * The planes are accessed through mapped windows of the file, so fields larger than the heap can be processed.
+ */
+public class GridFile implements Closeable {
+
+    /**
+     * The size of the header in bytes.
+     */
+    static final int HEADER = 64;
+
+    /**
+     * The format version.
+     */
+    static final int VERSION = 1;
+
+    private static final byte[] MAGIC = "HYDROGRD".getBytes(StandardCharsets.US_ASCII);
+
+    private final FileChannel channel;
+
+    private final boolean writable;
+
+    private final int planes, latitudes, longitudes, depths;
+
+    private GridFile(@Nonnull final FileChannel channel, final boolean writable, final int planes,
+                     final int latitudes, final int longitudes, final int depths) {
+        this.channel = channel;
+        this.writable = writable;
+        this.planes = planes;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.depths = depths;
+    }
+
+    /**
+     * Create a grid file, or replace an existing one, with all values set to {@code 0}.
+     * @param path the path of the file.
+     * @param planes the number of planes.
+     * @param latitudes the number of latitudes.
+     * @param longitudes the number of longitudes.
+     * @param depths the number of depths.
+     * @return the grid file, open for reading and writing.
+     * @throws IllegalArgumentException if a dimension is not positive.
+     * @throws IOException if the file can't be created.
+     */
+    @Nonnull
+    public static GridFile create(@Nonnull final Path path, final int planes, final int latitudes,
+                                  final int longitudes, final int depths) throws IOException {
+        if (planes <= 0 || latitudes <= 0 || longitudes <= 0 || depths <= 0) {
+            throw new IllegalArgumentException("dimensions must be positive");
+        }
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            header.put(MAGIC).putInt(VERSION).putInt(planes).putInt(latitudes).putInt(longitudes).putInt(depths);
+            header.rewind();
+            channel.write(header, 0);
+            final GridFile file = new GridFile(channel, true, planes, latitudes, longitudes, depths);
+            final long size = file.offset(planes, 0);
+            channel.write(ByteBuffer.allocate(1), size - 1);
+            return file;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Open an existing grid file.
+     * @param path the path of the file.
+     * @param writable {@code true} to open the file for reading and writing ; {@code false} for reading only.
+     * @return the grid file.
+     * @throws IOException if the file can't be read or is not a valid grid file.
+     */
+    @Nonnull
+    public static GridFile open(@Nonnull final Path path, final boolean writable) throws IOException {
+        final FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // read the whole header
+            }
+            header.flip();
+            final byte[] magic = new byte[MAGIC.length];
+            if (header.remaining() < HEADER || !Arrays.equals(MAGIC, get(header, magic))) {
+                throw new IOException("not a grid file: " + path);
+            }
+            final int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("unsupported grid file version " + version);
+            }
+            final GridFile file = new GridFile(channel, writable,
+                    header.getInt(), header.getInt(), header.getInt(), header.getInt());
+            if (file.planes <= 0 || file.latitudes <= 0 || file.longitudes <= 0 || file.depths <= 0
+                    || channel.size() < file.offset(file.planes, 0)) {
+                throw new IOException("corrupted grid file: " + path);
+            }
+            return file;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of planes.
+     */
+    public int planes() {
+        return planes;
+    }
+
+    /**
+     * @return the number of latitudes.
+     */
+    public int latitudes() {
+        return latitudes;
+    }
+
+    /**
+     * @return the number of longitudes.
+     */
+    public int longitudes() {
+        return longitudes;
+    }
+
+    /**
+     * @return the number of depths.
+     */
+    public int depths() {
+        return depths;
+    }
+
+    /**
+     * @return the number of cells of a plane.
+     */
+    public long cells() {
+        return (long) latitudes * longitudes * depths;
+    }
+
+    /**
+     * @return the index of the cell {@code (lat, lon, depth)} in a plane.
+     */
+    public long index(final int lat, final int lon, final int depth) {
+        return ((long) lat * longitudes + lon) * depths + depth;
+    }
+
+    /**
+     * @return {@code true} if the grid has the same dimensions as this grid ; {@code false} otherwise.
+     */
+    public boolean sameGrid(@Nonnull final GridFile grid) {
+        return latitudes == grid.latitudes && longitudes == grid.longitudes && depths == grid.depths;
+    }
+
+    /**
+     * Map a window of a plane in memory.
+     * @param plane the index of the plane.
+     * @param from the index of the first cell of the window.
+     * @param count the number of cells of the window, at most {@code 2^29}.
+     * @return the window, writable if the file is open for writing.
+     * @throws IllegalArgumentException if the window is not inside the plane.
+     * @throws IOException if the window can't be mapped.
+     */
+    @Nonnull
+    public FloatBuffer map(final int plane, final long from, final int count) throws IOException {
+        if (plane < 0 || plane >= planes || from < 0 || count < 0 || count > 1 << 29 || from + count > cells()) {
+            throw new IllegalArgumentException("window out of the grid");
+        }
+        return channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                offset(plane, from), (long) count * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+    }
+
+    /**
+     * Flush the changes to the storage device.
+     * @throws IOException if the changes can't be flushed.
+     */
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long offset(final int plane, final long cell) {
+        return HEADER + (plane * cells() + cell) * Float.BYTES;
+    }
+
+    private static byte[] get(final ByteBuffer buffer, final byte[] bytes) {
+        buffer.get(bytes);
+        return bytes;
+    }
+}
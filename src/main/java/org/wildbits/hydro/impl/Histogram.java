@@ -0,0 +1,224 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Mergeable histogram of {@code double} values with fixed, evenly spaced bins.
+ * <p>
+ * The histogram holds the counts per bin, the counts below and above the bins, the extrema and the mean and
+ * variance (accumulated with the Welford update and merged with the Chan et al. formula), so that its memory does not
+ * depend on the number of values. Histograms with the same bins are merged by adding their counts. {@link Double#NaN}
+ * values are counted apart as undefined. The histogram is not thread safe.
+ */
+public final class Histogram {
+
+    private final double min, max, width;
+
+    private final long[] counts;
+
+    private long underflow, overflow, undefined, count;
+
+    private double lowest = Double.POSITIVE_INFINITY, highest = Double.NEGATIVE_INFINITY;
+
+    private double mean, m2;
+
+    /**
+     * @param min the lower bound of the first bin.
+     * @param max the upper bound of the last bin.
+     * @param bins the number of bins.
+     * @throws IllegalArgumentException if the bounds are inverted or the number of bins is not positive.
+     */
+    public Histogram(final double min, final double max, final int bins) {
+        if (!(max > min) || bins <= 0) {
+            throw new IllegalArgumentException("invalid histogram bins");
+        }
+        this.min = min;
+        this.max = max;
+        this.width = (max - min) / bins;
+        this.counts = new long[bins];
+    }
+
+    /**
+     * @return an empty histogram with the same bins.
+     */
+    @Nonnull
+    public Histogram empty() {
+        return new Histogram(min, max, counts.length);
+    }
+
+    /**
+     * @param value the value to add.
+     */
+    public void add(final double value) {
+        if (Double.isNaN(value)) {
+            undefined++;
+            return;
+        }
+        if (value < min) {
+            underflow++;
+        } else if (value >= max) {
+            overflow++;
+        } else {
+            counts[Math.min((int) ((value - min) / width), counts.length - 1)]++;
+        }
+        lowest = Math.min(lowest, value);
+        highest = Math.max(highest, value);
+        count++;
+        final double δ = value - mean;
+        mean += δ / count;
+        m2 += δ * (value - mean);
+    }
+
+    /**
+     * Add the values of another histogram to this histogram.
+     * @param other the histogram to merge, with the same bins.
+     * @return {@code this}
+     * @throws IllegalArgumentException if the histograms have different bins.
+     */
+    @Nonnull
+    public Histogram merge(@Nonnull final Histogram other) {
+        if (other.min != min || other.max != max || other.counts.length != counts.length) {
+            throw new IllegalArgumentException("histograms have different bins");
+        }
+        for (int i = 0 ; i < counts.length ; i++) {
+            counts[i] += other.counts[i];
+        }
+        underflow += other.underflow;
+        overflow += other.overflow;
+        undefined += other.undefined;
+        lowest = Math.min(lowest, other.lowest);
+        highest = Math.max(highest, other.highest);
+        final long n = count + other.count;
+        if (other.count > 0) {
+            final double δ = other.mean - mean;
+            mean += δ * other.count / n;
+            m2 += other.m2 + δ * δ * ((double) count * other.count / n);
+        }
+        count = n;
+        return this;
+    }
+
+    /**
+     * @return the number of bins.
+     */
+    public int bins() {
+        return counts.length;
+    }
+
+    /**
+     * @param bin the index of the bin.
+     * @return the number of values in the bin.
+     */
+    public long count(final int bin) {
+        return counts[bin];
+    }
+
+    /**
+     * @return the number of defined values added.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * @return the number of values lower than the first bin.
+     */
+    public long underflow() {
+        return underflow;
+    }
+
+    /**
+     * @return the number of values greater than or equal to the upper bound of the last bin.
+     */
+    public long overflow() {
+        return overflow;
+    }
+
+    /**
+     * @return the number of {@link Double#NaN} values added.
+     */
+    public long undefined() {
+        return undefined;
+    }
+
+    /**
+     * @return the lowest value added or {@link Double#NaN} if none.
+     */
+    public double min() {
+        return count > 0 ? lowest : Double.NaN;
+    }
+
+    /**
+     * @return the highest value added or {@link Double#NaN} if none.
+     */
+    public double max() {
+        return count > 0 ? highest : Double.NaN;
+    }
+
+    /**
+     * @return the mean of the values added or {@link Double#NaN} if none.
+     */
+    public double mean() {
+        return count > 0 ? mean : Double.NaN;
+    }
+
+    /**
+     * @return the sample standard deviation of the values added or {@link Double#NaN} if less than two.
+     */
+    public double standardDeviation() {
+        return count > 1 ? Math.sqrt(m2 / (count - 1)) : Double.NaN;
+    }
+
+    /**
+     * Estimate a quantile by linear interpolation within the bin holding it. The values below or above the bins are
+     * assumed to be spread between the extrema and the bounds of the bins.
+     * @param q the quantile, in {@code [0, 1]}
+     * @return the estimated quantile or {@link Double#NaN} if no value was added.
+     * @throws IllegalArgumentException if the quantile is out of {@code [0, 1]}.
+     */
+    public double quantile(final double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("quantile must be in [0, 1]");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        final double rank = q * count;
+        double below = 0, value;
+        if (rank <= underflow) {
+            value = interpolate(lowest, min, rank, underflow);
+        } else {
+            below = underflow;
+            int bin = 0;
+            while (bin < counts.length && below + counts[bin] < rank) {
+                below += counts[bin++];
+            }
+            if (bin < counts.length) {
+                final double lower = min + bin * width;
+                value = interpolate(lower, lower + width, rank - below, counts[bin]);
+            } else {
+                value = interpolate(max, highest, rank - below, overflow);
+            }
+        }
+        return Math.max(lowest, Math.min(highest, value));
+    }
+
+    private static double interpolate(final double lower, final double upper, final double rank, final long count) {
+        return count > 0 ? lower + (upper - lower) * (rank / count) : lower;
+    }
+}
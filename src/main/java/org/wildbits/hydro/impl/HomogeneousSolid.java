@@ -16,20 +16,21 @@
 package org.wildbits.hydro.impl;
 
 import java.math.BigDecimal;
-import java.math.MathContext;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import org.wildbits.data.Precision;
 import org.wildbits.data.Utils;
 import org.wildbits.hydro.Solid;
 
 /**
  * Represent an homogeneous solid.
+ * The arithmetic is rounded according to a {@link Precision} policy, {@link Precision#DECIMAL128} by default.
  */
 public class HomogeneousSolid implements Solid<BigDecimal> {
 
-    private static final MathContext MC = MathContext.DECIMAL128;
+    private final Precision precision;
 
     private final BigDecimal volume;
 
@@ -40,8 +41,19 @@ public class HomogeneousSolid implements Solid<BigDecimal> {
      * @param mass in {@code kg}
      */
     public HomogeneousSolid(@Nonnull final Number volume, @Nonnull final Number mass) {
+        this(volume, mass, Precision.DECIMAL128);
+    }
+
+    /**
+     * @param volume in {@code m^-3}
+     * @param mass in {@code kg}
+     * @param precision the precision policy of the arithmetic.
+     */
+    public HomogeneousSolid(@Nonnull final Number volume, @Nonnull final Number mass,
+                            @Nonnull final Precision precision) {
         this.volume = Utils.big(volume);
         this.mass = Utils.big(mass);
+        this.precision = precision;
     }
 
     /**
@@ -68,7 +80,7 @@ public class HomogeneousSolid implements Solid<BigDecimal> {
     @Override
     @Nullable
     public BigDecimal density(@Nonnull Number temperature) {
-        return mass.divide(volume, MC);
+        return precision.divide(mass, volume);
     }
 
     /**
@@ -77,6 +89,6 @@ public class HomogeneousSolid implements Solid<BigDecimal> {
     @Override
     @Nullable
     public BigDecimal buoyancy(@Nonnull Number ρ) {
-        return Utils.big(ρ).multiply(volume).subtract(mass, MC);
+        return precision.subtract(precision.multiply(Utils.big(ρ), volume), mass);
     }
 }
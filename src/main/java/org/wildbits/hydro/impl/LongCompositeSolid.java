@@ -0,0 +1,185 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.wildbits.data.FixedPoint;
+import org.wildbits.data.Precision;
+import org.wildbits.hydro.LongSolid;
+
+import static org.wildbits.data.FixedPoint.DENSITY_SCALE;
+import static org.wildbits.data.FixedPoint.MASS_SCALE;
+import static org.wildbits.data.FixedPoint.TEMPERATURE_SCALE;
+import static org.wildbits.data.FixedPoint.UNDEFINED;
+import static org.wildbits.data.FixedPoint.VOLUME_SCALE;
+
+/**
+ * Represent an composite of physically connected solids, evaluated with fixed point {@code long} arithmetic.
+ * As for {@link CompositeSolid}, nested composites are flattened and the aggregates are computed at construction.
+ * The volume and mass are exact sums. The density is the sum of the densities weighted by the mass fractions, as
+ * for {@link CompositeSolid}. The temperature independent density is computed once with {@link Precision#DECIMAL128}
+ * and rounded to the fixed point scale, giving the digits of {@link CompositeSolid}; a temperature dependent density
+ * is computed in fixed point, each term being rounded.
+ */
+public class LongCompositeSolid implements LongSolid {
+
+    private final LongSolid[] solids;
+
+    private final long volume, mass;
+
+    /**
+     * The density of the composite or {@link FixedPoint#UNDEFINED} if it depends on the temperature.
+     */
+    private final long density;
+
+    private final BigDecimal decimalVolume, decimalMass;
+
+    /**
+     * @param solids the list of physically connected solids.
+     * @throws ArithmeticException if the total volume or mass overflows.
+     */
+    public LongCompositeSolid(@Nonnull final List<? extends LongSolid> solids) {
+        final List<LongSolid> leaves = new ArrayList<LongSolid>(solids.size());
+        boolean constantDensity = true;
+        long σv = 0, σm = 0;
+        for (LongSolid solid : solids) {
+            if (solid instanceof LongCompositeSolid) {
+                final LongCompositeSolid composite = (LongCompositeSolid) solid;
+                leaves.addAll(Arrays.asList(composite.solids));
+                constantDensity &= composite.density != UNDEFINED;
+            } else {
+                leaves.add(solid);
+                constantDensity &= solid instanceof LongHomogeneousSolid;
+            }
+            σv = Math.addExact(σv, solid.fixedVolume());
+            σm = Math.addExact(σm, solid.fixedMass());
+        }
+        this.solids = leaves.toArray(new LongSolid[leaves.size()]);
+        volume = σv;
+        mass = σm;
+        decimalVolume = FixedPoint.toBigDecimal(σv, VOLUME_SCALE);
+        decimalMass = FixedPoint.toBigDecimal(σm, MASS_SCALE);
+        density = constantDensity ? density(this.solids, σm) : UNDEFINED;
+    }
+
+    /**
+     * @return the mass weighted density of homogeneous solids, computed as {@link CompositeSolid} does and rounded
+     *         to the density scale.
+     */
+    private static long density(@Nonnull final LongSolid[] solids, final long mass) {
+        final Precision precision = Precision.DECIMAL128;
+        final BigDecimal σm = FixedPoint.toBigDecimal(mass, MASS_SCALE);
+        BigDecimal ρ = BigDecimal.ZERO;
+        for (LongSolid solid : solids) {
+            final BigDecimal mi = solid.mass();
+            final BigDecimal ρi = precision.divide(mi, solid.volume());
+            ρ = precision.add(ρ, precision.multiply(precision.divide(mi, σm), ρi));
+        }
+        return ρ.setScale(DENSITY_SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nonnull
+    public BigDecimal volume() {
+        return decimalVolume;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nonnull
+    public BigDecimal mass() {
+        return decimalMass;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long fixedVolume() {
+        return volume;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long fixedMass() {
+        return mass;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long densityAt(final long temperature) {
+        return density != UNDEFINED ? density : density(temperature);
+    }
+
+    /**
+     * @return the mass weighted density of the solids at the given temperature.
+     */
+    private long density(final long temperature) {
+        long ρ = 0;
+        for (LongSolid solid : solids) {
+            final long ρi = solid.densityAt(temperature);
+            if (ρi == UNDEFINED) {
+                return UNDEFINED;
+            }
+            ρ = Math.addExact(ρ, FixedPoint.mulDiv(solid.fixedMass(), ρi, mass));
+        }
+        return ρ;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long buoyancyIn(final long ρ) {
+        return LongHomogeneousSolid.buoyancy(ρ, volume, mass);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public BigDecimal density(@Nonnull Number temperature) {
+        final long ρ = densityAt(FixedPoint.valueOf(temperature, TEMPERATURE_SCALE));
+        return ρ != UNDEFINED ? FixedPoint.toBigDecimal(ρ, DENSITY_SCALE) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public BigDecimal buoyancy(@Nonnull Number ρ) {
+        return FixedPoint.toBigDecimal(buoyancyIn(FixedPoint.valueOf(ρ, DENSITY_SCALE)), MASS_SCALE);
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.math.BigDecimal;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.wildbits.data.FixedPoint;
+import org.wildbits.hydro.LongSolid;
+
+import static org.wildbits.data.FixedPoint.DENSITY_SCALE;
+import static org.wildbits.data.FixedPoint.MASS_SCALE;
+import static org.wildbits.data.FixedPoint.TEMPERATURE_SCALE;
+import static org.wildbits.data.FixedPoint.VOLUME_SCALE;
+
+/**
+ * Represent an homogeneous solid, evaluated with fixed point {@code long} arithmetic.
+ */
+public class LongHomogeneousSolid implements LongSolid {
+
+    /**
+     * The factor converting a {@code mass / volume} quotient to the density scale.
+     */
+    static final long DENSITY_FACTOR = FixedPoint.pow10(DENSITY_SCALE + VOLUME_SCALE - MASS_SCALE);
+
+    private final long volume;
+
+    private final long mass;
+
+    private final long density;
+
+    private final BigDecimal decimalVolume, decimalMass;
+
+    /**
+     * @param volume in {@code mm^3}
+     * @param mass in {@code mg}
+     * @throws ArithmeticException if the volume is zero or the density overflows.
+     */
+    public LongHomogeneousSolid(final long volume, final long mass) {
+        this.volume = volume;
+        this.mass = mass;
+        this.density = FixedPoint.mulDiv(mass, DENSITY_FACTOR, volume);
+        this.decimalVolume = FixedPoint.toBigDecimal(volume, VOLUME_SCALE);
+        this.decimalMass = FixedPoint.toBigDecimal(mass, MASS_SCALE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nonnull
+    public BigDecimal volume() {
+        return decimalVolume;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nonnull
+    public BigDecimal mass() {
+        return decimalMass;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long fixedVolume() {
+        return volume;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long fixedMass() {
+        return mass;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long densityAt(final long temperature) {
+        return density;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long buoyancyIn(final long ρ) {
+        return buoyancy(ρ, volume, mass);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public BigDecimal density(@Nonnull Number temperature) {
+        return FixedPoint.toBigDecimal(densityAt(FixedPoint.valueOf(temperature, TEMPERATURE_SCALE)), DENSITY_SCALE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public BigDecimal buoyancy(@Nonnull Number ρ) {
+        return FixedPoint.toBigDecimal(buoyancyIn(FixedPoint.valueOf(ρ, DENSITY_SCALE)), MASS_SCALE);
+    }
+
+    /**
+     * @return the buoyancy {@code ρ•volume - mass}, the product being rounded to the mass scale.
+     */
+    static long buoyancy(final long ρ, final long volume, final long mass) {
+        return Math.subtractExact(FixedPoint.mulDiv(ρ, volume, DENSITY_FACTOR), mass);
+    }
+}
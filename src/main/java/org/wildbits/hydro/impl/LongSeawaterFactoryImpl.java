@@ -0,0 +1,46 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.math.BigDecimal;
+
+import javax.annotation.Nonnull;
+
+import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Property;
+import org.apache.felix.scr.annotations.Service;
+import org.wildbits.data.FixedPoint;
+import org.wildbits.hydro.LongSaltedLiquid;
+import org.wildbits.hydro.SeawaterFactory;
+
+/**
+ * Service to build {@link LongSaltedLiquid} instances. The salinities are decimal values, {@link Long} instances
+ * included.
+ */
+@Service
+@Component(metatype = false)
+@Property(name = SeawaterFactory.BACKEND, value = SeawaterFactory.BACKEND_LONG)
+public class LongSeawaterFactoryImpl implements SeawaterFactory<BigDecimal> {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public LongSaltedLiquid getInstance(@Nonnull Number salinity) {
+        return new LongSeawaterImpl(FixedPoint.valueOf(salinity, FixedPoint.SALINITY_SCALE));
+    }
+}
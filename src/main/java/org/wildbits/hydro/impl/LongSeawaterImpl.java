@@ -0,0 +1,163 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.math.BigDecimal;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.wildbits.data.FixedPoint;
+import org.wildbits.hydro.LongSaltedLiquid;
+
+import static org.wildbits.data.FixedPoint.DENSITY_SCALE;
+import static org.wildbits.data.FixedPoint.SALINITY_SCALE;
+import static org.wildbits.data.FixedPoint.TEMPERATURE_SCALE;
+import static org.wildbits.data.FixedPoint.UNDEFINED;
+
+/**
+ * Salt Water Density model as defined in paper: The thermophysical properties of seawater: A review of existing
+ * correlations and data, Eq. 8, evaluated with fixed point {@code long} arithmetic.
+ * <p>
+ * The polynomial is evaluated in integer arithmetic at the internal scale {@value #SCALE}, each product being
+ * rounded half even from its exact 128 bits value, then rounded to the density scale. The steps are those of
+ * {@link SeawaterImpl} with the {@link org.wildbits.data.Precision#fixed(int) fixed} policy at the same scale, so
+ * both evaluations produce the same digits.
+ *
+ * @see SeawaterImpl
+ */
+public class LongSeawaterImpl implements LongSaltedLiquid {
+
+    /**
+     * The scale of the intermediate results.
+     */
+    static final int SCALE = 12;
+
+    private static final long ONE = FixedPoint.pow10(SCALE);
+
+    private static final long
+            MIN_TEMPERATURE = FixedPoint.valueOf(SeawaterImpl.MIN_TEMPERATURE, TEMPERATURE_SCALE),
+            MAX_TEMPERATURE = FixedPoint.valueOf(SeawaterImpl.MAX_TEMPERATURE, TEMPERATURE_SCALE),
+            MIN_SALINITY = FixedPoint.valueOf(SeawaterImpl.MIN_SALINITY, SALINITY_SCALE),
+            MAX_SALINITY = FixedPoint.valueOf(SeawaterImpl.MAX_SALINITY, SALINITY_SCALE);
+
+    private static final long
+            A1 = FixedPoint.valueOf(SeawaterImpl.A1, SCALE),
+            A2 = FixedPoint.valueOf(SeawaterImpl.A2, SCALE),
+            A3 = FixedPoint.valueOf(SeawaterImpl.A3, SCALE),
+            A4 = FixedPoint.valueOf(SeawaterImpl.A4, SCALE),
+            A5 = FixedPoint.valueOf(SeawaterImpl.A5, SCALE),
+            B1 = FixedPoint.valueOf(SeawaterImpl.B1, SCALE),
+            B2 = FixedPoint.valueOf(SeawaterImpl.B2, SCALE),
+            B3 = FixedPoint.valueOf(SeawaterImpl.B3, SCALE),
+            B4 = FixedPoint.valueOf(SeawaterImpl.B4, SCALE),
+            B5 = FixedPoint.valueOf(SeawaterImpl.B5, SCALE);
+
+    private final long salinity;
+
+    private final BigDecimal decimalSalinity;
+
+    /**
+     * Whether the salinity is in the model range.
+     */
+    private final boolean valid;
+
+    /**
+     * The salinity dependent coefficients of the temperature polynomial at scale {@value #SCALE}.
+     */
+    private final long c0, c1, c2, c3;
+
+    /**
+     * @param salinity the water salinity in {@code 10^-9 kg/kg}. Fresh water has salinity of {@code 0}.
+     */
+    public LongSeawaterImpl(final long salinity) {
+        if (salinity < 0) {
+            throw new IllegalArgumentException("salinity can't be negative");
+        }
+        this.salinity = salinity;
+        this.decimalSalinity = FixedPoint.toBigDecimal(salinity, SALINITY_SCALE);
+        valid = salinity >= MIN_SALINITY && salinity < MAX_SALINITY;
+        if (valid) {
+            final long s1 = FixedPoint.rescale(salinity, SALINITY_SCALE, SCALE), s2 = multiply(s1, s1);
+            c0 = A1 + multiply(B1, s1);
+            c1 = A2 + multiply(B2, s1);
+            c2 = A3 + multiply(B3, s1) + multiply(B5, s2);
+            c3 = A4 + multiply(B4, s1);
+        } else {
+            c0 = c1 = c2 = c3 = 0;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long densityAt(final long temperature) {
+        if (!valid || temperature < MIN_TEMPERATURE || temperature >= MAX_TEMPERATURE) {
+            return UNDEFINED;
+        }
+        final long t = temperature * FixedPoint.pow10(SCALE - TEMPERATURE_SCALE);
+        final long ρ = c0 + multiply(t, c1 + multiply(t, c2 + multiply(t, c3 + multiply(t, A5))));
+        return FixedPoint.rescale(ρ, SCALE, DENSITY_SCALE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void density(@Nonnull final long[] temperatures, @Nonnull final long[] out) {
+        DoubleSeawaterImpl.checkLength(temperatures.length, out.length);
+        for (int i = 0 ; i < temperatures.length ; i++) {
+            out[i] = densityAt(temperatures[i]);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public BigDecimal density(@Nonnull Number temperature) {
+        final long ρ = densityAt(FixedPoint.valueOf(temperature, TEMPERATURE_SCALE));
+        return ρ != UNDEFINED ? FixedPoint.toBigDecimal(ρ, DENSITY_SCALE) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public BigDecimal salinity() {
+        return decimalSalinity;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long fixedSalinity() {
+        return salinity;
+    }
+
+    /**
+     * The operands are bounded by the model validity range, the products can not overflow.
+     *
+     * @return the product of two values at scale {@value #SCALE}.
+     */
+    private static long multiply(final long a, final long b) {
+        return FixedPoint.mulDiv(a, b, ONE);
+    }
+}
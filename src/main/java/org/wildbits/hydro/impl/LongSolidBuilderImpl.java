@@ -0,0 +1,76 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.wildbits.data.FixedPoint;
+import org.wildbits.hydro.LongSolid;
+import org.wildbits.hydro.SolidBuilder;
+
+/**
+ * Builder for {@link LongSolid} instances.
+ */
+public class LongSolidBuilderImpl implements SolidBuilder<BigDecimal> {
+
+    private final List<LongSolid> solids = new ArrayList<LongSolid>();
+
+    public LongSolidBuilderImpl() {}
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The arguments are decimal values, {@link Long} instances included; fixed point values are added with
+     * {@link #addFixed(long, long)}.
+     */
+    @Nonnull
+    @Override
+    public LongSolidBuilderImpl add(@Nonnull final Number volume, @Nonnull final Number mass) {
+        return addFixed(FixedPoint.valueOf(volume, FixedPoint.VOLUME_SCALE),
+                FixedPoint.valueOf(mass, FixedPoint.MASS_SCALE));
+    }
+
+    /**
+     * Add a volume/mass pair to the solid being built.
+     * @param volume the volume to add in {@code mm^3}
+     * @param mass the mass to add in {@code mg}
+     * @return {@code this}
+     */
+    @Nonnull
+    public LongSolidBuilderImpl addFixed(final long volume, final long mass) {
+        solids.add(new LongHomogeneousSolid(volume, mass));
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public LongSolid build()
+            throws IllegalArgumentException {
+        int size = solids.size();
+        if (size == 0) {
+            throw new IllegalArgumentException("no volume/mass pair is defined");
+        }
+        return solids.size() == 1 ? solids.get(0) : new LongCompositeSolid(solids);
+    }
+
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Propagate the uncertainties on the components of a solid and on the seawater temperature and salinity to the
+ * buoyancy of the solid, by Monte Carlo sampling.
+ * <p>
+ * The samples are drawn in batches evaluated in parallel in a {@link ForkJoinPool}. The sample range is split in
+ * halves down to the batch size, each split handing a {@link SplittableRandom#split()} stream to its first half, and
+ * the batch histograms are merged along the same split tree. The split tree only depends on the number of samples,
+ * so a given seed produces the same histogram regardless of the pool and the scheduling of the batches.
+ * The seawater density is evaluated with the primitive {@code double} Eq. 8 polynomial; samples falling outside
+ * the model validity range are counted as undefined. The volumes of the solid are expanded to the sampled seawater
+ * temperature.
+ */
+public class MonteCarloBuoyancy {
+
+    /**
+     * The number of samples below which a batch is evaluated sequentially.
+     */
+    private static final long BATCH = 1 << 13;
+
+    private final Histogram layout;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * @param min the lower bound of the buoyancy histogram in {@code kg}
+     * @param max the upper bound of the buoyancy histogram in {@code kg}
+     * @param bins the number of bins of the buoyancy histogram.
+     * @throws IllegalArgumentException if the bounds are inverted or the number of bins is not positive.
+     */
+    public MonteCarloBuoyancy(final double min, final double max, final int bins) {
+        this(min, max, bins, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param min the lower bound of the buoyancy histogram in {@code kg}
+     * @param max the upper bound of the buoyancy histogram in {@code kg}
+     * @param bins the number of bins of the buoyancy histogram.
+     * @param pool the pool evaluating the batches.
+     * @throws IllegalArgumentException if the bounds are inverted or the number of bins is not positive.
+     */
+    public MonteCarloBuoyancy(final double min, final double max, final int bins, @Nonnull final ForkJoinPool pool) {
+        this.layout = new Histogram(min, max, bins);
+        this.pool = pool;
+    }
+
+    /**
+     * @param solid the uncertain solid fully immersed in seawater.
+     * @param temperature the distribution of the seawater temperature in {@code °C}
+     * @param salinity the distribution of the seawater salinity in {@code kg/kg}
+     * @param samples the number of samples to draw.
+     * @param seed the seed of the random streams.
+     * @return the histogram of the buoyancy in {@code kg}
+     * @throws IllegalArgumentException if the number of samples is negative.
+     */
+    @Nonnull
+    public Histogram buoyancy(@Nonnull final UncertainSolid solid, @Nonnull final Distribution temperature,
+                              @Nonnull final Distribution salinity, final long samples, final long seed) {
+        if (samples < 0) {
+            throw new IllegalArgumentException("number of samples can't be negative");
+        }
+        return pool.invoke(new Batch(solid, temperature, salinity, new SplittableRandom(seed), samples));
+    }
+
+    private final class Batch extends RecursiveTask<Histogram> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final UncertainSolid solid;
+
+        private final Distribution temperature, salinity;
+
+        private final SplittableRandom random;
+
+        private final long samples;
+
+        private Batch(UncertainSolid solid, Distribution temperature, Distribution salinity,
+                      SplittableRandom random, long samples) {
+            this.solid = solid;
+            this.temperature = temperature;
+            this.salinity = salinity;
+            this.random = random;
+            this.samples = samples;
+        }
+
+        @Override
+        protected Histogram compute() {
+            if (samples <= BATCH) {
+                final Histogram histogram = layout.empty();
+                for (long i = 0 ; i < samples ; i++) {
+                    final double t = temperature.sample(random), s = salinity.sample(random);
+                    final double ρ = DoubleSeawaterImpl.validTemperature(t) && DoubleSeawaterImpl.validSalinity(s)
+                            ? DoubleSeawaterImpl.density(t, s) : Double.NaN;
+                    histogram.add(solid.buoyancyIn(ρ, t, random));
+                }
+                return histogram;
+            }
+            final long half = samples >>> 1;
+            final Batch first = new Batch(solid, temperature, salinity, random.split(), half);
+            final Batch second = new Batch(solid, temperature, salinity, random, samples - half);
+            first.fork();
+            final Histogram histogram = second.compute();
+            return first.join().merge(histogram);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.wildbits.hydro.Solid;
+import org.wildbits.hydro.ThermalSolid;
+
+/**
+ * Find the conditions under which a solid fully immersed in seawater is neutrally buoyant.
+ * <p>
+ * The buoyancy {@code V•ρ(t, s) - m} is a polynomial of degree 4 in temperature and 2 in salinity. Its roots are
+ * isolated by splitting the model validity range at the extrema of the polynomial, themselves found recursively
+ * from the roots of its derivatives, then refined with Newton iterations safeguarded by bisection on each monotonic
+ * interval. A root is thus found in a handful of polynomial evaluations.
+ * <p>
+ * The volume of a {@link ThermalSolid} is taken at the seawater temperature. The volume of a homogeneous thermal
+ * solid, or of a composite of such solids, is linear in temperature and the buoyancy {@code V(t)•ρ(t, s) - m} is a
+ * polynomial of degree 5 in temperature; the neutral temperature of the other thermal solids is not supported. A
+ * {@link org.wildbits.hydro.CompressibleSolid} is solved at the surface, i.e. by its volume at the atmospheric
+ * pressure.
+ */
+public class NeutralBuoyancySolver {
+
+    private static final int MAX_ITERATIONS = 100;
+
+    private static final double EPSILON = 1e-14;
+
+    public NeutralBuoyancySolver() {}
+
+    /**
+     * @param solid the solid fully immersed in seawater.
+     * @param salinity the seawater salinity in {@code kg/kg}
+     * @return the lowest temperature in {@code °C} at which the solid is neutrally buoyant or {@code null} if no such
+     *         temperature exists in the model validity range.
+     * @throws IllegalArgumentException if the solid is a {@link ThermalSolid} whose volume is not linear in
+     *                                  temperature.
+     */
+    @Nullable
+    public Double neutralTemperature(@Nonnull final Solid<? extends Number> solid, final double salinity)
+            throws IllegalArgumentException {
+        final ThermalVolume thermal = ThermalVolume.of(solid);
+        if (thermal != null && !thermal.linear()) {
+            throw new IllegalArgumentException("the volume of the solid is not linear in temperature");
+        }
+        if (!DoubleSeawaterImpl.validSalinity(salinity)) {
+            return null;
+        }
+        final double[] volume = thermal != null ? new double[] {thermal.intercept(), thermal.slope()}
+                : new double[] {solid.volume().doubleValue()};
+        final double[] p = buoyancy(volume, solid.mass().doubleValue(),
+                DoubleSeawaterImpl.temperatureCoefficients(salinity));
+        return firstRoot(p, DoubleSeawaterImpl.MIN_TEMPERATURE, DoubleSeawaterImpl.MAX_TEMPERATURE);
+    }
+
+    /**
+     * @param solid the solid fully immersed in seawater.
+     * @param temperature the seawater temperature in {@code °C}
+     * @return the lowest salinity in {@code kg/kg} at which the solid is neutrally buoyant or {@code null} if no such
+     *         salinity exists in the model validity range.
+     */
+    @Nullable
+    public Double neutralSalinity(@Nonnull final Solid<? extends Number> solid, final double temperature) {
+        final double volume = volumeAt(solid, temperature);
+        if (!DoubleSeawaterImpl.validTemperature(temperature) || Double.isNaN(volume)) {
+            return null;
+        }
+        final double[] p = buoyancy(new double[] {volume}, solid.mass().doubleValue(),
+                DoubleSeawaterImpl.salinityCoefficients(temperature));
+        return firstRoot(p, DoubleSeawaterImpl.MIN_SALINITY, DoubleSeawaterImpl.MAX_SALINITY);
+    }
+
+    /**
+     * @param solid the solid fully immersed in seawater.
+     * @param salinity the seawater salinity in {@code kg/kg}
+     * @param temperature the seawater temperature in {@code °C}
+     * @return the ballast mass in {@code kg} to add to the solid, without changing its volume, for the solid to be
+     *         neutrally buoyant, or {@code null} if the seawater density or the volume of the solid is undefined.
+     *         A negative mass indicates that mass must be removed.
+     */
+    @Nullable
+    public Double ballastMass(@Nonnull final Solid<? extends Number> solid, final double salinity,
+                              final double temperature) {
+        final double ρ = DoubleSeawaterImpl.validSalinity(salinity) && DoubleSeawaterImpl.validTemperature(temperature)
+                ? DoubleSeawaterImpl.density(temperature, salinity) : Double.NaN;
+        final double buoyancy = ρ * volumeAt(solid, temperature) - solid.mass().doubleValue();
+        return Double.isNaN(buoyancy) ? null : buoyancy;
+    }
+
+    /**
+     * @return the volume of the solid in {@code m^-3} at the given temperature or {@link Double#NaN} if undefined.
+     */
+    private static double volumeAt(final Solid<? extends Number> solid, final double temperature) {
+        final ThermalVolume thermal = ThermalVolume.of(solid);
+        return thermal != null ? thermal.volumeAt(temperature) : solid.volume().doubleValue();
+    }
+
+    /**
+     * @return the coefficients of the buoyancy polynomial {@code V•ρ - m} for the coefficients of the volume and
+     *         density polynomials.
+     */
+    private static double[] buoyancy(final double[] volume, final double mass, final double[] density) {
+        final double[] p = new double[volume.length + density.length - 1];
+        for (int i = 0 ; i < volume.length ; i++) {
+            for (int j = 0 ; j < density.length ; j++) {
+                p[i + j] += volume[i] * density[j];
+            }
+        }
+        p[0] -= mass;
+        return p;
+    }
+
+    /**
+     * @return the lowest root of the polynomial in {@code [min, max[} or {@code null} if none.
+     */
+    @Nullable
+    private static Double firstRoot(final double[] p, final double min, final double max) {
+        for (double root : roots(p, min, max)) {
+            if (root < max) {
+                return root;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the roots, in increasing order, of the polynomial in {@code [min, max]}.
+     */
+    @Nonnull
+    static List<Double> roots(@Nonnull final double[] p, final double min, final double max) {
+        final List<Double> roots = new ArrayList<Double>();
+        if (p.length < 2) {
+            return roots;
+        }
+        final double[] d = derivative(p);
+        final List<Double> bounds = new ArrayList<Double>();
+        bounds.add(min);
+        bounds.addAll(roots(d, min, max));
+        bounds.add(max);
+        for (int i = 0 ; i + 1 < bounds.size() ; i++) {
+            final double a = bounds.get(i), b = bounds.get(i + 1);
+            final double fa = value(p, a), fb = value(p, b);
+            if (fa == 0) {
+                add(roots, a);
+            } else if (fa * fb < 0) {
+                add(roots, newton(p, d, a, b, fa));
+            }
+        }
+        if (value(p, max) == 0) {
+            add(roots, max);
+        }
+        return roots;
+    }
+
+    /**
+     * @return the root of the polynomial, monotonic over {@code [a, b]} and changing of sign.
+     */
+    private static double newton(final double[] p, final double[] d, double a, double b, final double fa) {
+        double x = 0.5 * (a + b);
+        for (int i = 0 ; i < MAX_ITERATIONS ; i++) {
+            final double fx = value(p, x);
+            if (fx == 0) {
+                return x;
+            }
+            if ((fx < 0) == (fa < 0)) {
+                a = x;
+            } else {
+                b = x;
+            }
+            double next = x - fx / value(d, x);
+            if (!(next > a && next < b)) {
+                next = 0.5 * (a + b);
+            }
+            if (Math.abs(next - x) <= EPSILON * Math.max(1, Math.abs(x))) {
+                return next;
+            }
+            x = next;
+        }
+        return x;
+    }
+
+    private static void add(final List<Double> roots, final double root) {
+        if (roots.isEmpty() || roots.get(roots.size() - 1) < root) {
+            roots.add(root);
+        }
+    }
+
+    private static double[] derivative(final double[] p) {
+        final double[] d = new double[p.length - 1];
+        for (int i = 0 ; i < d.length ; i++) {
+            d[i] = (i + 1) * p[i + 1];
+        }
+        return d;
+    }
+
+    private static double value(final double[] p, final double x) {
+        double v = 0;
+        for (int i = p.length - 1 ; i >= 0 ; i--) {
+            v = v * x + p[i];
+        }
+        return v;
+    }
+}
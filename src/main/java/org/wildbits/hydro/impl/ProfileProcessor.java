@@ -0,0 +1,271 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.wildbits.hydro.DoubleSolid;
+import org.wildbits.hydro.Solid;
+
+/**
+ * Streaming stage computing the seawater density and the buoyancy of a solid for each sample of a CTD profile.
+ * <p>
+ * The stage requests at most {@code batchSize} samples from its upstream publisher and evaluates them in
+ * micro-batches: consecutive samples with the same salinity share a seawater instance and their densities are
+ * computed with a single bulk call. The volume of a {@link org.wildbits.hydro.ThermalSolid} is taken at the
+ * temperature of each sample. A batch is evaluated when it is full, when the upstream publisher completes,
+ * and optionally when its first sample waited longer than a maximum delay. The results are published to the
+ * subscribers of the stage through the bounded buffer of the {@link SubmissionPublisher}, publishing blocks while
+ * the buffer is full and no more samples are requested until the batch is published. The batches are published in
+ * order, without holding the lock guarding the batch being gathered. The stage thus never holds
+ * more than {@code batchSize} samples plus the buffered results.
+ */
+public class ProfileProcessor extends SubmissionPublisher<ProfileResult>
+        implements Flow.Processor<ProfileSample, ProfileResult> {
+
+    private final DoubleSolid solid;
+
+    /**
+     * The volume of the solid as a function of the temperature or {@code null} if the solid is not thermal.
+     */
+    private final ThermalVolume thermal;
+
+    private final int batchSize;
+
+    private final long maxDelay;
+
+    private final TimeUnit unit;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Lock lock = new ReentrantLock();
+
+    /**
+     * Held from the evaluation of a batch to the end of its publication, outside of {@link #lock}.
+     */
+    private final Lock publishing = new ReentrantLock();
+
+    private final ProfileSample[] batch;
+
+    private final double[] temperatures, densities;
+
+    private int size;
+
+    private long generation;
+
+    private Flow.Subscription subscription;
+
+    private DoubleSeawaterImpl seawater;
+
+    /**
+     * @param solid the solid to compute the buoyancy of.
+     * @param batchSize the maximum number of samples evaluated in a batch.
+     * @throws IllegalArgumentException if the batch size is not positive.
+     */
+    public ProfileProcessor(@Nonnull final Solid<? extends Number> solid, final int batchSize) {
+        this(solid, batchSize, ForkJoinPool.commonPool(), Flow.defaultBufferSize(), 0, TimeUnit.MILLISECONDS, null);
+    }
+
+    /**
+     * @param solid the solid to compute the buoyancy of.
+     * @param batchSize the maximum number of samples evaluated in a batch.
+     * @param executor the executor delivering the results to the subscribers.
+     * @param maxBufferCapacity the maximum number of results buffered for each subscriber.
+     * @param maxDelay the maximum delay a sample waits for its batch to be full, ignored without scheduler.
+     * @param unit the unit of the maximum delay.
+     * @param scheduler the scheduler evaluating the batches not full after the maximum delay, or {@code null} to
+     *                  evaluate the batches only when they are full or when the upstream publisher completes.
+     * @throws IllegalArgumentException if the batch size or the buffer capacity is not positive.
+     */
+    public ProfileProcessor(@Nonnull final Solid<? extends Number> solid, final int batchSize,
+                            @Nonnull final Executor executor, final int maxBufferCapacity, final long maxDelay,
+                            @Nonnull final TimeUnit unit, @Nullable final ScheduledExecutorService scheduler) {
+        super(executor, maxBufferCapacity);
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batch size must be positive");
+        }
+        this.solid = DoubleHomogeneousSolid.of(solid);
+        this.thermal = ThermalVolume.of(solid);
+        this.batchSize = batchSize;
+        this.maxDelay = maxDelay;
+        this.unit = unit;
+        this.scheduler = scheduler;
+        this.batch = new ProfileSample[batchSize];
+        this.temperatures = new double[batchSize];
+        this.densities = new double[batchSize];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onSubscribe(@Nonnull final Flow.Subscription subscription) {
+        lock.lock();
+        try {
+            if (this.subscription != null) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+        } finally {
+            lock.unlock();
+        }
+        subscription.request(batchSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onNext(@Nonnull final ProfileSample sample) {
+        ProfileResult[] results = null;
+        lock.lock();
+        try {
+            batch[size++] = sample;
+            if (size == batchSize) {
+                results = evaluate();
+            } else if (size == 1 && scheduler != null) {
+                final long scheduled = generation;
+                scheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        flush(scheduled);
+                    }
+                }, maxDelay, unit);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (results != null) {
+            publish(results, true);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onError(@Nonnull final Throwable throwable) {
+        final ProfileResult[] results;
+        lock.lock();
+        try {
+            results = evaluate();
+        } finally {
+            lock.unlock();
+        }
+        publish(results, false);
+        closeExceptionally(throwable);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onComplete() {
+        final ProfileResult[] results;
+        lock.lock();
+        try {
+            results = evaluate();
+        } finally {
+            lock.unlock();
+        }
+        publish(results, false);
+        close();
+    }
+
+    /**
+     * Evaluate and publish the batch if it has not been evaluated since the given generation.
+     */
+    private void flush(final long scheduled) {
+        ProfileResult[] results = null;
+        lock.lock();
+        try {
+            if (generation == scheduled && size > 0) {
+                results = evaluate();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (results != null) {
+            publish(results, true);
+        }
+    }
+
+    /**
+     * Publish the results of a batch, then optionally request as many samples. Must be called after
+     * {@link #evaluate()} returned the results, once the lock is released.
+     */
+    private void publish(@Nonnull final ProfileResult[] results, final boolean request) {
+        try {
+            for (ProfileResult result : results) {
+                submit(result);
+            }
+            if (request) {
+                subscription.request(results.length);
+            }
+        } finally {
+            publishing.unlock();
+        }
+    }
+
+    /**
+     * Evaluate the batch and acquire the publishing lock, so that the batches are published in order while the
+     * next batch is gathered. Must be called with the lock held.
+     * @return the results of the evaluated samples.
+     */
+    @Nonnull
+    private ProfileResult[] evaluate() {
+        final int evaluated = size;
+        final ProfileResult[] results = new ProfileResult[evaluated];
+        int from = 0;
+        while (from < evaluated) {
+            final double salinity = batch[from].salinity();
+            if (seawater == null || Double.compare(seawater.salinity(), salinity) != 0) {
+                seawater = salinity >= 0 ? new DoubleSeawaterImpl(salinity) : null;
+            }
+            int to = from;
+            while (to < evaluated && Double.compare(batch[to].salinity(), salinity) == 0) {
+                temperatures[to - from] = batch[to].temperature();
+                to++;
+            }
+            if (seawater != null) {
+                seawater.density(temperatures, densities, to - from);
+            }
+            for (int i = from ; i < to ; i++) {
+                final double ρ = seawater != null ? densities[i - from] : Double.NaN;
+                final double buoyancy = thermal != null ? ρ * thermal.volumeAt(batch[i].temperature()) - solid.mass()
+                        : solid.buoyancyIn(ρ);
+                results[i] = new ProfileResult(batch[i], ρ, buoyancy);
+                batch[i] = null;
+            }
+            from = to;
+        }
+        size = 0;
+        generation++;
+        publishing.lock();
+        return results;
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The seawater density and the buoyancy of a solid computed for a {@link ProfileSample}.
+ */
+public class ProfileResult {
+
+    private final ProfileSample sample;
+
+    private final double density;
+
+    private final double buoyancy;
+
+    /**
+     * @param sample the sample the result is computed for.
+     * @param density the seawater density in {@code kg•m^-3} or {@link Double#NaN} if undefined.
+     * @param buoyancy the buoyancy in {@code kg} or {@link Double#NaN} if undefined.
+     */
+    public ProfileResult(@Nonnull final ProfileSample sample, final double density, final double buoyancy) {
+        this.sample = sample;
+        this.density = density;
+        this.buoyancy = buoyancy;
+    }
+
+    /**
+     * @return the sample the result is computed for.
+     */
+    @Nonnull
+    public ProfileSample sample() {
+        return sample;
+    }
+
+    /**
+     * @return the seawater density in {@code kg•m^-3} or {@link Double#NaN} if undefined.
+     */
+    public double density() {
+        return density;
+    }
+
+    /**
+     * @return the buoyancy in {@code kg} or {@link Double#NaN} if undefined.
+     */
+    public double buoyancy() {
+        return buoyancy;
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+/**
+ * A sample of a CTD (conductivity, temperature, depth) profile.
+ */
+public class ProfileSample {
+
+    private final double depth;
+
+    private final double temperature;
+
+    private final double salinity;
+
+    /**
+     * @param depth the depth in {@code m}
+     * @param temperature the temperature in {@code °C}
+     * @param salinity the salinity in {@code kg/kg}
+     */
+    public ProfileSample(final double depth, final double temperature, final double salinity) {
+        this.depth = depth;
+        this.temperature = temperature;
+        this.salinity = salinity;
+    }
+
+    /**
+     * @return the depth in {@code m}
+     */
+    public double depth() {
+        return depth;
+    }
+
+    /**
+     * @return the temperature in {@code °C}
+     */
+    public double temperature() {
+        return temperature;
+    }
+
+    /**
+     * @return the salinity in {@code kg/kg}
+     */
+    public double salinity() {
+        return salinity;
+    }
+}
@@ -16,28 +16,121 @@
 package org.wildbits.hydro.impl;
 
 import java.math.BigDecimal;
+import java.util.Map;
 
 import javax.annotation.Nonnull;
 
+import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Properties;
+import org.apache.felix.scr.annotations.Property;
+import org.apache.felix.scr.annotations.PropertyOption;
 import org.apache.felix.scr.annotations.Service;
+import org.wildbits.data.Precision;
 import org.wildbits.data.Utils;
 import org.wildbits.hydro.SaltedLiquid;
 import org.wildbits.hydro.SeawaterFactory;
 
 /**
  * Service to build {@link SaltedLiquid} instances.
+ * <p>
+ * The service optionally caches the coefficients of the instances it builds in a {@link BoundedCache} whose
+ * capacity and eviction policy are configurable. The entries are keyed by the canonical salinity (trailing zeros
+ * stripped) and their coefficients computed from it, so that numerically equal salinities share an entry. The
+ * instances returned keep the salinity given by the caller. The cache is disabled by default.
+ * <p>
+ * The instances built apply the configured {@link Precision} policy, {@link Precision#EXACT} by default.
  */
 @Service
-@Component(metatype = false)
+@Component(metatype = true, label = "Wildbits Seawater Factory",
+        description = "Builds seawater instances backed by BigDecimal arithmetic")
+@Properties({
+        @Property(name = SeawaterFactory.BACKEND, value = SeawaterFactory.BACKEND_BIG_DECIMAL, propertyPrivate = true),
+        @Property(name = SeawaterFactoryImpl.PRECISION, value = "EXACT", label = "Precision",
+                description = "The precision policy of the arithmetic: DECIMAL32, DECIMAL64, DECIMAL128, EXACT "
+                        + "or FIXED:<scale>"),
+        @Property(name = SeawaterFactoryImpl.CACHE_SIZE, intValue = 0, label = "Cache size",
+                description = "The maximum number of cached seawater instances, 0 disables the cache"),
+        @Property(name = SeawaterFactoryImpl.CACHE_EVICTION, value = "LRU", label = "Cache eviction",
+                description = "The policy selecting the cached instance to evict",
+                options = {
+                        @PropertyOption(name = "LRU", value = "Least recently used"),
+                        @PropertyOption(name = "FIFO", value = "First in first out")})
+})
 public class SeawaterFactoryImpl implements SeawaterFactory<BigDecimal> {
 
+    static final String PRECISION = "precision";
+
+    static final String CACHE_SIZE = "cache.size";
+
+    static final String CACHE_EVICTION = "cache.eviction";
+
+    private volatile Precision precision = Precision.EXACT;
+
+    private volatile BoundedCache<BigDecimal, SeawaterImpl> cache;
+
+    public SeawaterFactoryImpl() {}
+
+    /**
+     * @param precision the precision policy of the instances built.
+     */
+    public SeawaterFactoryImpl(@Nonnull final Precision precision) {
+        this(precision, 0, BoundedCache.Eviction.LRU);
+    }
+
+    /**
+     * @param cacheSize the maximum number of cached instances, {@code 0} disables the cache.
+     * @param eviction the eviction policy of the cache.
+     * @throws IllegalArgumentException if the cache size is negative.
+     */
+    public SeawaterFactoryImpl(final int cacheSize, @Nonnull final BoundedCache.Eviction eviction) {
+        this(Precision.EXACT, cacheSize, eviction);
+    }
+
+    /**
+     * @param precision the precision policy of the instances built.
+     * @param cacheSize the maximum number of cached instances, {@code 0} disables the cache.
+     * @param eviction the eviction policy of the cache.
+     * @throws IllegalArgumentException if the cache size is negative.
+     */
+    public SeawaterFactoryImpl(@Nonnull final Precision precision, final int cacheSize,
+                               @Nonnull final BoundedCache.Eviction eviction) {
+        configure(precision, cacheSize, eviction);
+    }
+
+    @Activate
+    protected void activate(@Nonnull final Map<String, Object> config) {
+        final Object precision = config.get(PRECISION);
+        final Object size = config.get(CACHE_SIZE), eviction = config.get(CACHE_EVICTION);
+        configure(precision != null ? Precision.valueOf(precision.toString()) : Precision.EXACT,
+                size != null ? Integer.parseInt(size.toString()) : 0,
+                eviction != null ? BoundedCache.Eviction.valueOf(eviction.toString()) : BoundedCache.Eviction.LRU);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Nonnull
     @Override
     public SaltedLiquid<BigDecimal> getInstance(@Nonnull Number salinity) {
-        return new SeawaterImpl(Utils.big(salinity));
+        final BoundedCache<BigDecimal, SeawaterImpl> cache = this.cache;
+        if (cache == null) {
+            return new SeawaterImpl(Utils.big(salinity), precision);
+        }
+        final BigDecimal big = Utils.big(salinity), key = big.stripTrailingZeros();
+        SeawaterImpl cached = cache.get(key);
+        if (cached == null) {
+            cached = cache.putIfAbsent(key, new SeawaterImpl(key, precision));
+        }
+        return big.equals(key) ? cached : new SeawaterImpl(big, cached);
+    }
+
+    private void configure(@Nonnull final Precision precision, final int cacheSize,
+                           @Nonnull final BoundedCache.Eviction eviction) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cache size can't be negative");
+        }
+        this.precision = precision;
+        cache = cacheSize > 0 ? new BoundedCache<BigDecimal, SeawaterImpl>(cacheSize, eviction) : null;
     }
 }
@@ -16,10 +16,12 @@
 package org.wildbits.hydro.impl;
 
 import java.math.BigDecimal;
+import java.util.Spliterator;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import org.wildbits.data.Precision;
 import org.wildbits.data.Utils;
 import org.wildbits.hydro.SaltedLiquid;
 
@@ -29,35 +31,40 @@ import static org.wildbits.data.Utils.big;
  * Salt Water Density model as defined in paper: The thermophysical properties of seawater: A review of existing
  * correlations and data, Eq. 8. The paper is available on
  * <a href="http://hdl.handle.net/1721.1/69157">MIT Open Access</a>.
+ * The salinity dependent terms are computed once at construction, the density is then evaluated as a polynomial
+ * in temperature in Horner form.
+ * <p>
+ * Each arithmetic step is rounded according to a {@link Precision} policy. The default policy, {@link Precision#EXACT},
+ * lets the scale of the intermediate results grow with each term.
  */
 public class SeawaterImpl implements SaltedLiquid<BigDecimal> {
 
     /**
      * The minimum temperature in {@code °C} for which the salt water density is defined by the implementation.
      */
-    private static final BigDecimal MIN_TEMPERATURE = BigDecimal.ZERO;
+    static final BigDecimal MIN_TEMPERATURE = BigDecimal.ZERO;
 
     /**
      * The maximum temperature in {@code °C} for which the salt water density is defined by the implementation.
      */
-    private static final BigDecimal MAX_TEMPERATURE = big("180.0");
+    static final BigDecimal MAX_TEMPERATURE = big("180.0");
 
     /**
      * The minimum salinity in {@code kg/kg} for which the salt water density is defined by the implementation.
      */
-    private static final BigDecimal MIN_SALINITY = BigDecimal.ZERO;
+    static final BigDecimal MIN_SALINITY = BigDecimal.ZERO;
 
     /**
      * The maximum salinity in {@code kg/kg} for which the salt water density is defined by the implementation.
      */
-    private static final BigDecimal MAX_SALINITY = big("0.160");
+    static final BigDecimal MAX_SALINITY = big("0.160");
 
     /**
      * The density accuracy (±0.1%).
      */
-    private static final double ACCURACY = 0.001D;
+    static final double ACCURACY = 0.001D;
 
-    private static final BigDecimal
+    static final BigDecimal
             A1 = big("999.9"),
             A2 = big("0.02034"),
             A3 = big("-0.006162"),
@@ -71,15 +78,55 @@ public class SeawaterImpl implements SaltedLiquid<BigDecimal> {
 
     private final BigDecimal salinity;
 
+    private final Precision precision;
+
+    /**
+     * The salinity dependent coefficients of the temperature polynomial, computed once per instance,
+     * or {@code null} if the salinity is out of the model range.
+     */
+    private final BigDecimal c0, c1, c2, c3;
+
     /**
      * @param salinity the water salinity in {@code kg/kg}. Fresh water has salinity of {@code 0 kg/kg}.
      */
     public SeawaterImpl(@Nonnull final Number salinity) {
+        this(salinity, Precision.EXACT);
+    }
+
+    /**
+     * @param salinity the water salinity in {@code kg/kg}. Fresh water has salinity of {@code 0 kg/kg}.
+     * @param precision the precision policy of the arithmetic.
+     */
+    public SeawaterImpl(@Nonnull final Number salinity, @Nonnull final Precision precision) {
         final BigDecimal big = Utils.big(salinity);
         if (big.signum() < 0) {
             throw new IllegalArgumentException("salinity can't be negative");
         }
         this.salinity = big;
+        this.precision = precision;
+        final Precision p = precision;
+        if (validSalinity()) {
+            final BigDecimal s1 = big, s2 = p.multiply(s1, s1);
+            c0 = p.add(A1, p.multiply(B1, s1));
+            c1 = p.add(A2, p.multiply(B2, s1));
+            c2 = p.add(p.add(A3, p.multiply(B3, s1)), p.multiply(B5, s2));
+            c3 = p.add(A4, p.multiply(B4, s1));
+        } else {
+            c0 = c1 = c2 = c3 = null;
+        }
+    }
+
+    /**
+     * @param salinity the water salinity in {@code kg/kg}, numerically equal to the salinity of {@code seawater}.
+     * @param seawater the instance whose precision and coefficients are shared.
+     */
+    SeawaterImpl(@Nonnull final BigDecimal salinity, @Nonnull final SeawaterImpl seawater) {
+        this.salinity = salinity;
+        this.precision = seawater.precision;
+        this.c0 = seawater.c0;
+        this.c1 = seawater.c1;
+        this.c2 = seawater.c2;
+        this.c3 = seawater.c3;
     }
 
     /**
@@ -89,23 +136,28 @@ public class SeawaterImpl implements SaltedLiquid<BigDecimal> {
     @Nullable
     public BigDecimal density(@Nonnull Number temperature) {
         final BigDecimal t1 = Utils.big(temperature);
-        if (validSalinity() && validTemperature(t1)) {
-            final BigDecimal t2 = t1.pow(2), t3 = t1.pow(3), t4 = t1.pow(4);
-            final BigDecimal s1 = salinity, s2 = s1.pow(2);
-            return A1.add(A2.multiply(t1))
-                    .add(A3.multiply(t2))
-                    .add(A4.multiply(t3))
-                    .add(A5.multiply(t4))
-                    .add(B1.multiply(s1))
-                    .add(B2.multiply(s1).multiply(t1))
-                    .add(B3.multiply(s1).multiply(t2))
-                    .add(B4.multiply(s1).multiply(t3))
-                    .add(B5.multiply(s2).multiply(t2));
+        if (c0 != null && validTemperature(t1)) {
+            final Precision p = precision;
+            return p.add(c0, p.multiply(t1, p.add(c1, p.multiply(t1, p.add(c2, p.multiply(t1,
+                    p.add(c3, p.multiply(t1, A5))))))));
         } else {
             return null;
         }
     }
 
+    /**
+     * @param from the first temperature in {@code °C}
+     * @param step the distance between two consecutive temperatures in {@code °C}
+     * @param count the number of temperatures.
+     * @return the spliterator over the densities at the temperatures {@code from + i•step}, computed exactly by
+     *         forward differencing (see {@link TemperatureSweep}) and rounded with the precision policy of this
+     *         instance.
+     */
+    @Nonnull
+    public Spliterator<BigDecimal> sweep(@Nonnull final Number from, @Nonnull final Number step, final long count) {
+        return TemperatureSweep.of(salinity, Utils.big(from), Utils.big(step), count, precision);
+    }
+
     /**
      * @return {@code true} if the provided salinity is valid for the model ; {@code false} otherwise.
      */
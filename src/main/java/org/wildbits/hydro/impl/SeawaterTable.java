@@ -0,0 +1,204 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import javax.annotation.Nonnull;
+
+import org.wildbits.hydro.DoubleSaltedLiquid;
+import org.wildbits.hydro.SeawaterFactory;
+
+/**
+ * Precomputed grid of the seawater density (Eq. 8) over a temperature × salinity window, interpolated with
+ * bicubic Hermite patches built from the exact partial derivatives of the model.
+ * <p>
+ * The bicubic patches reproduce exactly every term of Eq. 8 except {@code A5•t^4}, whose interpolation error on a
+ * cell of width {@code h} is bounded by {@code |A5|•h^4/16}. The temperature step is derived from that bound so that
+ * the interpolation error stays within the requested fraction of the model accuracy (±0.1%); a single salinity step
+ * is enough since the model is quadratic in salinity.
+ * <p>
+ * Queries inside the window are answered from the table without allocation, queries outside the window but inside
+ * the model validity range fall back to the exact polynomial.
+ */
+public class SeawaterTable implements SeawaterFactory<Double> {
+
+    /**
+     * The number of coefficients of a bicubic patch.
+     */
+    private static final int PATCH = 16;
+
+    /**
+     * The Hermite basis change matrix, from values and derivatives at the cell corners to monomial coefficients.
+     */
+    private static final double[][] M = {
+            {1, 0, 0, 0},
+            {0, 0, 1, 0},
+            {-3, 3, -2, -1},
+            {2, -2, 1, 1}};
+
+    private final double minTemperature, maxTemperature, minSalinity, maxSalinity;
+
+    private final double temperatureStep, salinityStep;
+
+    private final int temperatureCells, salinityCells;
+
+    /**
+     * The monomial coefficients {@code a[p][q]} of each cell, stored in row major order at
+     * {@code ((i * salinityCells + j) * 16 + p * 4 + q)}.
+     */
+    private final double[] patches;
+
+    /**
+     * Build a table covering the whole model validity range.
+     * @param tolerance the maximum interpolation error, as a fraction of the model accuracy.
+     * @throws IllegalArgumentException if the tolerance is not in {@code ]0, 1]}.
+     */
+    public SeawaterTable(final double tolerance) {
+        this(DoubleSeawaterImpl.MIN_TEMPERATURE, DoubleSeawaterImpl.MAX_TEMPERATURE,
+                DoubleSeawaterImpl.MIN_SALINITY, DoubleSeawaterImpl.MAX_SALINITY, tolerance);
+    }
+
+    /**
+     * @param minTemperature the lower temperature bound of the window in {@code °C}
+     * @param maxTemperature the upper temperature bound of the window in {@code °C}
+     * @param minSalinity the lower salinity bound of the window in {@code kg/kg}
+     * @param maxSalinity the upper salinity bound of the window in {@code kg/kg}
+     * @param tolerance the maximum interpolation error, as a fraction of the model accuracy.
+     * @throws IllegalArgumentException if the window is empty or not contained in the model validity range,
+     *                                  or if the tolerance is not in {@code ]0, 1]}.
+     */
+    public SeawaterTable(final double minTemperature, final double maxTemperature,
+                         final double minSalinity, final double maxSalinity, final double tolerance) {
+        if (!(minTemperature >= DoubleSeawaterImpl.MIN_TEMPERATURE && minTemperature < maxTemperature
+                && maxTemperature <= DoubleSeawaterImpl.MAX_TEMPERATURE)) {
+            throw new IllegalArgumentException("invalid temperature window");
+        }
+        if (!(minSalinity >= DoubleSeawaterImpl.MIN_SALINITY && minSalinity < maxSalinity
+                && maxSalinity <= DoubleSeawaterImpl.MAX_SALINITY)) {
+            throw new IllegalArgumentException("invalid salinity window");
+        }
+        if (!(tolerance > 0 && tolerance <= 1)) {
+            throw new IllegalArgumentException("tolerance must be in ]0, 1]");
+        }
+        this.minTemperature = minTemperature;
+        this.maxTemperature = maxTemperature;
+        this.minSalinity = minSalinity;
+        this.maxSalinity = maxSalinity;
+        final double ε = tolerance * SeawaterImpl.ACCURACY * minDensity(minTemperature, maxTemperature, minSalinity);
+        final double h = Math.pow(16 * ε / Math.abs(DoubleSeawaterImpl.A5), 0.25);
+        temperatureCells = Math.max(1, (int) Math.ceil((maxTemperature - minTemperature) / h));
+        salinityCells = 1;
+        temperatureStep = (maxTemperature - minTemperature) / temperatureCells;
+        salinityStep = (maxSalinity - minSalinity) / salinityCells;
+        patches = new double[temperatureCells * salinityCells * PATCH];
+        for (int i = 0 ; i < temperatureCells ; i++) {
+            for (int j = 0 ; j < salinityCells ; j++) {
+                patch(i, j);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public DoubleSaltedLiquid getInstance(@Nonnull Number salinity) {
+        return new TabulatedSeawaterImpl(this, salinity.doubleValue());
+    }
+
+    /**
+     * @param temperature the temperature in {@code °C}
+     * @param salinity the salinity in {@code kg/kg}
+     * @return the density in {@code kg•m^-3} or {@link Double#NaN} if undefined.
+     */
+    public double densityAt(final double temperature, final double salinity) {
+        final double x = (temperature - minTemperature) / temperatureStep;
+        final double y = (salinity - minSalinity) / salinityStep;
+        final double ρ;
+        if (temperature >= minTemperature && temperature <= maxTemperature
+                && salinity >= minSalinity && salinity <= maxSalinity) {
+            final int i = Math.min((int) x, temperatureCells - 1), j = Math.min((int) y, salinityCells - 1);
+            final double u = x - i, v = y - j;
+            final double[] a = patches;
+            final int k = (i * salinityCells + j) * PATCH;
+            final double r0 = a[k] + v * (a[k + 1] + v * (a[k + 2] + v * a[k + 3]));
+            final double r1 = a[k + 4] + v * (a[k + 5] + v * (a[k + 6] + v * a[k + 7]));
+            final double r2 = a[k + 8] + v * (a[k + 9] + v * (a[k + 10] + v * a[k + 11]));
+            final double r3 = a[k + 12] + v * (a[k + 13] + v * (a[k + 14] + v * a[k + 15]));
+            ρ = r0 + u * (r1 + u * (r2 + u * r3));
+        } else {
+            ρ = DoubleSeawaterImpl.density(temperature, salinity);
+        }
+        return DoubleSeawaterImpl.validTemperature(temperature) & DoubleSeawaterImpl.validSalinity(salinity)
+                ? ρ : Double.NaN;
+    }
+
+    /**
+     * @return the number of temperature cells of the table.
+     */
+    public int temperatureCells() {
+        return temperatureCells;
+    }
+
+    /**
+     * @return the number of salinity cells of the table.
+     */
+    public int salinityCells() {
+        return salinityCells;
+    }
+
+    /**
+     * Compute the monomial coefficients of the cell {@code (i, j)}.
+     */
+    private void patch(final int i, final int j) {
+        final double ht = temperatureStep, hs = salinityStep;
+        final double[][] f = new double[4][4];
+        for (int di = 0 ; di < 2 ; di++) {
+            for (int dj = 0 ; dj < 2 ; dj++) {
+                final double t = minTemperature + (i + di) * ht, s = minSalinity + (j + dj) * hs;
+                f[di][dj] = DoubleSeawaterImpl.density(t, s);
+                f[di][2 + dj] = hs * DoubleSeawaterImpl.dDensityDs(t, s);
+                f[2 + di][dj] = ht * DoubleSeawaterImpl.dDensityDt(t, s);
+                f[2 + di][2 + dj] = ht * hs * DoubleSeawaterImpl.d2DensityDtDs(t, s);
+            }
+        }
+        final int k = (i * salinityCells + j) * PATCH;
+        for (int p = 0 ; p < 4 ; p++) {
+            for (int q = 0 ; q < 4 ; q++) {
+                double a = 0;
+                for (int m = 0 ; m < 4 ; m++) {
+                    for (int n = 0 ; n < 4 ; n++) {
+                        a += M[p][m] * f[m][n] * M[q][n];
+                    }
+                }
+                patches[k + p * 4 + q] = a;
+            }
+        }
+    }
+
+    /**
+     * @return a lower bound of the density over the window. The density increases with the salinity over the whole
+     *         model range, the minimum is thus searched along the lower salinity bound.
+     */
+    private static double minDensity(final double minTemperature, final double maxTemperature,
+                                     final double minSalinity) {
+        double min = DoubleSeawaterImpl.density(maxTemperature, minSalinity);
+        for (double t = minTemperature ; t < maxTemperature ; t += 1.0) {
+            min = Math.min(min, DoubleSeawaterImpl.density(t, minSalinity));
+        }
+        return min;
+    }
+}
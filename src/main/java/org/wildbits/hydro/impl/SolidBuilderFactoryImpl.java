@@ -16,27 +16,62 @@
 package org.wildbits.hydro.impl;
 
 import java.math.BigDecimal;
+import java.util.Map;
 
 import javax.annotation.Nonnull;
 
+import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Properties;
+import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Service;
+import org.wildbits.data.Precision;
 import org.wildbits.hydro.SolidBuilder;
 import org.wildbits.hydro.SolidBuilderFactory;
 
 /**
  * Service to build {@code SolidBuilder} instances.
+ * The builders apply the configured {@link Precision} policy, {@link Precision#DECIMAL128} by default.
  */
 @Service
-@Component(metatype = false)
+@Component(metatype = true, label = "Wildbits Solid Builder Factory",
+        description = "Builds solid builders backed by BigDecimal arithmetic")
+@Properties({
+        @Property(name = SolidBuilderFactory.BACKEND, value = SolidBuilderFactory.BACKEND_BIG_DECIMAL,
+                propertyPrivate = true),
+        @Property(name = SolidBuilderFactoryImpl.PRECISION, value = "DECIMAL128", label = "Precision",
+                description = "The precision policy of the arithmetic: DECIMAL32, DECIMAL64, DECIMAL128, EXACT "
+                        + "or FIXED:<scale>")
+})
 public class SolidBuilderFactoryImpl implements SolidBuilderFactory<BigDecimal> {
 
+    static final String PRECISION = "precision";
+
+    private volatile Precision precision;
+
+    public SolidBuilderFactoryImpl() {
+        this(Precision.DECIMAL128);
+    }
+
+    /**
+     * @param precision the precision policy of the builders.
+     */
+    public SolidBuilderFactoryImpl(@Nonnull final Precision precision) {
+        this.precision = precision;
+    }
+
+    @Activate
+    protected void activate(@Nonnull final Map<String, Object> config) {
+        final Object precision = config.get(PRECISION);
+        this.precision = precision != null ? Precision.valueOf(precision.toString()) : Precision.DECIMAL128;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Nonnull
     @Override
     public SolidBuilder<BigDecimal> getInstance() {
-        return new SolidBuilderImpl();
+        return new SolidBuilderImpl(precision);
     }
 }
@@ -21,17 +21,54 @@ import java.util.List;
 
 import javax.annotation.Nonnull;
 
+import org.wildbits.data.Precision;
 import org.wildbits.hydro.Solid;
 import org.wildbits.hydro.SolidBuilder;
 
 /**
  * Builder for {@link Solid} instances.
+ * The solids built apply the {@link Precision} policy of the builder, {@link Precision#DECIMAL128} by default.
+ * <p>
+ * The volume/mass pairs are buffered and appended as a block to a persistent {@link SolidChain} when building or
+ * copying, so that their volumes and masses are aggregated with a single parallel summation. Building is an amortized
+ * {@code O(1)} snapshot which is not affected by the pairs added afterwards, and {@link #copy()} forks variants
+ * sharing the pairs added so far, together with their aggregated volume and mass.
  */
 public class SolidBuilderImpl implements SolidBuilder<BigDecimal> {
 
-    private final List<Solid<BigDecimal>> solids = new ArrayList<Solid<BigDecimal>>();
+    private final Precision precision;
 
-    public SolidBuilderImpl() {}
+    private SolidChain chain;
+
+    /**
+     * The solids added since the last snapshot.
+     */
+    private final List<Solid<BigDecimal>> pending = new ArrayList<Solid<BigDecimal>>();
+
+    public SolidBuilderImpl() {
+        this(Precision.DECIMAL128);
+    }
+
+    /**
+     * @param precision the precision policy of the arithmetic of the solids built.
+     */
+    public SolidBuilderImpl(@Nonnull final Precision precision) {
+        this(precision, SolidChain.EMPTY);
+    }
+
+    private SolidBuilderImpl(@Nonnull final Precision precision, @Nonnull final SolidChain chain) {
+        this.precision = precision;
+        this.chain = chain;
+    }
+
+    /**
+     * @return a new builder holding the volume/mass pairs added so far to this builder. Both builders can then be
+     *         extended independently.
+     */
+    @Nonnull
+    public SolidBuilderImpl copy() {
+        return new SolidBuilderImpl(precision, flush());
+    }
 
     /**
      * {@inheritDoc}
@@ -39,7 +76,22 @@ public class SolidBuilderImpl implements SolidBuilder<BigDecimal> {
     @Nonnull
     @Override
     public SolidBuilderImpl add(@Nonnull final Number volume, @Nonnull final Number mass) {
-        solids.add(new HomogeneousSolid(volume, mass));
+        pending.add(new HomogeneousSolid(volume, mass, precision));
+        return this;
+    }
+
+    /**
+     * Add a volume/mass pair made of a material expanding with the temperature to the solid being built.
+     * @param volume the volume to add in {@code m^-3} at {@link ThermalHomogeneousSolid#REFERENCE_TEMPERATURE}
+     * @param mass the mass to add in {@code kg}
+     * @param expansion the volumetric thermal expansion coefficient of the material in {@code °C^-1}
+     * @return {@code this}
+     */
+    @Nonnull
+    public SolidBuilderImpl add(@Nonnull final Number volume, @Nonnull final Number mass,
+                                @Nonnull final Number expansion) {
+        pending.add(new ThermalHomogeneousSolid(volume, mass, expansion,
+                ThermalHomogeneousSolid.REFERENCE_TEMPERATURE, precision));
         return this;
     }
 
@@ -50,11 +102,23 @@ public class SolidBuilderImpl implements SolidBuilder<BigDecimal> {
     @Override
     public Solid<BigDecimal> build()
             throws IllegalArgumentException {
-        int size = solids.size();
-        if (size == 0) {
+        final SolidChain chain = flush();
+        if (chain.size == 0) {
             throw new IllegalArgumentException("no volume/mass pair is defined");
         }
-        return solids.size() == 1 ? solids.get(0) : new CompositeSolid(solids);
+        return chain.size == 1 ? chain.last() : new CompositeSolid(chain, precision);
     }
 
+    /**
+     * Append the pending solids to the chain.
+     * @return the chain holding all the solids added so far.
+     */
+    @Nonnull
+    private SolidChain flush() {
+        if (!pending.isEmpty()) {
+            chain = chain.appendAll(pending, precision);
+            pending.clear();
+        }
+        return chain;
+    }
 }
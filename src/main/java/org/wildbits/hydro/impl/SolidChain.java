@@ -0,0 +1,181 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.wildbits.data.Precision;
+import org.wildbits.data.Summation;
+import org.wildbits.hydro.Solid;
+import org.wildbits.hydro.ThermalSolid;
+
+/**
+ * Persistent list of solids, represented by its last node.
+ * <p>
+ * Appending solids creates a node pointing to the list it extends, which is left unchanged. Lists extending a common
+ * prefix share the nodes of the prefix together with the volume and mass aggregated at each node, so that appending
+ * and taking a snapshot are {@code O(1)} operations.
+ * <p>
+ * A node holds a block of solids, whose volumes and masses are summed exactly with {@link Summation}, in parallel for
+ * large blocks, and added to the aggregates of the parent with a single rounding.
+ * <p>
+ * The thermal expansion of the {@link ThermalHomogeneousSolid} instances is folded, as they are appended, into the
+ * coefficients of the total volume {@code V(T) = volume + expansion • T - offset}, a polynomial in temperature.
+ */
+final class SolidChain {
+
+    /**
+     * The empty list.
+     */
+    static final SolidChain EMPTY = new SolidChain();
+
+    @Nullable
+    private final SolidChain parent;
+
+    /**
+     * The solids appended by this node.
+     */
+    @Nonnull
+    private final Solid<BigDecimal>[] solids;
+
+    /**
+     * The number of solids in the list.
+     */
+    final int size;
+
+    /**
+     * The total volume and mass of the solids in the list.
+     */
+    final BigDecimal volume, mass;
+
+    /**
+     * The sums over the solids of {@code V0 • β} and {@code V0 • β • T0}.
+     */
+    final BigDecimal expansion, offset;
+
+    /**
+     * {@code true} if none of the solids in the list has a temperature dependent density.
+     */
+    final boolean constantDensity;
+
+    /**
+     * {@code true} if the total volume is given by the folded polynomial, i.e. if none of the solids in the list is
+     * a {@link ThermalSolid} other than a {@link ThermalHomogeneousSolid}.
+     */
+    final boolean linearVolume;
+
+    /**
+     * {@code true} if every solid in the list is a {@link HomogeneousSolid} or a {@link ThermalHomogeneousSolid},
+     * whose density only depends on the temperature through its volume.
+     */
+    final boolean homogeneous;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private SolidChain() {
+        parent = null;
+        solids = new Solid[0];
+        size = 0;
+        volume = mass = expansion = offset = BigDecimal.ZERO;
+        constantDensity = linearVolume = homogeneous = true;
+    }
+
+    private SolidChain(@Nonnull final SolidChain parent, @Nonnull final Solid<BigDecimal>[] solids,
+                       @Nonnull final Precision precision) {
+        this.parent = parent;
+        this.solids = solids;
+        size = parent.size + solids.length;
+        final int length = solids.length;
+        final BigDecimal[] volumes = new BigDecimal[length], masses = new BigDecimal[length];
+        final BigDecimal[] expansions = new BigDecimal[length], offsets = new BigDecimal[length];
+        boolean constantDensity = parent.constantDensity, linearVolume = parent.linearVolume;
+        boolean homogeneous = parent.homogeneous;
+        for (int i = 0 ; i < length ; i++) {
+            final Solid<BigDecimal> solid = solids[i];
+            volumes[i] = solid.volume();
+            masses[i] = solid.mass();
+            constantDensity &= solid instanceof HomogeneousSolid;
+            homogeneous &= solid instanceof HomogeneousSolid || solid instanceof ThermalHomogeneousSolid;
+            if (solid instanceof ThermalHomogeneousSolid) {
+                final ThermalHomogeneousSolid thermal = (ThermalHomogeneousSolid) solid;
+                expansions[i] = precision.multiply(thermal.volume(), thermal.expansion());
+                offsets[i] = precision.multiply(expansions[i], thermal.temperature());
+            } else {
+                expansions[i] = offsets[i] = BigDecimal.ZERO;
+                linearVolume &= !(solid instanceof ThermalSolid);
+            }
+        }
+        volume = precision.add(parent.volume, Summation.sum(volumes));
+        mass = precision.add(parent.mass, Summation.sum(masses));
+        expansion = precision.add(parent.expansion, Summation.sum(expansions));
+        offset = precision.add(parent.offset, Summation.sum(offsets));
+        this.constantDensity = constantDensity;
+        this.linearVolume = linearVolume;
+        this.homogeneous = homogeneous;
+    }
+
+    /**
+     * @param solid the solid to append.
+     * @param precision the precision policy of the aggregated volume and mass.
+     * @return the list made of this list followed by the solid.
+     */
+    @Nonnull
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    SolidChain append(@Nonnull final Solid<BigDecimal> solid, @Nonnull final Precision precision) {
+        return new SolidChain(this, new Solid[]{solid}, precision);
+    }
+
+    /**
+     * @param solids the solids to append.
+     * @param precision the precision policy of the aggregated volume and mass.
+     * @return the list made of this list followed by the solids.
+     */
+    @Nonnull
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    SolidChain appendAll(@Nonnull final List<Solid<BigDecimal>> solids, @Nonnull final Precision precision) {
+        return solids.isEmpty() ? this : new SolidChain(this, solids.toArray(new Solid[solids.size()]), precision);
+    }
+
+    /**
+     * @return the last solid of the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    @Nonnull
+    Solid<BigDecimal> last() {
+        if (size == 0) {
+            throw new IllegalStateException("empty list");
+        }
+        return solids[solids.length - 1];
+    }
+
+    /**
+     * @return an immutable list of the solids, in insertion order.
+     */
+    @Nonnull
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    List<Solid<BigDecimal>> toList() {
+        final Solid<BigDecimal>[] solids = new Solid[size];
+        for (SolidChain node = this ; node.parent != null ; node = node.parent) {
+            System.arraycopy(node.solids, 0, solids, node.parent.size, node.solids.length);
+        }
+        return Collections.unmodifiableList(Arrays.asList(solids));
+    }
+}
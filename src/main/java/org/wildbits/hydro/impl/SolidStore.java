@@ -0,0 +1,445 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.wildbits.data.Summation;
+import org.wildbits.hydro.DoubleSolid;
+
+/**
+ * Columnar store of homogeneous parts (volume, mass, material id) held outside of the heap.
+ * <p>
+ * The rows are stored in pages of {@value #PAGE} rows, each page holding the column of the volumes, the column of
+ * the masses (IEEE 754 double precision) and the column of the material ids ({@code int}), little endian. The pages
+ * are either direct buffers ({@link #allocate()}) or mapped windows of a file ({@link #create(Path)},
+ * {@link #open(Path, boolean)}) made of a 64 bytes header followed by the pages
+ * <pre>
+ * offset  size  content
+ *      0     8  magic number, the ASCII string "HYDROSLD"
+ *      8     4  format version, 1
+ *     12     4  number of rows per page
+ *     16     8  number of rows
+ *     24    40  reserved, 0
+ *     64     -  the pages, one after the other
+ * </pre>
+ * A part costs 20 bytes and no object. The {@link DoubleSolid} views over a row range or a selection of rows
+ * aggregate the volumes and masses when created, without materializing the parts. The aggregation is parallel over
+ * the pages, respectively blocks of rows, with compensated sums combined in a fixed order (see {@link Summation}),
+ * so that the aggregates do not depend on the number of threads.
+ * <p>
+ * The store may be read concurrently, the writes must be externally synchronized with the reads.
+ */
+public class SolidStore implements Closeable {
+
+    /**
+     * The number of rows per page.
+     */
+    static final int PAGE = 1 << 16;
+
+    /**
+     * The size of the file header in bytes.
+     */
+    static final int HEADER = 64;
+
+    /**
+     * The format version.
+     */
+    static final int VERSION = 1;
+
+    private static final int PAGE_BYTES = PAGE * (2 * Double.BYTES + Integer.BYTES);
+
+    private static final int MASSES = PAGE * Double.BYTES, MATERIALS = 2 * PAGE * Double.BYTES;
+
+    private static final byte[] MAGIC = "HYDROSLD".getBytes(StandardCharsets.US_ASCII);
+
+    @Nullable
+    private final FileChannel channel;
+
+    @Nullable
+    private final MappedByteBuffer header;
+
+    private final boolean writable;
+
+    private final ForkJoinPool pool;
+
+    private ByteBuffer[] pages = new ByteBuffer[16];
+
+    private long size;
+
+    private SolidStore(@Nullable final FileChannel channel, @Nullable final MappedByteBuffer header,
+                       final boolean writable) {
+        this.channel = channel;
+        this.header = header;
+        this.writable = writable;
+        this.pool = ForkJoinPool.commonPool();
+    }
+
+    /**
+     * @return a new empty store held in direct buffers.
+     */
+    @Nonnull
+    public static SolidStore allocate() {
+        return new SolidStore(null, null, true);
+    }
+
+    /**
+     * Create a store file, or replace an existing one.
+     * @param path the path of the file.
+     * @return the empty store, open for reading and writing.
+     * @throws IOException if the file can't be created.
+     */
+    @Nonnull
+    public static SolidStore create(@Nonnull final Path path) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER);
+            header.order(ByteOrder.LITTLE_ENDIAN).put(MAGIC).putInt(VERSION).putInt(PAGE).putLong(0);
+            return new SolidStore(channel, header, true);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Open an existing store file.
+     * @param path the path of the file.
+     * @param writable {@code true} to open the file for reading and writing ; {@code false} for reading only.
+     * @return the store.
+     * @throws IOException if the file can't be read or is not a valid store file.
+     */
+    @Nonnull
+    public static SolidStore open(@Nonnull final Path path, final boolean writable) throws IOException {
+        final FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() < HEADER) {
+                throw new IOException("not a solid store: " + path);
+            }
+            final MappedByteBuffer header = channel.map(writable ? FileChannel.MapMode.READ_WRITE
+                    : FileChannel.MapMode.READ_ONLY, 0, HEADER);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            final byte[] magic = new byte[MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(MAGIC, magic)) {
+                throw new IOException("not a solid store: " + path);
+            }
+            final int version = header.getInt(8);
+            if (version != VERSION) {
+                throw new IOException("unsupported solid store version " + version);
+            }
+            final long size = header.getLong(16);
+            if (header.getInt(12) != PAGE || size < 0
+                    || channel.size() < HEADER + pages(size) * PAGE_BYTES) {
+                throw new IOException("corrupted solid store: " + path);
+            }
+            final SolidStore store = new SolidStore(channel, header, writable);
+            for (long page = 0 ; page < pages(size) ; page++) {
+                store.page((int) page);
+            }
+            store.size = size;
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of rows.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Append a part.
+     * @param volume the volume in {@code m^-3}
+     * @param mass the mass in {@code kg}
+     * @param material the material id.
+     * @return the row of the part.
+     * @throws IllegalStateException if the store is read only.
+     * @throws IOException if the page of the row can't be mapped.
+     */
+    public long add(final double volume, final double mass, final int material) throws IOException {
+        if (!writable) {
+            throw new IllegalStateException("read only store");
+        }
+        final long row = size;
+        if ((row & (PAGE - 1)) == 0) {
+            page((int) (row / PAGE));
+        }
+        size = row + 1;
+        write(row, volume, mass, material);
+        if (header != null) {
+            header.putLong(16, size);
+        }
+        return row;
+    }
+
+    /**
+     * Replace a part.
+     * @param row the row of the part.
+     * @param volume the volume in {@code m^-3}
+     * @param mass the mass in {@code kg}
+     * @param material the material id.
+     * @throws IllegalArgumentException if the row is out of the store.
+     * @throws IllegalStateException if the store is read only.
+     */
+    public void set(final long row, final double volume, final double mass, final int material) {
+        if (!writable) {
+            throw new IllegalStateException("read only store");
+        }
+        write(check(row), volume, mass, material);
+    }
+
+    /**
+     * @return the volume of the part in {@code m^-3}
+     */
+    public double volume(final long row) {
+        check(row);
+        return pages[(int) (row / PAGE)].getDouble(offset(row));
+    }
+
+    /**
+     * @return the mass of the part in {@code kg}
+     */
+    public double mass(final long row) {
+        check(row);
+        return pages[(int) (row / PAGE)].getDouble(MASSES + offset(row));
+    }
+
+    /**
+     * @return the material id of the part.
+     */
+    public int material(final long row) {
+        check(row);
+        return pages[(int) (row / PAGE)].getInt(MATERIALS + (int) (row & (PAGE - 1)) * Integer.BYTES);
+    }
+
+    /**
+     * @param material the material id.
+     * @return the rows of the parts made of the material, in increasing order.
+     */
+    @Nonnull
+    public long[] select(final int material) {
+        long[] rows = new long[16];
+        int count = 0;
+        for (int page = 0 ; page < pages(size) ; page++) {
+            final ByteBuffer buffer = pages[page];
+            final int length = (int) Math.min(PAGE, size - (long) page * PAGE);
+            for (int r = 0 ; r < length ; r++) {
+                if (buffer.getInt(MATERIALS + r * Integer.BYTES) == material) {
+                    if (count == rows.length) {
+                        rows = Arrays.copyOf(rows, 2 * count);
+                    }
+                    rows[count++] = (long) page * PAGE + r;
+                }
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * @param from the first row, included.
+     * @param to the last row, excluded.
+     * @return the solid made of the parts of the rows, aggregated at the time of the call.
+     * @throws IllegalArgumentException if the range is empty or out of the store.
+     */
+    @Nonnull
+    public DoubleSolid view(final long from, final long to) {
+        if (from < 0 || to > size || from >= to) {
+            throw new IllegalArgumentException("invalid row range");
+        }
+        final int first = (int) (from / PAGE), last = (int) ((to - 1) / PAGE);
+        final double[] volumes = new double[last - first + 1], masses = new double[volumes.length];
+        pool.invoke(new Aggregation(volumes.length) {
+            @Override
+            void aggregate(final int block, final double[] sums) {
+                final int page = first + block;
+                final long base = (long) page * PAGE;
+                final int r0 = (int) (Math.max(from, base) - base), r1 = (int) (Math.min(to, base + PAGE) - base);
+                final ByteBuffer buffer = pages[page];
+                for (int r = r0 ; r < r1 ; r++) {
+                    add(sums, buffer.getDouble(r * Double.BYTES), buffer.getDouble(MASSES + r * Double.BYTES));
+                }
+                volumes[block] = sums[0] + sums[1];
+                masses[block] = sums[2] + sums[3];
+            }
+        });
+        return new DoubleHomogeneousSolid(Summation.sum(volumes), Summation.sum(masses));
+    }
+
+    /**
+     * @param rows the rows of the parts.
+     * @return the solid made of the parts of the rows, aggregated at the time of the call.
+     * @throws IllegalArgumentException if no row is given or a row is out of the store.
+     */
+    @Nonnull
+    public DoubleSolid view(@Nonnull final long[] rows) {
+        if (rows.length == 0) {
+            throw new IllegalArgumentException("no row is selected");
+        }
+        final int blocks = (rows.length + PAGE - 1) / PAGE;
+        final double[] volumes = new double[blocks], masses = new double[blocks];
+        pool.invoke(new Aggregation(blocks) {
+            @Override
+            void aggregate(final int block, final double[] sums) {
+                final int end = Math.min(rows.length, (block + 1) * PAGE);
+                for (int i = block * PAGE ; i < end ; i++) {
+                    final long row = check(rows[i]);
+                    final ByteBuffer buffer = pages[(int) (row / PAGE)];
+                    final int offset = offset(row);
+                    add(sums, buffer.getDouble(offset), buffer.getDouble(MASSES + offset));
+                }
+                volumes[block] = sums[0] + sums[1];
+                masses[block] = sums[2] + sums[3];
+            }
+        });
+        return new DoubleHomogeneousSolid(Summation.sum(volumes), Summation.sum(masses));
+    }
+
+    /**
+     * Flush the changes to the storage device, if the store is held in a file.
+     * @throws IOException if the changes can't be flushed.
+     */
+    public void force() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private static long pages(final long rows) {
+        return (rows + PAGE - 1) / PAGE;
+    }
+
+    private static int offset(final long row) {
+        return (int) (row & (PAGE - 1)) * Double.BYTES;
+    }
+
+    private long check(final long row) {
+        if (row < 0 || row >= size) {
+            throw new IllegalArgumentException("row " + row + " out of the store");
+        }
+        return row;
+    }
+
+    private void write(final long row, final double volume, final double mass, final int material) {
+        final ByteBuffer buffer = pages[(int) (row / PAGE)];
+        final int offset = offset(row);
+        buffer.putDouble(offset, volume);
+        buffer.putDouble(MASSES + offset, mass);
+        buffer.putInt(MATERIALS + (int) (row & (PAGE - 1)) * Integer.BYTES, material);
+    }
+
+    /**
+     * Allocate or map the page.
+     */
+    private void page(final int page) throws IOException {
+        if (page == pages.length) {
+            pages = Arrays.copyOf(pages, 2 * page);
+        }
+        final ByteBuffer buffer = channel == null ? ByteBuffer.allocateDirect(PAGE_BYTES)
+                : channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                HEADER + (long) page * PAGE_BYTES, PAGE_BYTES);
+        pages[page] = buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Aggregate blocks of rows in parallel, each block with the compensated sums of its volumes and masses.
+     */
+    private abstract static class Aggregation extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+
+        private Aggregation(final int blocks) {
+            this(0, blocks);
+        }
+
+        private Aggregation(final int from, final int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Aggregate the block into {@code sums}, {@code {volume, compensation, mass, compensation}} initially
+         * {@code 0}, and store the result.
+         */
+        abstract void aggregate(int block, double[] sums);
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                aggregate(from, new double[4]);
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            final Aggregation outer = this;
+            invokeAll(new Aggregation(from, middle) {
+                @Override
+                void aggregate(int block, double[] sums) {
+                    outer.aggregate(block, sums);
+                }
+            }, new Aggregation(middle, to) {
+                @Override
+                void aggregate(int block, double[] sums) {
+                    outer.aggregate(block, sums);
+                }
+            });
+        }
+
+        /**
+         * Add the volume and mass to the Neumaier compensated sums.
+         */
+        static void add(@Nonnull final double[] sums, final double volume, final double mass) {
+            double t = sums[0] + volume;
+            sums[1] += Math.abs(sums[0]) >= Math.abs(volume) ? (sums[0] - t) + volume : (volume - t) + sums[0];
+            sums[0] = t;
+            t = sums[2] + mass;
+            sums[3] += Math.abs(sums[2]) >= Math.abs(mass) ? (sums[2] - t) + mass : (mass - t) + sums[2];
+            sums[2] = t;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.wildbits.hydro.DoubleSaltedLiquid;
+
+/**
+ * Seawater of a given salinity whose density is looked up in a {@link SeawaterTable}.
+ */
+public class TabulatedSeawaterImpl implements DoubleSaltedLiquid {
+
+    private final SeawaterTable table;
+
+    private final double salinity;
+
+    private final Double boxedSalinity;
+
+    /**
+     * @param table the table to look the density up.
+     * @param salinity the water salinity in {@code kg/kg}. Fresh water has salinity of {@code 0 kg/kg}.
+     */
+    public TabulatedSeawaterImpl(@Nonnull final SeawaterTable table, final double salinity) {
+        if (!(salinity >= 0)) {
+            throw new IllegalArgumentException("salinity can't be negative");
+        }
+        this.table = table;
+        this.salinity = salinity;
+        this.boxedSalinity = salinity;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double densityAt(final double temperature) {
+        return table.densityAt(temperature, salinity);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void density(@Nonnull final double[] temperatures, @Nonnull final double[] out) {
+        DoubleSeawaterImpl.checkLength(temperatures.length, out.length);
+        for (int i = 0 ; i < temperatures.length ; i++) {
+            out[i] = table.densityAt(temperatures[i], salinity);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public Double density(@Nonnull Number temperature) {
+        final double ρ = densityAt(temperature.doubleValue());
+        return Double.isNaN(ρ) ? null : ρ;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public Double salinity() {
+        return boxedSalinity;
+    }
+}
@@ -0,0 +1,340 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.math.BigDecimal;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+import javax.annotation.Nonnull;
+
+import org.wildbits.data.Precision;
+
+/**
+ * Spliterators over the seawater density at evenly spaced temperatures.
+ * <p>
+ * The Eq. 8 polynomial is of degree 4 in temperature: over evenly spaced temperatures, its fourth forward difference
+ * is constant and each density is obtained from the previous one with four additions. The difference table is
+ * seeded from the polynomial at the first temperature of a range. Each range obtained by splitting
+ * is seeded anew and the {@code double} spliterator also re-seeds every {@value #RESEED} temperatures, so that the
+ * rounding errors of the additions do not accumulate along long sweeps. The {@link BigDecimal} spliterator keeps an
+ * exact difference table and yields the densities of {@link SeawaterImpl} with the {@link Precision#EXACT} precision,
+ * optionally rounded once.
+ * <p>
+ * The densities at temperatures out of the model range are {@link Double#NaN}, respectively {@code null}.
+ */
+public final class TemperatureSweep {
+
+    /**
+     * The number of densities after which the {@code double} spliterator re-seeds its difference table.
+     */
+    static final int RESEED = 256;
+
+    /**
+     * The number of densities below which a range is not split.
+     */
+    private static final int MIN_SPLIT = 1024;
+
+    private static final BigDecimal TWO = BigDecimal.valueOf(2), THREE = BigDecimal.valueOf(3),
+            SIX = BigDecimal.valueOf(6), SEVEN = BigDecimal.valueOf(7), TWENTY_FOUR = BigDecimal.valueOf(24);
+
+    private TemperatureSweep() {}
+
+    /**
+     * @param salinity the seawater salinity in {@code kg/kg}.
+     * @param from the first temperature in {@code °C}
+     * @param step the distance between two consecutive temperatures in {@code °C}
+     * @param count the number of temperatures.
+     * @return the spliterator over the densities in {@code kg•m^-3} at the temperatures {@code from + i•step}.
+     * @throws IllegalArgumentException if the salinity or the count is negative.
+     */
+    @Nonnull
+    public static Spliterator.OfDouble of(final double salinity, final double from, final double step,
+                                          final long count) {
+        if (!(salinity >= 0) || count < 0) {
+            throw new IllegalArgumentException("salinity and count can't be negative");
+        }
+        final double[] p = DoubleSeawaterImpl.validSalinity(salinity)
+                ? DoubleSeawaterImpl.temperatureCoefficients(salinity) : null;
+        return new DoubleSweep(p, from, step, 0, count);
+    }
+
+    /**
+     * @param salinity the seawater salinity in {@code kg/kg}.
+     * @param from the first temperature in {@code °C}
+     * @param step the distance between two consecutive temperatures in {@code °C}
+     * @param count the number of temperatures.
+     * @return the spliterator over the exact densities in {@code kg•m^-3} at the temperatures {@code from + i•step}.
+     * @throws IllegalArgumentException if the salinity or the count is negative.
+     */
+    @Nonnull
+    public static Spliterator<BigDecimal> of(@Nonnull final BigDecimal salinity, @Nonnull final BigDecimal from,
+                                             @Nonnull final BigDecimal step, final long count) {
+        return of(salinity, from, step, count, Precision.EXACT);
+    }
+
+    /**
+     * @param salinity the seawater salinity in {@code kg/kg}.
+     * @param from the first temperature in {@code °C}
+     * @param step the distance between two consecutive temperatures in {@code °C}
+     * @param count the number of temperatures.
+     * @param precision the precision policy rounding the densities, the difference table is kept exact.
+     * @return the spliterator over the densities in {@code kg•m^-3} at the temperatures {@code from + i•step}.
+     * @throws IllegalArgumentException if the salinity or the count is negative.
+     */
+    @Nonnull
+    public static Spliterator<BigDecimal> of(@Nonnull final BigDecimal salinity, @Nonnull final BigDecimal from,
+                                             @Nonnull final BigDecimal step, final long count,
+                                             @Nonnull final Precision precision) {
+        if (salinity.signum() < 0 || count < 0) {
+            throw new IllegalArgumentException("salinity and count can't be negative");
+        }
+        final BigDecimal[] p;
+        if (salinity.compareTo(SeawaterImpl.MIN_SALINITY) >= 0 && salinity.compareTo(SeawaterImpl.MAX_SALINITY) < 0) {
+            final BigDecimal s = salinity;
+            p = new BigDecimal[]{
+                    SeawaterImpl.A1.add(SeawaterImpl.B1.multiply(s)),
+                    SeawaterImpl.A2.add(SeawaterImpl.B2.multiply(s)),
+                    SeawaterImpl.A3.add(SeawaterImpl.B3.multiply(s)).add(SeawaterImpl.B5.multiply(s).multiply(s)),
+                    SeawaterImpl.A4.add(SeawaterImpl.B4.multiply(s)),
+                    SeawaterImpl.A5};
+        } else {
+            p = null;
+        }
+        return new BigDecimalSweep(p, from, step, precision, 0, count);
+    }
+
+    /**
+     * Fill the difference table {@code d} at the temperature {@code t} for the step {@code h}.
+     * <p>
+     * The coefficients {@code q} of the polynomial are first shifted to {@code t} (Taylor coefficients), the
+     * differences are then {@code Δ^k = k! • Σ S(m, k) • q_m • h^m} with {@code S} the Stirling numbers of the second
+     * kind. Unlike differencing sampled densities, this does not cancel for small steps.
+     */
+    private static void seed(@Nonnull final double[] p, final double t, final double h, @Nonnull final double[] d) {
+        final double[] q = p.clone();
+        for (int i = 0 ; i < 4 ; i++) {
+            for (int j = 3 ; j >= i ; j--) {
+                q[j] += t * q[j + 1];
+            }
+        }
+        final double q1 = q[1] * h, q2 = q[2] * h * h, q3 = q[3] * h * h * h, q4 = q[4] * h * h * h * h;
+        d[0] = q[0];
+        d[1] = q1 + q2 + q3 + q4;
+        d[2] = 2 * (q2 + 3 * q3 + 7 * q4);
+        d[3] = 6 * (q3 + 6 * q4);
+        d[4] = 24 * q4;
+    }
+
+    private static void seed(@Nonnull final BigDecimal[] p, @Nonnull final BigDecimal t, @Nonnull final BigDecimal h,
+                             @Nonnull final BigDecimal[] d) {
+        final BigDecimal[] q = p.clone();
+        for (int i = 0 ; i < 4 ; i++) {
+            for (int j = 3 ; j >= i ; j--) {
+                q[j] = q[j].add(t.multiply(q[j + 1]));
+            }
+        }
+        final BigDecimal q1 = q[1].multiply(h), q2 = q[2].multiply(h.pow(2)), q3 = q[3].multiply(h.pow(3)),
+                q4 = q[4].multiply(h.pow(4));
+        d[0] = q[0];
+        d[1] = q1.add(q2).add(q3).add(q4);
+        d[2] = q2.add(q3.multiply(THREE)).add(q4.multiply(SEVEN)).multiply(TWO);
+        d[3] = q3.add(q4.multiply(SIX)).multiply(SIX);
+        d[4] = q4.multiply(TWENTY_FOUR);
+    }
+
+    private static final class DoubleSweep implements Spliterator.OfDouble {
+
+        private final double[] p;
+
+        private final double from, step;
+
+        private final double[] d = new double[5];
+
+        private long index;
+
+        /**
+         * The number of densities left before re-seeding the difference table.
+         */
+        private int unseeded;
+
+        private final long end;
+
+        private DoubleSweep(final double[] p, final double from, final double step, final long index,
+                            final long end) {
+            this.p = p;
+            this.from = from;
+            this.step = step;
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(@Nonnull final DoubleConsumer action) {
+            if (index >= end) {
+                return false;
+            }
+            action.accept(next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(@Nonnull final DoubleConsumer action) {
+            while (index < end) {
+                action.accept(next());
+            }
+        }
+
+        private double next() {
+            final double t = from + index * step;
+            double ρ = Double.NaN;
+            if (p != null) {
+                if (unseeded-- == 0) {
+                    seed();
+                }
+                ρ = d[0];
+                d[0] += d[1];
+                d[1] += d[2];
+                d[2] += d[3];
+                d[3] += d[4];
+            }
+            index++;
+            return DoubleSeawaterImpl.validTemperature(t) ? ρ : Double.NaN;
+        }
+
+        private void seed() {
+            TemperatureSweep.seed(p, from + index * step, step, d);
+            unseeded = RESEED - 1;
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            final long middle = (index + end) >>> 1;
+            if (end - index < MIN_SPLIT) {
+                return null;
+            }
+            final DoubleSweep prefix = new DoubleSweep(p, from, step, index, middle);
+            index = middle;
+            unseeded = 0;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+
+    private static final class BigDecimalSweep implements Spliterator<BigDecimal> {
+
+        private final BigDecimal[] p;
+
+        private final BigDecimal from, step;
+
+        private final Precision precision;
+
+        private final BigDecimal[] d = new BigDecimal[5];
+
+        private long index;
+
+        private final long end;
+
+        /**
+         * The temperature at the index, {@code null} until seeded.
+         */
+        private BigDecimal t;
+
+        private BigDecimalSweep(final BigDecimal[] p, @Nonnull final BigDecimal from, @Nonnull final BigDecimal step,
+                                @Nonnull final Precision precision, final long index, final long end) {
+            this.p = p;
+            this.from = from;
+            this.step = step;
+            this.precision = precision;
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(@Nonnull final Consumer<? super BigDecimal> action) {
+            if (index >= end) {
+                return false;
+            }
+            action.accept(next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(@Nonnull final Consumer<? super BigDecimal> action) {
+            while (index < end) {
+                action.accept(next());
+            }
+        }
+
+        private BigDecimal next() {
+            if (t == null) {
+                seed();
+            }
+            BigDecimal ρ = null;
+            if (p != null) {
+                ρ = d[0];
+                d[0] = d[0].add(d[1]);
+                d[1] = d[1].add(d[2]);
+                d[2] = d[2].add(d[3]);
+                d[3] = d[3].add(d[4]);
+            }
+            final boolean valid = t.compareTo(SeawaterImpl.MIN_TEMPERATURE) >= 0
+                    && t.compareTo(SeawaterImpl.MAX_TEMPERATURE) < 0;
+            t = t.add(step);
+            index++;
+            return valid && ρ != null ? precision.round(ρ) : null;
+        }
+
+        private void seed() {
+            t = from.add(step.multiply(BigDecimal.valueOf(index)));
+            if (p != null) {
+                TemperatureSweep.seed(p, t, step, d);
+            }
+        }
+
+        @Override
+        public Spliterator<BigDecimal> trySplit() {
+            final long middle = (index + end) >>> 1;
+            if (end - index < MIN_SPLIT) {
+                return null;
+            }
+            final BigDecimalSweep prefix = new BigDecimalSweep(p, from, step, precision, index, middle);
+            index = middle;
+            t = null;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.math.BigDecimal;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.wildbits.data.Precision;
+import org.wildbits.data.Utils;
+import org.wildbits.hydro.ThermalSolid;
+
+/**
+ * Represent an homogeneous solid expanding linearly with the temperature.
+ * <p>
+ * The volume at the temperature {@code T} is {@code V(T) = V0 • (1 + β • (T - T0))} where {@code V0} is the volume
+ * at the reference temperature {@code T0} and {@code β} the volumetric thermal expansion coefficient of the material
+ * (three times its linear coefficient for an isotropic material). The mass does not depend on the temperature.
+ * The volume, density and buoyancy are undefined at temperatures where the volume would not be positive.
+ * The arithmetic is rounded according to a {@link Precision} policy, {@link Precision#DECIMAL128} by default.
+ */
+public class ThermalHomogeneousSolid implements ThermalSolid<BigDecimal> {
+
+    /**
+     * The default reference temperature in {@code °C}, at which the material expansion coefficients are tabulated.
+     */
+    public static final BigDecimal REFERENCE_TEMPERATURE = Utils.big("20");
+
+    private final Precision precision;
+
+    private final BigDecimal volume;
+
+    private final BigDecimal mass;
+
+    private final BigDecimal expansion;
+
+    private final BigDecimal temperature;
+
+    /**
+     * @param volume in {@code m^-3} at {@link #REFERENCE_TEMPERATURE}
+     * @param mass in {@code kg}
+     * @param expansion the volumetric thermal expansion coefficient in {@code °C^-1}
+     */
+    public ThermalHomogeneousSolid(@Nonnull final Number volume, @Nonnull final Number mass,
+                                   @Nonnull final Number expansion) {
+        this(volume, mass, expansion, REFERENCE_TEMPERATURE, Precision.DECIMAL128);
+    }
+
+    /**
+     * @param volume in {@code m^-3} at the reference temperature
+     * @param mass in {@code kg}
+     * @param expansion the volumetric thermal expansion coefficient in {@code °C^-1}
+     * @param temperature the reference temperature in {@code °C}
+     * @param precision the precision policy of the arithmetic.
+     */
+    public ThermalHomogeneousSolid(@Nonnull final Number volume, @Nonnull final Number mass,
+                                   @Nonnull final Number expansion, @Nonnull final Number temperature,
+                                   @Nonnull final Precision precision) {
+        this.volume = Utils.big(volume);
+        this.mass = Utils.big(mass);
+        this.expansion = Utils.big(expansion);
+        this.temperature = Utils.big(temperature);
+        this.precision = precision;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nonnull
+    public BigDecimal volume() {
+        return volume;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nonnull
+    public BigDecimal mass() {
+        return mass;
+    }
+
+    /**
+     * @return the volumetric thermal expansion coefficient in {@code °C^-1}
+     */
+    @Nonnull
+    public BigDecimal expansion() {
+        return expansion;
+    }
+
+    /**
+     * @return the reference temperature in {@code °C}
+     */
+    @Nonnull
+    public BigDecimal temperature() {
+        return temperature;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public BigDecimal volume(@Nonnull final Number temperature) {
+        final BigDecimal dt = precision.subtract(Utils.big(temperature), this.temperature);
+        final BigDecimal v = precision.add(volume, precision.multiply(precision.multiply(volume, expansion), dt));
+        return v.signum() > 0 ? v : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public BigDecimal density(@Nonnull final Number temperature) {
+        final BigDecimal v = volume(temperature);
+        return v != null ? precision.divide(mass, v) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public BigDecimal buoyancy(@Nonnull final Number ρ) {
+        return precision.subtract(precision.multiply(Utils.big(ρ), volume), mass);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public BigDecimal buoyancy(@Nonnull final Number ρ, @Nonnull final Number temperature) {
+        final BigDecimal v = volume(temperature);
+        return v != null ? precision.subtract(precision.multiply(Utils.big(ρ), v), mass) : null;
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.math.BigDecimal;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.wildbits.hydro.Solid;
+import org.wildbits.hydro.ThermalSolid;
+
+/**
+ * The volume of a {@link ThermalSolid} as a function of the temperature, evaluated with primitive {@code double}
+ * arithmetic for the consumers iterating over temperatures.
+ * <p>
+ * The volume of a {@link ThermalHomogeneousSolid}, and of a {@link CompositeSolid} whose thermal solids are all
+ * homogeneous, is linear in temperature, {@code V(T) = intercept + slope • T}, and evaluated from its coefficients.
+ * The volume of the other thermal solids is evaluated through {@link ThermalSolid#volume(Number)}.
+ */
+final class ThermalVolume {
+
+    /**
+     * The solid if its volume is not linear in temperature.
+     */
+    @Nullable
+    private final ThermalSolid<? extends Number> solid;
+
+    private final double intercept, slope;
+
+    private ThermalVolume(@Nullable ThermalSolid<? extends Number> solid, double intercept, double slope) {
+        this.solid = solid;
+        this.intercept = intercept;
+        this.slope = slope;
+    }
+
+    /**
+     * @param solid a solid of any backend.
+     * @return the volume of the solid as a function of the temperature or {@code null} if the solid is not a
+     *         {@link ThermalSolid}.
+     */
+    @Nullable
+    static ThermalVolume of(@Nonnull final Solid<? extends Number> solid) {
+        if (solid instanceof ThermalHomogeneousSolid) {
+            final ThermalHomogeneousSolid thermal = (ThermalHomogeneousSolid) solid;
+            final BigDecimal expansion = thermal.volume().multiply(thermal.expansion());
+            return new ThermalVolume(null, thermal.volume().subtract(expansion.multiply(thermal.temperature()))
+                    .doubleValue(), expansion.doubleValue());
+        }
+        if (solid instanceof CompositeSolid && ((CompositeSolid) solid).chain().linearVolume) {
+            final SolidChain chain = ((CompositeSolid) solid).chain();
+            return new ThermalVolume(null, chain.volume.subtract(chain.offset).doubleValue(),
+                    chain.expansion.doubleValue());
+        }
+        if (solid instanceof ThermalSolid) {
+            return new ThermalVolume((ThermalSolid<? extends Number>) solid, Double.NaN, Double.NaN);
+        }
+        return null;
+    }
+
+    /**
+     * @return {@code true} if the volume is linear in temperature, given by {@link #intercept()} and
+     *         {@link #slope()}.
+     */
+    boolean linear() {
+        return solid == null;
+    }
+
+    /**
+     * @return the volume in {@code m^-3} at {@code 0 °C} of a linear volume.
+     */
+    double intercept() {
+        return intercept;
+    }
+
+    /**
+     * @return the variation of a linear volume in {@code m^-3•°C^-1}
+     */
+    double slope() {
+        return slope;
+    }
+
+    /**
+     * @param temperature the temperature in {@code °C}
+     * @return the volume in {@code m^-3} at the given temperature or {@link Double#NaN} if undefined.
+     */
+    double volumeAt(final double temperature) {
+        if (solid == null) {
+            final double v = intercept + slope * temperature;
+            return v > 0 ? v : Double.NaN;
+        }
+        if (Double.isNaN(temperature) || Double.isInfinite(temperature)) {
+            return Double.NaN;
+        }
+        final Number v = solid.volume(temperature);
+        return v != null ? v.doubleValue() : Double.NaN;
+    }
+}
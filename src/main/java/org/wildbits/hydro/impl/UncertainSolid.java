@@ -0,0 +1,146 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A solid whose components have uncertain volumes and masses.
+ * <p>
+ * The volume of a component expands linearly with the temperature, {@code V(T) = V • (1 + β • (T - T0))} with
+ * {@code V} the sampled volume at the reference temperature
+ * {@link ThermalHomogeneousSolid#REFERENCE_TEMPERATURE T0} and {@code β} its volumetric thermal expansion
+ * coefficient, zero unless given to the {@link Builder}.
+ */
+public class UncertainSolid {
+
+    /**
+     * The reference temperature of the sampled volumes in {@code °C}.
+     */
+    private static final double T0 = ThermalHomogeneousSolid.REFERENCE_TEMPERATURE.doubleValue();
+
+    private final Distribution[] volumes, masses;
+
+    private final double[] expansions;
+
+    private UncertainSolid(@Nonnull final List<Distribution> volumes, @Nonnull final List<Distribution> masses,
+                           @Nonnull final List<Double> expansions) {
+        this.volumes = volumes.toArray(new Distribution[volumes.size()]);
+        this.masses = masses.toArray(new Distribution[masses.size()]);
+        this.expansions = new double[expansions.size()];
+        for (int i = 0 ; i < this.expansions.length ; i++) {
+            this.expansions[i] = expansions.get(i);
+        }
+    }
+
+    /**
+     * @return the number of components.
+     */
+    public int size() {
+        return volumes.length;
+    }
+
+    /**
+     * Draw the volume and mass of each component, in order, and return the buoyancy of the resulting solid at the
+     * reference temperature.
+     * @param ρ the density of the liquid containing the solid in {@code kg•m^-3}.
+     * @param random the source of randomness.
+     * @return the resulting buoyancy in {@code kg}.
+     */
+    public double buoyancyIn(final double ρ, @Nonnull final SplittableRandom random) {
+        return buoyancyIn(ρ, T0, random);
+    }
+
+    /**
+     * Draw the volume and mass of each component, in order, and return the buoyancy of the resulting solid.
+     * @param ρ the density of the liquid containing the solid in {@code kg•m^-3}.
+     * @param temperature the temperature of the solid in {@code °C}
+     * @param random the source of randomness.
+     * @return the resulting buoyancy in {@code kg}.
+     */
+    public double buoyancyIn(final double ρ, final double temperature, @Nonnull final SplittableRandom random) {
+        final double dt = temperature - T0;
+        double σv = 0, σm = 0;
+        for (int i = 0 ; i < volumes.length ; i++) {
+            σv += volumes[i].sample(random) * (1 + expansions[i] * dt);
+            σm += masses[i].sample(random);
+        }
+        return ρ * σv - σm;
+    }
+
+    /**
+     * Builder for {@link UncertainSolid} instances.
+     */
+    public static class Builder {
+
+        private final List<Distribution> volumes = new ArrayList<Distribution>();
+
+        private final List<Distribution> masses = new ArrayList<Distribution>();
+
+        private final List<Double> expansions = new ArrayList<Double>();
+
+        public Builder() {}
+
+        /**
+         * Add an uncertain component to the solid being built.
+         * @param volume the distribution of the volume in {@code m^-3}
+         * @param mass the distribution of the mass in {@code kg}
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder add(@Nonnull final Distribution volume, @Nonnull final Distribution mass) {
+            return add(volume, mass, 0);
+        }
+
+        /**
+         * Add an uncertain component expanding with the temperature to the solid being built.
+         * @param volume the distribution of the volume in {@code m^-3} at the reference temperature
+         * @param mass the distribution of the mass in {@code kg}
+         * @param expansion the volumetric thermal expansion coefficient in {@code °C^-1}
+         * @return {@code this}
+         * @throws IllegalArgumentException if the expansion coefficient is not finite.
+         */
+        @Nonnull
+        public Builder add(@Nonnull final Distribution volume, @Nonnull final Distribution mass,
+                           final double expansion)
+                throws IllegalArgumentException {
+            if (Double.isNaN(expansion) || Double.isInfinite(expansion)) {
+                throw new IllegalArgumentException("the expansion coefficient " + expansion + " is not finite");
+            }
+            volumes.add(volume);
+            masses.add(mass);
+            expansions.add(expansion);
+            return this;
+        }
+
+        /**
+         * @return a new {@link UncertainSolid} instance containing the added components.
+         * @throws IllegalArgumentException if no component has been added
+         */
+        @Nonnull
+        public UncertainSolid build()
+                throws IllegalArgumentException {
+            if (volumes.isEmpty()) {
+                throw new IllegalArgumentException("no volume/mass pair is defined");
+            }
+            return new UncertainSolid(volumes, masses, expansions);
+        }
+    }
+}
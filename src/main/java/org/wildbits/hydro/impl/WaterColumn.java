@@ -0,0 +1,241 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+
+import org.wildbits.hydro.CompressibleSolid;
+import org.wildbits.hydro.DensityProfile;
+import org.wildbits.hydro.DoubleSolid;
+import org.wildbits.hydro.Solid;
+import org.wildbits.hydro.ThermalSolid;
+
+/**
+ * A stratified water column built from temperature and salinity samples at increasing depths.
+ * <p>
+ * The density at each sample is computed once with the Eq. 8 model ({@link DoubleSeawaterImpl}). The densities and
+ * temperatures are interpolated linearly in depth between the samples. Above the shallowest sample they are the
+ * values of that sample, below the deepest sample they are undefined. The absolute hydrostatic pressure is
+ * integrated exactly over the interpolated density and tabulated at the samples as well.
+ * <p>
+ * The lookups locate the layer containing the depth by binary search, in {@code O(log n)}. A {@link Cursor} starts
+ * from the layer of its previous lookup and is {@code O(1)} amortized along a monotonic descent or ascent.
+ */
+public class WaterColumn implements DensityProfile {
+
+    private final double[] depths, temperatures, densities, pressures;
+
+    /**
+     * @param depths the depths of the samples in {@code m}, strictly increasing and not negative.
+     * @param temperatures the temperatures in {@code °C}, at the same index as the corresponding depth.
+     * @param salinities the salinities in {@code kg/kg}, at the same index as the corresponding depth.
+     * @throws IllegalArgumentException if no sample is given, the arrays lengths differ or the depths are not
+     *                                  strictly increasing.
+     */
+    public WaterColumn(@Nonnull final double[] depths, @Nonnull final double[] temperatures,
+                       @Nonnull final double[] salinities) {
+        final int n = depths.length;
+        if (n == 0 || temperatures.length != n || salinities.length != n) {
+            throw new IllegalArgumentException("invalid samples");
+        }
+        for (int i = 0 ; i < n ; i++) {
+            if (!(depths[i] >= 0) || (i > 0 && !(depths[i] > depths[i - 1]))) {
+                throw new IllegalArgumentException("depths must be strictly increasing and not negative");
+            }
+        }
+        this.depths = depths.clone();
+        this.temperatures = temperatures.clone();
+        densities = new double[n];
+        DoubleSeawaterImpl.density(temperatures, salinities, densities);
+        pressures = new double[n];
+        pressures[0] = CompressibleSolid.ATMOSPHERIC_PRESSURE + CompressibleSolid.GRAVITY * densities[0] * depths[0];
+        for (int i = 1 ; i < n ; i++) {
+            pressures[i] = pressures[i - 1] + CompressibleSolid.GRAVITY * (densities[i - 1] + densities[i]) / 2
+                    * (depths[i] - depths[i - 1]);
+        }
+    }
+
+    /**
+     * @return the number of samples.
+     */
+    public int size() {
+        return depths.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double densityAt(final double depth) {
+        return density(layer(depth), depth);
+    }
+
+    /**
+     * @param depth the depth in {@code m}
+     * @return the temperature in {@code °C} at the given depth or {@link Double#NaN} if undefined.
+     */
+    public double temperatureAt(final double depth) {
+        return temperature(layer(depth), depth);
+    }
+
+    /**
+     * @param depth the depth in {@code m}
+     * @return the absolute hydrostatic pressure in {@code Pa} at the given depth or {@link Double#NaN} if undefined.
+     */
+    public double pressureAt(final double depth) {
+        return pressure(layer(depth), depth);
+    }
+
+    /**
+     * @param solid the solid fully immersed in the water column.
+     * @param depth the depth of the solid in {@code m}
+     * @return the buoyancy of the solid in {@code kg} at the given depth or {@link Double#NaN} if undefined. The
+     *         volume of a {@link CompressibleSolid} is taken at the hydrostatic pressure of the depth and the volume
+     *         of a {@link ThermalSolid} at the temperature of the depth.
+     */
+    public double buoyancy(@Nonnull final Solid<? extends Number> solid, final double depth) {
+        return buoyancy(solid, layer(depth), depth);
+    }
+
+    /**
+     * @return a new cursor over the water column, starting at the surface.
+     */
+    @Nonnull
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Lookups starting from the layer of the previous lookup. A cursor is not thread safe.
+     */
+    public final class Cursor implements DensityProfile {
+
+        private int layer = -1;
+
+        private Cursor() {}
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double densityAt(final double depth) {
+            return density(move(depth), depth);
+        }
+
+        /**
+         * @see WaterColumn#temperatureAt(double)
+         */
+        public double temperatureAt(final double depth) {
+            return temperature(move(depth), depth);
+        }
+
+        /**
+         * @see WaterColumn#pressureAt(double)
+         */
+        public double pressureAt(final double depth) {
+            return pressure(move(depth), depth);
+        }
+
+        /**
+         * @see WaterColumn#buoyancy(Solid, double)
+         */
+        public double buoyancy(@Nonnull final Solid<? extends Number> solid, final double depth) {
+            return WaterColumn.this.buoyancy(solid, move(depth), depth);
+        }
+
+        private int move(final double depth) {
+            if (!(depth >= 0)) {
+                return Integer.MIN_VALUE;
+            }
+            int i = layer;
+            while (i >= 0 && depth < depths[i]) {
+                i--;
+            }
+            while (i < depths.length - 1 && depth >= depths[i + 1]) {
+                i++;
+            }
+            return layer = i;
+        }
+    }
+
+    /**
+     * @return the index of the deepest sample not deeper than the depth, {@code -1} above the shallowest sample or
+     *         {@link Integer#MIN_VALUE} if the depth is invalid.
+     */
+    private int layer(final double depth) {
+        if (!(depth >= 0)) {
+            return Integer.MIN_VALUE;
+        }
+        final int i = Arrays.binarySearch(depths, depth);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    private double density(final int layer, final double depth) {
+        return interpolate(densities, layer, depth);
+    }
+
+    private double temperature(final int layer, final double depth) {
+        return interpolate(temperatures, layer, depth);
+    }
+
+    /**
+     * @return the sampled values interpolated linearly at the depth of the layer.
+     */
+    private double interpolate(@Nonnull final double[] values, final int layer, final double depth) {
+        if (layer == Integer.MIN_VALUE) {
+            return Double.NaN;
+        }
+        if (layer < 0) {
+            return values[0];
+        }
+        if (layer == depths.length - 1) {
+            return depth == depths[layer] ? values[layer] : Double.NaN;
+        }
+        final double f = (depth - depths[layer]) / (depths[layer + 1] - depths[layer]);
+        return values[layer] + f * (values[layer + 1] - values[layer]);
+    }
+
+    private double pressure(final int layer, final double depth) {
+        if (layer == Integer.MIN_VALUE) {
+            return Double.NaN;
+        }
+        if (layer < 0) {
+            return CompressibleSolid.ATMOSPHERIC_PRESSURE + CompressibleSolid.GRAVITY * densities[0] * depth;
+        }
+        final double ρ = density(layer, depth);
+        return pressures[layer] + CompressibleSolid.GRAVITY * (densities[layer] + ρ) / 2 * (depth - depths[layer]);
+    }
+
+    private double buoyancy(@Nonnull final Solid<? extends Number> solid, final int layer, final double depth) {
+        final double ρ = density(layer, depth);
+        if (solid instanceof CompressibleSolid) {
+            final CompressibleSolid compressible = (CompressibleSolid) solid;
+            return ρ * compressible.volumeAt(pressure(layer, depth)) - compressible.mass();
+        }
+        if (solid instanceof ThermalSolid) {
+            final double temperature = temperature(layer, depth);
+            if (Double.isNaN(ρ) || Double.isNaN(temperature)) {
+                return Double.NaN;
+            }
+            final Number buoyancy = ((ThermalSolid<? extends Number>) solid).buoyancy(ρ, temperature);
+            return buoyancy != null ? buoyancy.doubleValue() : Double.NaN;
+        }
+        final DoubleSolid doubleSolid = DoubleHomogeneousSolid.of(solid);
+        return doubleSolid.buoyancyIn(ρ);
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.data;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import static org.wildbits.data.Utils.big;
+
+public class FixedPointTest {
+
+    @Test
+    public void testValueOf() {
+        Assert.assertEquals(20500000L, FixedPoint.valueOf(big("20.5"), FixedPoint.TEMPERATURE_SCALE));
+        Assert.assertEquals(20500000L, FixedPoint.valueOf(20.5, FixedPoint.TEMPERATURE_SCALE));
+        Assert.assertEquals(20000000L, FixedPoint.valueOf(20L, FixedPoint.TEMPERATURE_SCALE));
+        Assert.assertEquals(2L, FixedPoint.valueOf(big("0.0000025"), FixedPoint.TEMPERATURE_SCALE));
+        Assert.assertEquals(big("20.500000"), FixedPoint.toBigDecimal(20500000L, FixedPoint.TEMPERATURE_SCALE));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testValueOfOverflow() {
+        FixedPoint.valueOf(big("1e20"), FixedPoint.VOLUME_SCALE);
+    }
+
+    @Test
+    public void testRescale() {
+        Assert.assertEquals(1234000L, FixedPoint.rescale(1234L, 3, 6));
+        Assert.assertEquals(12L, FixedPoint.rescale(1250L, 5, 3));
+        Assert.assertEquals(14L, FixedPoint.rescale(1350L, 5, 3));
+        Assert.assertEquals(-12L, FixedPoint.rescale(-1250L, 5, 3));
+        Assert.assertEquals(-13L, FixedPoint.rescale(-1251L, 5, 3));
+    }
+
+    @Test
+    public void testMulDiv() {
+        Random random = new Random(42);
+        for (int i = 0 ; i < 100000 ; i++) {
+            long a = random.nextLong() >> random.nextInt(64);
+            long b = random.nextLong() >> random.nextInt(64);
+            long c = random.nextLong() >> random.nextInt(63);
+            if (c == 0 || a == Long.MIN_VALUE || b == Long.MIN_VALUE || c == Long.MIN_VALUE) {
+                continue;
+            }
+            BigInteger expected = new BigDecimal(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)))
+                    .divide(new BigDecimal(c), 0, RoundingMode.HALF_EVEN).toBigIntegerExact();
+            if (expected.bitLength() < 64) {
+                Assert.assertEquals(expected.longValue(), FixedPoint.mulDiv(a, b, c));
+            } else {
+                try {
+                    FixedPoint.mulDiv(a, b, c);
+                    Assert.fail("overflow not detected for " + a + " * " + b + " / " + c);
+                } catch (ArithmeticException e) {
+                    // expected
+                }
+            }
+        }
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testMulDivByZero() {
+        FixedPoint.mulDiv(1, 1, 0);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testMulDivUndefined() {
+        FixedPoint.mulDiv(FixedPoint.UNDEFINED, 1, 1);
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.data;
+
+import java.math.BigDecimal;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import static org.wildbits.data.Utils.big;
+
+public class PrecisionTest {
+
+    @Test
+    public void testSignificantDigits() {
+        Assert.assertEquals(big("0.3333333"), Precision.DECIMAL32.divide(big("1"), big("3")));
+        Assert.assertEquals(big("0.3333333333333333"), Precision.DECIMAL64.divide(big("1"), big("3")));
+        Assert.assertEquals(big("1.234568"), Precision.DECIMAL32.multiply(big("1.111111"), big("1.1111111")));
+        Assert.assertEquals(big("1000000"), Precision.DECIMAL32.add(big("999999.9"), big("0.1")));
+    }
+
+    @Test
+    public void testFixed() {
+        Precision fixed = Precision.fixed(4);
+        Assert.assertEquals(big("0.3333"), fixed.divide(big("1"), big("3")));
+        Assert.assertEquals(big("0.0002"), fixed.multiply(big("0.0125"), big("0.0125")));
+        Assert.assertEquals(big("1.0000"), fixed.add(big("0.99995"), big("0")));
+        Assert.assertEquals(big("2.0000"), fixed.subtract(big("3"), big("1")));
+    }
+
+    @Test
+    public void testExact() {
+        BigDecimal product = Precision.EXACT.multiply(big("1.111111"), big("1.1111111"));
+        Assert.assertEquals(big("1.2345677654321"), product);
+        Assert.assertEquals(big("0.25"), Precision.EXACT.divide(big("1"), big("4")));
+        Assert.assertEquals(Precision.DECIMAL128.divide(big("1"), big("3")), Precision.EXACT.divide(big("1"), big("3")));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testExactDivideByZero() {
+        Precision.EXACT.divide(big("1"), BigDecimal.ZERO);
+    }
+
+    @Test
+    public void testValueOf() {
+        for (Precision precision : new Precision[]{
+                Precision.DECIMAL32, Precision.DECIMAL64, Precision.DECIMAL128, Precision.EXACT, Precision.fixed(12)}) {
+            Assert.assertEquals(precision, Precision.valueOf(precision.toString()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValueOfUnknown() {
+        Precision.valueOf("FIXED:x");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeScale() {
+        Precision.fixed(-1);
+    }
+}
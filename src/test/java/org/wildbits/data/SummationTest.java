@@ -0,0 +1,89 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.data;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+public class SummationTest {
+
+    @Test
+    public void testEmpty() throws Exception {
+        Assert.assertEquals(BigDecimal.ZERO, Summation.sum(new BigDecimal[0]));
+        Assert.assertEquals(0.0, Summation.sum(new double[0]));
+    }
+
+    @Test
+    public void testExactSum() throws Exception {
+        Random random = new Random(42);
+        BigDecimal[] values = new BigDecimal[100000];
+        BigDecimal expected = BigDecimal.ZERO;
+        for (int i = 0 ; i < values.length ; i++) {
+            values[i] = BigDecimal.valueOf(random.nextLong(), random.nextInt(20));
+            expected = expected.add(values[i]);
+        }
+        Assert.assertEquals(expected, Summation.sum(values));
+        Assert.assertEquals(expected, Summation.sum(values, new ForkJoinPool(1)));
+        Assert.assertEquals(expected, Summation.sum(values, new ForkJoinPool(7)));
+    }
+
+    @Test
+    public void testCompensatedSum() throws Exception {
+        double[] values = new double[3 * 10000];
+        for (int i = 0 ; i < values.length ; i += 3) {
+            values[i] = 1e16;
+            values[i + 1] = 1.0;
+            values[i + 2] = -1e16;
+        }
+        double naive = 0;
+        for (double value : values) {
+            naive += value;
+        }
+        Assert.assertEquals(10000.0, Summation.sum(values));
+        Assert.assertFalse(naive == 10000.0);
+    }
+
+    @Test
+    public void testCompensatedSumAccuracy() throws Exception {
+        Random random = new Random(7);
+        double[] values = new double[200000];
+        BigDecimal[] exact = new BigDecimal[values.length];
+        for (int i = 0 ; i < values.length ; i++) {
+            values[i] = random.nextDouble() * Math.pow(10, random.nextInt(12) - 6) * (random.nextBoolean() ? 1 : -1);
+            exact[i] = new BigDecimal(values[i]);
+        }
+        double expected = Summation.sum(exact).doubleValue();
+        Assert.assertEquals(expected, Summation.sum(values), Math.ulp(expected));
+    }
+
+    @Test
+    public void testDeterministic() throws Exception {
+        Random random = new Random(3);
+        double[] values = new double[123457];
+        for (int i = 0 ; i < values.length ; i++) {
+            values[i] = random.nextGaussian() * 1e8;
+        }
+        double sum = Summation.sum(values, new ForkJoinPool(1));
+        for (int parallelism = 2 ; parallelism <= 8 ; parallelism *= 2) {
+            Assert.assertEquals(Double.doubleToLongBits(sum),
+                    Double.doubleToLongBits(Summation.sum(values, new ForkJoinPool(parallelism))));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.wildbits.hydro.DoubleSolid;
+import org.wildbits.hydro.Solid;
+
+import static org.wildbits.data.Utils.big;
+
+public class BallastAssemblyTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testTotals() throws Exception {
+        BallastAssembly assembly = new BallastAssembly(new double[]{1, 3, 0.5}, new double[]{2, 4, 100});
+        Assert.assertEquals(3, assembly.size());
+        Assert.assertEquals(4.5, assembly.volume(), DELTA);
+        Assert.assertEquals(106.0, assembly.mass(), DELTA);
+        Assert.assertEquals((2 * 2.0 + 4 * 4.0 / 3 + 100 * 200.0) / 106, assembly.density(), DELTA);
+        Assert.assertEquals(4394.0, assembly.buoyancyIn(1000), DELTA);
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        BallastAssembly assembly = new BallastAssembly(new double[]{1, 3, 0.5}, new double[]{2, 4, 100});
+        assembly.setMass(2, 350);
+        assembly.setVolume(0, 2);
+        Assert.assertEquals(350.0, assembly.mass(2), 0.0);
+        Assert.assertEquals(2.0, assembly.volume(0), 0.0);
+        Assert.assertEquals(5.5, assembly.volume(), DELTA);
+        Assert.assertEquals(356.0, assembly.mass(), DELTA);
+        Assert.assertEquals(5144.0, assembly.buoyancyIn(1000), DELTA);
+    }
+
+    @Test
+    public void testNoDrift() throws Exception {
+        Random random = new Random(7);
+        int size = 37;
+        double[] volumes = new double[size], masses = new double[size];
+        BallastAssembly assembly = new BallastAssembly(volumes, masses);
+        for (int i = 0 ; i < 100000 ; i++) {
+            int index = random.nextInt(size);
+            volumes[index] = random.nextDouble();
+            masses[index] = 1000 * random.nextDouble();
+            assembly.setVolume(index, volumes[index]);
+            assembly.setMass(index, masses[index]);
+        }
+        BallastAssembly fresh = new BallastAssembly(volumes, masses);
+        Assert.assertEquals(fresh.volume(), assembly.volume(), 0.0);
+        Assert.assertEquals(fresh.mass(), assembly.mass(), 0.0);
+    }
+
+    @Test
+    public void testSnapshot() throws Exception {
+        BallastAssembly assembly = BallastAssembly.of(Arrays.<Solid<? extends Number>>asList(
+                new HomogeneousSolid(big("1"), big("2")), new DoubleHomogeneousSolid(3, 4)));
+        DoubleSolid snapshot = assembly.snapshot();
+        assembly.setMass(1, 40);
+        Assert.assertEquals(4.0, snapshot.volume(), DELTA);
+        Assert.assertEquals(6.0, snapshot.mass(), DELTA);
+        Assert.assertEquals(3994.0, snapshot.buoyancyIn(1000), DELTA);
+        Assert.assertEquals(42.0, assembly.snapshot().mass(), DELTA);
+        Assert.assertTrue(BallastAssembly.of(Arrays.asList(new DoubleHomogeneousSolid(1, 2))).snapshot()
+                instanceof DoubleHomogeneousSolid);
+    }
+
+    @Test
+    public void testSnapshotDensity() throws Exception {
+        BallastAssembly assembly = new BallastAssembly(new double[]{1, 3, 0.5}, new double[]{2, 4, 100});
+        Assert.assertEquals(assembly.snapshot().densityAt(20), assembly.density(), DELTA);
+        assembly.setMass(2, 350);
+        assembly.setVolume(0, 2);
+        Assert.assertEquals(assembly.snapshot().densityAt(20), assembly.density(), DELTA);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutOfBounds() throws Exception {
+        new BallastAssembly(new double[]{1, 2, 3}, new double[]{1, 2, 3}).setMass(3, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDifferentLengths() throws Exception {
+        new BallastAssembly(new double[]{1, 2}, new double[]{1});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmpty() throws Exception {
+        new BallastAssembly(new double[0], new double[0]);
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.wildbits.hydro.Solid;
+
+public class BallastOptimizerTest {
+
+    private static final double ρ = 1000;
+
+    private final Solid<Double> hull = new DoubleSolidBuilderImpl().add(2, 1500).build();
+
+    @Test
+    @SuppressWarnings("ConstantConditions")
+    public void testBruteForce() throws Exception {
+        Random random = new Random(3);
+        List<Solid<Double>> catalog = new ArrayList<Solid<Double>>();
+        for (int i = 0 ; i < 14 ; i++) {
+            catalog.add(random.nextBoolean()
+                    ? new DoubleHomogeneousSolid(0.001 * random.nextInt(20), 20 + random.nextInt(100))
+                    : new DoubleHomogeneousSolid(0.001 * (100 + random.nextInt(300)), 1 + random.nextInt(20)));
+        }
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            BallastOptimizer optimizer = new BallastOptimizer(0.5, 1 << 20, pool);
+            for (double target = -400 ; target <= 1200 ; target += 100) {
+                BallastOptimizer.Selection selection = optimizer.optimize(hull, catalog, ρ, target - 5, target + 5);
+                double expected = bruteForce(catalog, target - 5, target + 5);
+                if (Double.isInfinite(expected)) {
+                    Assert.assertNull(selection);
+                } else {
+                    Assert.assertEquals(expected, selection.mass(), 1e-9);
+                    Assert.assertTrue(selection.buoyancy() >= target - 5 - 1e-6);
+                    Assert.assertTrue(selection.buoyancy() <= target + 5 + 1e-6);
+                    Assert.assertEquals(selection.buoyancy() >= target - 5 && selection.buoyancy() <= target + 5,
+                            selection.withinBand());
+                    if (selection.ballast() != null) {
+                        Assert.assertEquals(selection.mass(), selection.ballast().mass().doubleValue(), 1e-9);
+                        Assert.assertEquals(selection.indices().size(), selection.ballast() instanceof CompositeSolid
+                                ? ((CompositeSolid) selection.ballast()).solids().size() : 1);
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(timeout = 10000)
+    @SuppressWarnings("ConstantConditions")
+    public void testOneSidedBand() throws Exception {
+        List<Solid<Double>> catalog = Arrays.<Solid<Double>>asList(new DoubleHomogeneousSolid(0.01, 60),
+                new DoubleHomogeneousSolid(0.02, 300), new DoubleHomogeneousSolid(0.3, 5));
+        BallastOptimizer optimizer = new BallastOptimizer(0.01);
+        BallastOptimizer.Selection selection = optimizer.optimize(hull, catalog, 1025, -1e9, 0);
+        Assert.assertNull(selection);
+        Solid<Double> light = new DoubleSolidBuilderImpl().add(2, 2020).build();
+        selection = optimizer.optimize(light, catalog, 1025, -1e9, 0);
+        Assert.assertEquals(Arrays.asList(0), selection.indices());
+        Assert.assertTrue(selection.withinBand());
+        selection = optimizer.optimize(light, catalog, 1025, Double.NEGATIVE_INFINITY, 0);
+        Assert.assertEquals(Arrays.asList(0), selection.indices());
+        selection = optimizer.optimize(hull, catalog, 1025, 0, Double.POSITIVE_INFINITY);
+        Assert.assertTrue(selection.indices().isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("ConstantConditions")
+    public void testNoBallastNeeded() throws Exception {
+        BallastOptimizer.Selection selection = new BallastOptimizer(1).optimize(hull,
+                Arrays.asList(new DoubleHomogeneousSolid(0, 10)), ρ, 400, 600);
+        Assert.assertTrue(selection.indices().isEmpty());
+        Assert.assertNull(selection.ballast());
+        Assert.assertEquals(500.0, selection.buoyancy(), 1e-9);
+        Assert.assertEquals(500.0, new BallastOptimizer(1).optimize(hull,
+                new ArrayList<Solid<Double>>(), ρ, 400, 600).buoyancy(), 1e-9);
+    }
+
+    @Test
+    @SuppressWarnings("ConstantConditions")
+    public void testSingleComponent() throws Exception {
+        BallastOptimizer optimizer = new BallastOptimizer(1);
+        List<Solid<Double>> catalog = Arrays.<Solid<Double>>asList(new DoubleHomogeneousSolid(0, 500));
+        Assert.assertEquals(Arrays.asList(0), optimizer.optimize(hull, catalog, ρ, -10, 10).indices());
+        Assert.assertNull(optimizer.optimize(hull, catalog, ρ, 100, 200));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyCells() throws Exception {
+        new BallastOptimizer(0.001, 1000, ForkJoinPool.commonPool()).optimize(hull,
+                Arrays.asList(new DoubleHomogeneousSolid(0, 10)), ρ, 0, 1);
+    }
+
+    private static double bruteForce(List<Solid<Double>> catalog, double min, double max) {
+        double best = Double.POSITIVE_INFINITY;
+        for (int mask = 0 ; mask < 1 << catalog.size() ; mask++) {
+            double buoyancy = 2 * ρ - 1500, mass = 0;
+            for (int i = 0 ; i < catalog.size() ; i++) {
+                if ((mask & 1 << i) != 0) {
+                    buoyancy += ρ * catalog.get(i).volume() - catalog.get(i).mass();
+                    mass += catalog.get(i).mass();
+                }
+            }
+            if (buoyancy >= min - 1e-6 && buoyancy <= max + 1e-6) {
+                best = Math.min(best, mass);
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+public class BoundedCacheTest {
+
+    @Test
+    public void testLru() throws Exception {
+        BoundedCache<String, String> cache = new BoundedCache<String, String>(2, BoundedCache.Eviction.LRU);
+        cache.putIfAbsent("a", "1");
+        cache.putIfAbsent("b", "2");
+        Assert.assertEquals("1", cache.get("a"));
+        cache.putIfAbsent("c", "3");
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals("1", cache.get("a"));
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals("3", cache.get("c"));
+    }
+
+    @Test
+    public void testFifo() throws Exception {
+        BoundedCache<String, String> cache = new BoundedCache<String, String>(2, BoundedCache.Eviction.FIFO);
+        cache.putIfAbsent("a", "1");
+        cache.putIfAbsent("b", "2");
+        Assert.assertEquals("1", cache.get("a"));
+        cache.putIfAbsent("c", "3");
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNull(cache.get("a"));
+        Assert.assertEquals("2", cache.get("b"));
+    }
+
+    @Test
+    public void testSecondChance() throws Exception {
+        BoundedCache<String, String> cache = new BoundedCache<String, String>(3, BoundedCache.Eviction.LRU);
+        cache.putIfAbsent("a", "1");
+        cache.putIfAbsent("b", "2");
+        cache.putIfAbsent("c", "3");
+        Assert.assertEquals("2", cache.get("b"));
+        cache.putIfAbsent("d", "4");
+        Assert.assertNull(cache.get("a"));
+        cache.putIfAbsent("e", "5");
+        Assert.assertEquals(3, cache.size());
+        Assert.assertNull(cache.get("c"));
+        Assert.assertEquals("2", cache.get("b"));
+        Assert.assertEquals("4", cache.get("d"));
+        Assert.assertEquals("5", cache.get("e"));
+    }
+
+    @Test
+    public void testPutIfAbsent() throws Exception {
+        BoundedCache<String, String> cache = new BoundedCache<String, String>(2, BoundedCache.Eviction.LRU);
+        Assert.assertEquals("1", cache.putIfAbsent("a", "1"));
+        Assert.assertEquals("1", cache.putIfAbsent("a", "2"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() throws Exception {
+        new BoundedCache<String, String>(0, BoundedCache.Eviction.LRU);
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.Arrays;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.wildbits.hydro.CompressibleSolid;
+import org.wildbits.hydro.DoubleSolid;
+
+public class BuoyancyCurveTest {
+
+    private static final double ρ = 1025;
+
+    private final DoubleSolid rigid = new DoubleHomogeneousSolid(0.01, 30);
+
+    private final GasSolid gas = new GasSolid(0.02, 0.5);
+
+    private final FoamSolid foam = new FoamSolid(0.005, 1, 5e6);
+
+    @Test
+    public void testGasSolid() throws Exception {
+        Assert.assertEquals(0.02, gas.volumeAt(CompressibleSolid.ATMOSPHERIC_PRESSURE), 1e-15);
+        Assert.assertEquals(0.01, gas.volumeAt(2 * CompressibleSolid.ATMOSPHERIC_PRESSURE), 1e-15);
+        Assert.assertTrue(Double.isNaN(gas.volumeAt(0)));
+        Assert.assertEquals(0.02, gas.volume(), 0);
+    }
+
+    @Test
+    public void testFoamSolid() throws Exception {
+        Assert.assertEquals(0.005, foam.volumeAt(CompressibleSolid.ATMOSPHERIC_PRESSURE), 1e-15);
+        Assert.assertEquals(0.0045, foam.volumeAt(CompressibleSolid.ATMOSPHERIC_PRESSURE + 5e5), 1e-15);
+        Assert.assertTrue(Double.isNaN(foam.volumeAt(CompressibleSolid.ATMOSPHERIC_PRESSURE + 5e6)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidModulus() throws Exception {
+        new FoamSolid(1, 1, 0);
+    }
+
+    @Test
+    public void testCompositeVolume() throws Exception {
+        DoubleCompositeSolid composite = new DoubleCompositeSolid(Arrays.asList(rigid, gas, foam));
+        double pressure = BuoyancyCurve.pressure(10, ρ);
+        Assert.assertEquals(0.01 + gas.volumeAt(pressure) + foam.volumeAt(pressure), composite.volumeAt(pressure),
+                1e-15);
+        Assert.assertEquals(0.035, composite.volume(), 1e-15);
+    }
+
+    @Test
+    public void testBuoyancyCurve() throws Exception {
+        DoubleCompositeSolid composite = new DoubleCompositeSolid(Arrays.asList(rigid, gas, foam));
+        BuoyancyCurve curve = composite.buoyancyCurve(ρ, 200, 1e-6);
+        Assert.assertTrue(curve.segments() > 1);
+        Assert.assertEquals(composite.buoyancyIn(ρ), curve.buoyancyAt(0), 1e-9);
+        for (double depth = 0 ; depth <= 200 ; depth += 0.173) {
+            double pressure = BuoyancyCurve.pressure(depth, ρ);
+            double expected = ρ * composite.volumeAt(pressure) - composite.mass();
+            Assert.assertEquals(expected, curve.exactBuoyancyAt(depth), 1e-9);
+            Assert.assertEquals(expected, curve.buoyancyAt(depth), 1e-6);
+        }
+        Assert.assertEquals(curve.exactBuoyancyAt(200), curve.buoyancyAt(200), 1e-6);
+        Assert.assertTrue(Double.isNaN(curve.buoyancyAt(-1)));
+        Assert.assertTrue(Double.isNaN(curve.buoyancyAt(200.1)));
+    }
+
+    @Test
+    public void testLinearCurve() throws Exception {
+        DoubleCompositeSolid composite = new DoubleCompositeSolid(Arrays.asList(rigid, foam));
+        BuoyancyCurve curve = composite.buoyancyCurve(ρ, 100, 1e-9);
+        Assert.assertEquals(1, curve.segments());
+        Assert.assertEquals(curve.exactBuoyancyAt(37.5), curve.buoyancyAt(37.5), 1e-9);
+    }
+
+    @Test
+    public void testCrushedFoamCurve() throws Exception {
+        FoamSolid crushable = new FoamSolid(0.02, 5, 1e6);
+        DoubleCompositeSolid composite = new DoubleCompositeSolid(Arrays.asList(
+                new DoubleHomogeneousSolid(0.01, 20), crushable));
+        BuoyancyCurve curve = composite.buoyancyCurve(ρ, 200, 1e-6);
+        Assert.assertTrue(curve.segments() < 100);
+        Assert.assertEquals(curve.exactBuoyancyAt(50), curve.buoyancyAt(50), 1e-6);
+        Assert.assertEquals(curve.exactBuoyancyAt(99), curve.buoyancyAt(99), 1e-6);
+        Assert.assertTrue(Double.isNaN(curve.exactBuoyancyAt(105)));
+        Assert.assertTrue(Double.isNaN(curve.buoyancyAt(105)));
+        Assert.assertTrue(Double.isNaN(curve.buoyancyAt(200)));
+    }
+
+    @Test
+    public void testHomogeneousCurve() throws Exception {
+        BuoyancyCurve curve = new BuoyancyCurve(gas, ρ, 50, 1e-6);
+        Assert.assertEquals(ρ * gas.volumeAt(BuoyancyCurve.pressure(10, ρ)) - 0.5, curve.buoyancyAt(10), 1e-6);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCurve() throws Exception {
+        new BuoyancyCurve(rigid, ρ, 0, 1e-6);
+    }
+}
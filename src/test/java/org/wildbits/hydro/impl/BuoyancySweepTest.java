@@ -0,0 +1,115 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.math.BigDecimal;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.wildbits.hydro.Solid;
+
+import static org.wildbits.data.Utils.big;
+
+public class BuoyancySweepTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testBuoyancy() throws Exception {
+        Solid<BigDecimal> solid = new SolidBuilderImpl().add(big("1"), big("1000")).add(big("0.1"), big("1500")).build();
+        BuoyancySweep.Axis salinities = new BuoyancySweep.Axis(0, 0.2, 0.01);
+        BuoyancySweep.Axis temperatures = new BuoyancySweep.Axis(-5, 185, 0.5);
+        Assert.assertEquals(21, salinities.size());
+        Assert.assertEquals(381, temperatures.size());
+        double[][] buoyancy = new BuoyancySweep(solid).buoyancy(salinities, temperatures);
+        for (int r = 0 ; r < salinities.size() ; r++) {
+            DoubleSeawaterImpl seawater = new DoubleSeawaterImpl(salinities.get(r));
+            for (int c = 0 ; c < temperatures.size() ; c++) {
+                double ρ = seawater.densityAt(temperatures.get(c));
+                Assert.assertEquals(ρ * 1.1 - 2500, buoyancy[r][c], DELTA);
+            }
+        }
+    }
+
+    @Test
+    public void testNeutralContour() throws Exception {
+        DoubleHomogeneousSolid solid = new DoubleHomogeneousSolid(1, 1030);
+        BuoyancySweep.Axis salinities = new BuoyancySweep.Axis(0, 0.15, 0.005);
+        BuoyancySweep.Axis temperatures = new BuoyancySweep.Axis(0, 179, 0.25);
+        double[] contour = new BuoyancySweep(solid).neutralContour(salinities, temperatures);
+        for (int r = 0 ; r < salinities.size() ; r++) {
+            DoubleSeawaterImpl seawater = new DoubleSeawaterImpl(salinities.get(r));
+            if (seawater.densityAt(0) < 1030) {
+                Assert.assertTrue(Double.isNaN(contour[r]));
+            } else {
+                Assert.assertEquals(1030, seawater.densityAt(contour[r]), 0.01);
+            }
+        }
+    }
+
+    @Test
+    public void testThermalSolid() throws Exception {
+        SolidBuilderImpl builder = new SolidBuilderImpl().add(big("1"), big("1000"), big("0.0001"));
+        Solid<BigDecimal> solid = builder.add(big("0.1"), big("1500")).build();
+        BuoyancySweep.Axis salinities = new BuoyancySweep.Axis(0, 0.1, 0.05);
+        BuoyancySweep.Axis temperatures = new BuoyancySweep.Axis(0, 100, 5);
+        double[][] buoyancy = new BuoyancySweep(solid).buoyancy(salinities, temperatures);
+        for (int r = 0 ; r < salinities.size() ; r++) {
+            DoubleSeawaterImpl seawater = new DoubleSeawaterImpl(salinities.get(r));
+            for (int c = 0 ; c < temperatures.size() ; c++) {
+                double t = temperatures.get(c), ρ = seawater.densityAt(t);
+                Assert.assertEquals(ρ * (1 + 0.0001 * (t - 20) + 0.1) - 2500, buoyancy[r][c], DELTA);
+            }
+        }
+        ThermalHomogeneousSolid thermal = new ThermalHomogeneousSolid(big("1"), big("1000"), big("0.0005"));
+        double[] contour = new BuoyancySweep(thermal).neutralContour(salinities, new BuoyancySweep.Axis(0, 100, 0.25));
+        for (int r = 0 ; r < salinities.size() ; r++) {
+            double t = contour[r];
+            if (!Double.isNaN(t)) {
+                double ρ = new DoubleSeawaterImpl(salinities.get(r)).densityAt(t);
+                Assert.assertEquals(0, ρ * (1 + 0.0005 * (t - 20)) - 1000, 0.01);
+            }
+        }
+        Assert.assertFalse(Double.isNaN(contour[0]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidAxis() throws Exception {
+        new BuoyancySweep.Axis(1, 0, 0.1);
+    }
+
+    @Test
+    public void testAxisSize() throws Exception {
+        int max = BuoyancySweep.Axis.MAX_SIZE;
+        Assert.assertEquals(max, new BuoyancySweep.Axis(0, max - 1, 1).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAxisTooLarge() throws Exception {
+        new BuoyancySweep.Axis(0, 1e12, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInfiniteAxis() throws Exception {
+        new BuoyancySweep.Axis(0, Double.POSITIVE_INFINITY, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyCells() throws Exception {
+        BuoyancySweep.Axis axis = new BuoyancySweep.Axis(0, 1e5, 1);
+        new BuoyancySweep(new DoubleHomogeneousSolid(1, 1000)).buoyancy(axis, axis);
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.wildbits.hydro.DensityService;
+
+import static org.wildbits.data.Utils.big;
+
+public class CoalescingDensityServiceTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testDensity() throws Exception {
+        CoalescingDensityServiceImpl service = new CoalescingDensityServiceImpl();
+        try {
+            Assert.assertEquals(new DoubleSeawaterImpl(0.08).densityAt(20.5), service.density(0.08, 20.5).get(), DELTA);
+            Assert.assertNull(service.density(0.2, 20.5).get());
+            Assert.assertNull(service.density(0.08, 200).get());
+        } finally {
+            service.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeSalinity() throws Exception {
+        CoalescingDensityServiceImpl service = new CoalescingDensityServiceImpl();
+        try {
+            service.density(-0.01, 20);
+        } finally {
+            service.close();
+        }
+    }
+
+    @Test
+    public void testBuoyancy() throws Exception {
+        CoalescingDensityServiceImpl service = new CoalescingDensityServiceImpl();
+        try {
+            HomogeneousSolid solid = new HomogeneousSolid(big("1"), big("1000"));
+            double ρ = new DoubleSeawaterImpl(0.04).densityAt(10);
+            Assert.assertEquals(ρ - 1000, service.buoyancy(solid, 0.04, 10).get(), DELTA);
+            Assert.assertNull(service.buoyancy(solid, 0.04, -1).get());
+        } finally {
+            service.close();
+        }
+    }
+
+    @Test
+    public void testCoalescing() throws Exception {
+        CoalescingDensityServiceImpl service = new CoalescingDensityServiceImpl(4, 1, TimeUnit.HOURS,
+                ForkJoinPool.commonPool());
+        try {
+            CompletableFuture<Double> first = service.density(0.03, 10);
+            CompletableFuture<Double> duplicate = service.density(0.03, 10);
+            Assert.assertSame(first, duplicate);
+            service.density(0.03, 11);
+            service.density(0.01, 12);
+            Assert.assertFalse(first.isDone());
+            CompletableFuture<Double> last = service.density(0.02, 13);
+            Assert.assertEquals(new DoubleSeawaterImpl(0.02).densityAt(13), last.get(), DELTA);
+            Assert.assertEquals(new DoubleSeawaterImpl(0.03).densityAt(10), first.get(), DELTA);
+            DensityService.Statistics statistics = service.statistics();
+            Assert.assertEquals(1, statistics.batches());
+            Assert.assertEquals(5, statistics.requests());
+            Assert.assertEquals(4, statistics.keys());
+            Assert.assertEquals(4, statistics.maxBatchSize());
+            Assert.assertEquals(4.0, statistics.meanBatchSize(), DELTA);
+            Assert.assertTrue(statistics.maxLatency() > 0);
+        } finally {
+            service.close();
+        }
+    }
+
+    @Test
+    public void testWindow() throws Exception {
+        CoalescingDensityServiceImpl service = new CoalescingDensityServiceImpl(1000, 5, TimeUnit.MILLISECONDS,
+                ForkJoinPool.commonPool());
+        try {
+            Assert.assertEquals(new DoubleSeawaterImpl(0.05).densityAt(25),
+                    service.density(0.05, 25).get(10, TimeUnit.SECONDS), DELTA);
+            Assert.assertEquals(new DoubleSeawaterImpl(0.05).densityAt(26),
+                    service.density(0.05, 26).get(10, TimeUnit.SECONDS), DELTA);
+            Assert.assertEquals(2, service.statistics().batches());
+        } finally {
+            service.close();
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        CoalescingDensityServiceImpl service = new CoalescingDensityServiceImpl(1000, 1, TimeUnit.HOURS,
+                ForkJoinPool.commonPool());
+        CompletableFuture<Double> future = service.density(0.05, 25);
+        service.density(0.05, 25);
+        Assert.assertEquals(0, service.statistics().requests());
+        service.close();
+        Assert.assertEquals(new DoubleSeawaterImpl(0.05).densityAt(25), future.get(10, TimeUnit.SECONDS), DELTA);
+        Assert.assertEquals(2, service.statistics().requests());
+    }
+
+    @Test
+    public void testConcurrentRequests() throws Exception {
+        final CoalescingDensityServiceImpl service = new CoalescingDensityServiceImpl(64, 1, TimeUnit.MILLISECONDS,
+                ForkJoinPool.commonPool());
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int c = 0 ; c < 8 ; c++) {
+                final int client = c;
+                results.add(clients.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        for (int i = 0 ; i < 500 ; i++) {
+                            double s = 0.001 * ((i + client) % 100), t = (i * 7) % 90;
+                            double expected = new DoubleSeawaterImpl(s).densityAt(t);
+                            if (Math.abs(expected - service.density(s, t).get(10, TimeUnit.SECONDS)) > DELTA) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+            DensityService.Statistics statistics = service.statistics();
+            Assert.assertEquals(4000, statistics.requests());
+            Assert.assertTrue(statistics.keys() <= statistics.requests());
+            Assert.assertTrue(statistics.maxBatchSize() <= 64);
+        } finally {
+            clients.shutdown();
+            service.close();
+        }
+    }
+}
@@ -17,11 +17,15 @@ package org.wildbits.hydro.impl;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import junit.framework.Assert;
 import org.junit.Test;
+import org.wildbits.data.Precision;
 import org.wildbits.hydro.Solid;
+import org.wildbits.hydro.ThermalSolid;
 
 import static org.wildbits.data.Utils.big;
 
@@ -48,8 +52,9 @@ public class CompositeSolidTest {
     @Test
     public void testDensity() throws Exception {
         BigDecimal temperature = big("0.0");
-        BigDecimal density = solid1.mass().divide(compositeSolid.mass(), MathContext.DECIMAL128).multiply(solid1.density(temperature))
-                .add(solid2.mass().divide(compositeSolid.mass(), MathContext.DECIMAL128).multiply(solid2.density(temperature)));
+        MathContext mc = MathContext.DECIMAL128;
+        BigDecimal density = solid1.mass().divide(compositeSolid.mass(), mc).multiply(solid1.density(temperature), mc)
+                .add(solid2.mass().divide(compositeSolid.mass(), mc).multiply(solid2.density(temperature), mc), mc);
         Assert.assertEquals(density, compositeSolid.density(big("0.0")));
         Assert.assertEquals(density, compositeSolid.density(big("100.0")));
         Assert.assertEquals(density, compositeSolid.density(big("10000.0")));
@@ -59,4 +64,116 @@ public class CompositeSolidTest {
     public void testBuoyancy() throws Exception {
         Assert.assertEquals(big("3994"), compositeSolid.buoyancy(big("1000")));
     }
+
+    @Test
+    public void testNested() throws Exception {
+        HomogeneousSolid solid3 = new HomogeneousSolid(big("5"), big("6"));
+        Solid<BigDecimal> nested = new CompositeSolid(Arrays.<Solid<BigDecimal>>asList(compositeSolid, solid3));
+        Solid<BigDecimal> flat = new CompositeSolid(Arrays.<Solid<BigDecimal>>asList(solid1, solid2, solid3));
+        Assert.assertEquals(big("9"), nested.volume());
+        Assert.assertEquals(big("12"), nested.mass());
+        Assert.assertEquals(flat.density(big("0.0")), nested.density(big("0.0")));
+        Assert.assertEquals(flat.buoyancy(big("1000")), nested.buoyancy(big("1000")));
+    }
+
+    @Test
+    public void testTemperatureDependentDensity() throws Exception {
+        Solid<BigDecimal> water = new CompositeSolid(Arrays.<Solid<BigDecimal>>asList(solid1, new VariableSolid()));
+        Assert.assertEquals(0, big("1001").compareTo(water.density(big("0.0"))));
+        Assert.assertEquals(0, big("1011").compareTo(water.density(big("10.0"))));
+    }
+
+    @Test
+    public void testLargeComposite() throws Exception {
+        List<Solid<BigDecimal>> solids = new ArrayList<Solid<BigDecimal>>();
+        BigDecimal volume = BigDecimal.ZERO, mass = BigDecimal.ZERO;
+        for (int i = 1 ; i <= 50000 ; i++) {
+            BigDecimal v = BigDecimal.valueOf(i, 6), m = BigDecimal.valueOf(3L * i, 4);
+            solids.add(new HomogeneousSolid(v, m));
+            volume = volume.add(v);
+            mass = mass.add(m);
+        }
+        Solid<BigDecimal> composite = new CompositeSolid(solids, Precision.EXACT);
+        Assert.assertEquals(volume, composite.volume());
+        Assert.assertEquals(mass, composite.mass());
+    }
+
+    @Test
+    public void testThermalExpansion() throws Exception {
+        ThermalHomogeneousSolid aluminium = new ThermalHomogeneousSolid(big("0.01"), big("27"), big("0.000069"));
+        ThermalHomogeneousSolid foam = new ThermalHomogeneousSolid(big("0.2"), big("50"), big("0.00015"), big("0"),
+                Precision.DECIMAL128);
+        CompositeSolid composite = new CompositeSolid(Arrays.<Solid<BigDecimal>>asList(aluminium, foam, solid1));
+        for (String temperature : new String[]{"2", "20", "30"}) {
+            BigDecimal t = big(temperature);
+            BigDecimal volume = aluminium.volume(t).add(foam.volume(t)).add(solid1.volume());
+            Assert.assertEquals(0, volume.compareTo(composite.volume(t)));
+            Assert.assertEquals(0, volume.multiply(big("1025")).subtract(big("79"))
+                    .compareTo(composite.buoyancy(big("1025"), t)));
+        }
+        Assert.assertEquals(big("1.21"), composite.volume());
+        Assert.assertTrue(composite.density(big("2")).compareTo(composite.density(big("30"))) > 0);
+        Assert.assertEquals(composite.density(big("30")), composite.density(big("30.0")));
+        for (String temperature : new String[]{"2", "30"}) {
+            BigDecimal t = big(temperature);
+            Assert.assertEquals(0, big("79").divide(composite.volume(t), MathContext.DECIMAL128)
+                    .compareTo(composite.density(t)));
+        }
+    }
+
+    @Test
+    public void testNonLinearExpansion() throws Exception {
+        ThermalSolid<BigDecimal> square = new SquareSolid();
+        CompositeSolid composite = new CompositeSolid(Arrays.<Solid<BigDecimal>>asList(solid1, square));
+        Assert.assertEquals(0, big("102").compareTo(composite.volume(big("10"))));
+        Assert.assertEquals(0, big("0").compareTo(composite.buoyancy(big("1"), big("10"))));
+    }
+
+    /**
+     * A solid made of {@code 1 m^3} at {@code 0 °C} weighing {@code 100 kg} whose volume grows with the square
+     * of the temperature.
+     */
+    private static class SquareSolid extends VariableSolid implements ThermalSolid<BigDecimal> {
+
+        @Override
+        public BigDecimal mass() {
+            return big("100");
+        }
+
+        @Override
+        public BigDecimal volume(Number temperature) {
+            return BigDecimal.ONE.add(big(temperature).pow(2));
+        }
+
+        @Override
+        public BigDecimal buoyancy(Number ρ, Number temperature) {
+            return big(ρ).multiply(volume(temperature)).subtract(mass());
+        }
+    }
+
+    /**
+     * A solid made of {@code 1 m^3} weighing {@code 2 kg} whose density grows with the temperature.
+     */
+    private static class VariableSolid implements Solid<BigDecimal> {
+
+        @Override
+        public BigDecimal volume() {
+            return BigDecimal.ONE;
+        }
+
+        @Override
+        public BigDecimal mass() {
+            return big("2");
+        }
+
+        @Override
+        public BigDecimal density(Number temperature) {
+            return big("2000").add(big(temperature).multiply(big("2")));
+        }
+
+        @Override
+        public BigDecimal buoyancy(Number ρ) {
+            return big(ρ).subtract(mass());
+        }
+    }
 }
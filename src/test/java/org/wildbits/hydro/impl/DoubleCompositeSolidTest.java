@@ -0,0 +1,55 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.Arrays;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.wildbits.hydro.DoubleSolid;
+
+public class DoubleCompositeSolidTest {
+
+    private static final double DELTA = 1e-12;
+
+    private final DoubleSolid solid1 = new DoubleHomogeneousSolid(1, 2), solid2 = new DoubleHomogeneousSolid(3, 4);
+
+    private final DoubleSolid compositeSolid = new DoubleCompositeSolid(Arrays.asList(solid1, solid2));
+
+    @Test
+    public void testGetVolume() throws Exception {
+        Assert.assertEquals(4.0, compositeSolid.volume(), DELTA);
+    }
+
+    @Test
+    public void testGetMass() throws Exception {
+        Assert.assertEquals(6.0, compositeSolid.mass(), DELTA);
+    }
+
+    @Test
+    public void testDensity() throws Exception {
+        double density = 2.0 / 6.0 * 2.0 + 4.0 / 6.0 * (4.0 / 3.0);
+        Assert.assertEquals(density, compositeSolid.densityAt(0.0), DELTA);
+        Assert.assertEquals(density, compositeSolid.densityAt(100.0), DELTA);
+        Assert.assertEquals(density, compositeSolid.density(10000.0), DELTA);
+    }
+
+    @Test
+    public void testBuoyancy() throws Exception {
+        Assert.assertEquals(3994.0, compositeSolid.buoyancyIn(1000), DELTA);
+        Assert.assertEquals(3994.0, compositeSolid.buoyancy(1000), DELTA);
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.wildbits.hydro.DoubleSaltedLiquid;
+
+import static org.wildbits.data.Utils.big;
+
+public class DoubleSeawaterTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    @SuppressWarnings("ConstantConditions")
+    public void testDensity() throws Exception {
+        for (String salinity : new String[]{"0.0", "0.035", "0.08", "0.159"}) {
+            SeawaterImpl exact = new SeawaterImpl(big(salinity));
+            DoubleSaltedLiquid fast = new DoubleSeawaterImpl(Double.parseDouble(salinity));
+            for (int t = 0 ; t < 180 ; t += 5) {
+                double expected = exact.density(big(Integer.toString(t))).doubleValue();
+                Assert.assertEquals(expected, fast.densityAt(t), DELTA);
+                Assert.assertEquals(expected, fast.density(t), DELTA);
+            }
+        }
+    }
+
+    @Test
+    public void testBulkDensity() throws Exception {
+        double[] temperatures = {-0.5, 0.0, 10.0, 20.5, 179.9, 180.0, Double.NaN};
+        double[] salinities = {0.08, 0.08, 0.0, 0.159, 0.08, 0.08, 0.08};
+        double[] out = new double[temperatures.length];
+        DoubleSeawaterImpl liquid = new DoubleSeawaterImpl(0.08);
+        liquid.density(temperatures, out);
+        for (int i = 0 ; i < temperatures.length ; i++) {
+            Assert.assertEquals(liquid.densityAt(temperatures[i]), out[i], 0.0);
+        }
+        DoubleSeawaterImpl.density(temperatures, salinities, out);
+        for (int i = 0 ; i < temperatures.length ; i++) {
+            Assert.assertEquals(new DoubleSeawaterImpl(salinities[i]).densityAt(temperatures[i]), out[i], DELTA);
+        }
+        Assert.assertTrue(Double.isNaN(out[0]));
+        Assert.assertTrue(Double.isNaN(out[5]));
+        Assert.assertTrue(Double.isNaN(out[6]));
+        DoubleSeawaterImpl.density(new double[]{20.0}, new double[]{0.2}, out);
+        Assert.assertTrue(Double.isNaN(out[0]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBulkDensityShortOutput() {
+        new DoubleSeawaterImpl(0.08).density(new double[4], new double[3]);
+    }
+
+    @Test
+    public void testSalinityOutOfRange() {
+        DoubleSaltedLiquid salinityTooHigh = new DoubleSeawaterImpl(0.2);
+        Assert.assertTrue(Double.isNaN(salinityTooHigh.densityAt(20.0)));
+        Assert.assertNull(salinityTooHigh.density(20.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeSalinity() {
+        new DoubleSeawaterImpl(-1.0);
+    }
+
+    @Test
+    public void testTemperatureOutOfRange() {
+        DoubleSaltedLiquid liquid = new DoubleSeawaterImpl(0.1);
+        Assert.assertTrue(Double.isNaN(liquid.densityAt(-0.5)));
+        Assert.assertTrue(Double.isNaN(liquid.densityAt(185.0)));
+        Assert.assertTrue(Double.isNaN(liquid.densityAt(Double.NaN)));
+        Assert.assertNull(liquid.density(185.0));
+    }
+
+    @Test
+    public void testDerivatives() {
+        double h = 1e-6;
+        for (double s : new double[]{0.0, 0.035, 0.08, 0.159}) {
+            DoubleSeawaterImpl liquid = new DoubleSeawaterImpl(s);
+            for (int t = 5 ; t < 175 ; t += 10) {
+                double dt = (DoubleSeawaterImpl.density(t + h, s) - DoubleSeawaterImpl.density(t - h, s)) / (2 * h);
+                double ds = (DoubleSeawaterImpl.density(t, s + h) - DoubleSeawaterImpl.density(t, s - h)) / (2 * h);
+                Assert.assertEquals(dt, liquid.dDensityDt(t), 1e-4);
+                Assert.assertEquals(ds, liquid.dDensityDs(t), 1e-3);
+            }
+        }
+        Assert.assertTrue(Double.isNaN(new DoubleSeawaterImpl(0.08).dDensityDt(180.0)));
+        Assert.assertTrue(Double.isNaN(new DoubleSeawaterImpl(0.2).dDensityDs(20.0)));
+    }
+
+    @Test
+    public void testSalinity() {
+        for (double t = 0 ; t < 180 ; t += 7.5) {
+            for (double salinity = 0 ; salinity < 0.16 ; salinity += 0.01) {
+                double ρ = new DoubleSeawaterImpl(salinity).densityAt(t);
+                Assert.assertEquals(salinity, DoubleSeawaterImpl.salinity(ρ, t), 1e-12);
+            }
+        }
+        Assert.assertTrue(Double.isNaN(DoubleSeawaterImpl.salinity(new DoubleSeawaterImpl(0).densityAt(20) - 1, 20)));
+        Assert.assertTrue(Double.isNaN(DoubleSeawaterImpl.salinity(DoubleSeawaterImpl.density(20, 0.2), 20)));
+        Assert.assertTrue(Double.isNaN(DoubleSeawaterImpl.salinity(1030, 180)));
+        Assert.assertTrue(Double.isNaN(DoubleSeawaterImpl.salinity(1030, Double.NaN)));
+        Assert.assertTrue(Double.isNaN(DoubleSeawaterImpl.salinity(Double.NaN, 20)));
+    }
+
+    @Test
+    public void testBulkSalinity() {
+        double[] temperatures = {0.0, 4.0, 20.5, 20.5, 179.9, 180.0};
+        double[] densities = {1000, 1030, 1050, 900, 1000, 1000};
+        double[] out = new double[temperatures.length];
+        DoubleSeawaterImpl.salinity(densities, temperatures, out);
+        for (int i = 0 ; i < out.length ; i++) {
+            Assert.assertEquals(Double.doubleToLongBits(DoubleSeawaterImpl.salinity(densities[i], temperatures[i])),
+                    Double.doubleToLongBits(out[i]));
+        }
+        Assert.assertEquals(1050, new DoubleSeawaterImpl(out[2]).densityAt(20.5), DELTA);
+        Assert.assertTrue(Double.isNaN(out[3]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBulkSalinityShortOutput() {
+        DoubleSeawaterImpl.salinity(new double[4], new double[4], new double[3]);
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.wildbits.hydro.DoubleSolid;
+
+import static org.wildbits.data.Utils.big;
+
+public class DoubleSolidBuilderImplTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmpty() throws Exception {
+        new DoubleSolidBuilderImpl().build();
+    }
+
+    @Test
+    public void testBuildHomogeneousSolid() throws Exception {
+        DoubleSolid solid = new DoubleSolidBuilderImpl().add(30, 40).build();
+        Assert.assertTrue(solid instanceof DoubleHomogeneousSolid);
+        Assert.assertEquals(-10.0, solid.buoyancyIn(1.0), 0.0);
+    }
+
+    @Test
+    public void testBuildCompositeSolid() throws Exception {
+        DoubleSolid solid = new DoubleSolidBuilderImpl()
+                .add(big("30"), big("40"))
+                .add(50, 60).build();
+        Assert.assertTrue(solid instanceof DoubleCompositeSolid);
+        Assert.assertEquals(80.0, solid.volume(), 0.0);
+        Assert.assertEquals(100.0, solid.mass(), 0.0);
+    }
+
+}
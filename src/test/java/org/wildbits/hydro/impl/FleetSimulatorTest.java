@@ -0,0 +1,164 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.wildbits.hydro.DensityProfile;
+
+public class FleetSimulatorTest {
+
+    /**
+     * A stratified water column whose density is undefined below {@code 800 m}.
+     */
+    private static final DensityProfile PROFILE = new DensityProfile() {
+        @Override
+        public double densityAt(double depth) {
+            return depth < 800 ? 1020 + 0.01 * depth : Double.NaN;
+        }
+    };
+
+    private final FleetSimulator simulator = new FleetSimulator(PROFILE, 1000);
+
+    @Test
+    public void testNeutralDepth() throws Exception {
+        FleetSimulator.Fleet fleet = new FleetSimulator.Fleet();
+        int body = fleet.add(new DoubleHomogeneousSolid(0.03, 1021 * 0.03), 0.05, 0.5, 0, 0);
+        Events events = new Events();
+        simulator.run(fleet, 3600, 0.5, 0, events);
+        Assert.assertEquals(FleetSimulator.Event.NEUTRAL, events.events.get(body));
+        Assert.assertEquals(100, events.depths.get(body), 0.5);
+        Assert.assertEquals(100, fleet.depth(body), 1);
+        Assert.assertEquals(0, fleet.velocity(body), 0.01);
+        Assert.assertFalse(fleet.stopped(body));
+        Assert.assertEquals(3600.0, fleet.time());
+    }
+
+    @Test
+    public void testStops() throws Exception {
+        FleetSimulator.Fleet fleet = new FleetSimulator.Fleet();
+        int light = fleet.add(new DoubleHomogeneousSolid(0.03, 25), 0.05, 0.5, 50, 0);
+        int heavy = fleet.add(new DoubleHomogeneousSolid(0.03, 40), 0.05, 0.5, 700, 0);
+        Events events = new Events();
+        simulator.run(fleet, 3600, 0.5, 0, events);
+        Assert.assertEquals(FleetSimulator.Event.SURFACED, events.events.get(light));
+        Assert.assertEquals(0.0, fleet.depth(light));
+        Assert.assertTrue(fleet.stopped(light));
+        Assert.assertEquals(FleetSimulator.Event.UNDEFINED, events.events.get(heavy));
+        Assert.assertTrue(fleet.stopped(heavy));
+
+        fleet.setBallast(light, -0.01);
+        Assert.assertFalse(fleet.stopped(light));
+        FleetSimulator shallow = new FleetSimulator(PROFILE, 750);
+        shallow.run(fleet, 3600, 0.5, 0, events);
+        Assert.assertEquals(FleetSimulator.Event.GROUNDED, events.events.get(light));
+        Assert.assertEquals(750.0, fleet.depth(light));
+    }
+
+    @Test
+    public void testBallast() throws Exception {
+        FleetSimulator.Fleet fleet = new FleetSimulator.Fleet();
+        int body = fleet.add(new DoubleHomogeneousSolid(0.03, 1021 * 0.03), 0.05, 0.5, 100, 0);
+        fleet.setBallast(body, 0.001);
+        Events events = new Events();
+        simulator.run(fleet, 3600, 0.5, 0, events);
+        Assert.assertEquals(FleetSimulator.Event.SURFACED, events.events.get(body));
+    }
+
+    @Test
+    public void testCompressibleFloat() throws Exception {
+        // the gas float is neutral at 2 m and unstable: lighter above, heavier below
+        GasSolid gas = new GasSolid(0.03, 1);
+        double mass = PROFILE.densityAt(2) * gas.volumeAt(BuoyancyCurve.pressure(2, PROFILE.densityAt(2)));
+        FleetSimulator.Fleet fleet = new FleetSimulator.Fleet();
+        int above = fleet.add(new GasSolid(0.03, mass), 0.05, 0.5, 1, 0);
+        int below = fleet.add(new GasSolid(0.03, mass), 0.05, 0.5, 3, 0);
+        Events events = new Events();
+        new FleetSimulator(PROFILE, 750).run(fleet, 3600, 0.5, 0, events);
+        Assert.assertEquals(FleetSimulator.Event.SURFACED, events.events.get(above));
+        Assert.assertEquals(FleetSimulator.Event.GROUNDED, events.events.get(below));
+    }
+
+    @Test
+    public void testThermalFloat() throws Exception {
+        // the float is light at the 20 °C reference temperature and heavy once contracted in the 0 °C water
+        WaterColumn column = new WaterColumn(new double[] {0, 1000}, new double[] {0, 0}, new double[] {0.035, 0.035});
+        ThermalHomogeneousSolid solid = new ThermalHomogeneousSolid(0.03, column.densityAt(500) * 0.03 * 0.99, 0.001);
+        FleetSimulator.Fleet fleet = new FleetSimulator.Fleet();
+        int body = fleet.add(solid, 0.05, 0.5, 500, 0);
+        Events events = new Events();
+        new FleetSimulator(column, 750).run(fleet, 3600, 0.5, 0, events);
+        Assert.assertEquals(FleetSimulator.Event.GROUNDED, events.events.get(body));
+        Assert.assertEquals(750.0, fleet.depth(body));
+    }
+
+    @Test
+    public void testTrajectories() throws Exception {
+        FleetSimulator.Fleet fleet = new FleetSimulator.Fleet();
+        fleet.add(new DoubleHomogeneousSolid(0.03, 1021 * 0.03), 0.05, 0.5, 0, 0);
+        final AtomicInteger positions = new AtomicInteger();
+        simulator.run(fleet, 100, 0.5, 10, new FleetSimulator.Observer() {
+            @Override
+            public void position(int body, double time, double depth, double velocity) {
+                positions.incrementAndGet();
+            }
+        });
+        Assert.assertEquals(20, positions.get());
+    }
+
+    @Test
+    public void testParallelFleet() throws Exception {
+        FleetSimulator.Fleet fleet = new FleetSimulator.Fleet();
+        FleetSimulator.Fleet single = new FleetSimulator.Fleet();
+        for (int i = 0 ; i < 2000 ; i++) {
+            fleet.add(new DoubleHomogeneousSolid(0.03, (1020 + i * 0.001) * 0.03), 0.05, 0.5, 0, 0);
+        }
+        single.add(new DoubleHomogeneousSolid(0.03, (1020 + 1234 * 0.001) * 0.03), 0.05, 0.5, 0, 0);
+        new FleetSimulator(PROFILE, 1000, new ForkJoinPool(4)).run(fleet, 600, 1, 0, new Events());
+        simulator.run(single, 600, 1, 0, new Events());
+        Assert.assertEquals(2000, fleet.size());
+        Assert.assertEquals(single.depth(0), fleet.depth(1234));
+        Assert.assertEquals(single.velocity(0), fleet.velocity(1234));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidStep() throws Exception {
+        simulator.run(new FleetSimulator.Fleet(), 10, 0, 0, new Events());
+    }
+
+    /**
+     * Keep the last event and the depth of the first {@link FleetSimulator.Event#NEUTRAL} event of each float.
+     */
+    private static class Events extends FleetSimulator.Observer {
+
+        private final Map<Integer, FleetSimulator.Event> events = new ConcurrentHashMap<Integer, FleetSimulator.Event>();
+
+        private final Map<Integer, Double> depths = new ConcurrentHashMap<Integer, Double>();
+
+        @Override
+        public void event(int body, FleetSimulator.Event event, double time, double depth) {
+            if (event == FleetSimulator.Event.NEUTRAL || !events.containsKey(body)) {
+                depths.put(body, depth);
+            }
+            events.put(body, event);
+        }
+    }
+}
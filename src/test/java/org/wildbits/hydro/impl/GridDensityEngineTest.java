@@ -0,0 +1,71 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.nio.FloatBuffer;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GridDensityEngineTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testDensityAndBuoyancy() throws Exception {
+        GridFile field = GridFile.create(folder.newFile("field").toPath(), 2, 7, 5, 3);
+        GridFile out = GridFile.create(folder.newFile("out").toPath(), 2, 7, 5, 3);
+        try {
+            int cells = (int) field.cells();
+            FloatBuffer temperatures = field.map(0, 0, cells), salinities = field.map(1, 0, cells);
+            for (int i = 0 ; i < cells ; i++) {
+                temperatures.put(i, i * 2 - 10);
+                salinities.put(i, i % 3 == 0 ? Float.NaN : i * 0.002F);
+            }
+            GridDensityEngine engine = new GridDensityEngine(ForkJoinPool.commonPool(), 8);
+            engine.density(field, 0, field, 1, out, 0);
+            engine.buoyancy(new DoubleHomogeneousSolid(2, 2000), field, 0, field, 1, out, 1);
+            FloatBuffer densities = out.map(0, 0, cells), buoyancies = out.map(1, 0, cells);
+            for (int i = 0 ; i < cells ; i++) {
+                double s = salinities.get(i);
+                double expected = s < 0.16 ? new DoubleSeawaterImpl(s).densityAt(temperatures.get(i)) : Double.NaN;
+                Assert.assertEquals((float) expected, densities.get(i));
+                Assert.assertEquals((float) (expected * 2 - 2000), buoyancies.get(i));
+            }
+            Assert.assertTrue(Float.isNaN(densities.get(0)));
+            Assert.assertFalse(Float.isNaN(densities.get(10)));
+        } finally {
+            field.close();
+            out.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDifferentGrids() throws Exception {
+        GridFile field = GridFile.create(folder.newFile("field").toPath(), 2, 7, 5, 3);
+        GridFile out = GridFile.create(folder.newFile("out").toPath(), 1, 7, 5, 2);
+        try {
+            new GridDensityEngine().density(field, 0, field, 1, out, 0);
+        } finally {
+            field.close();
+            out.close();
+        }
+    }
+}
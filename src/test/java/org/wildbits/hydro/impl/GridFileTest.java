@@ -0,0 +1,77 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import junit.framework.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GridFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCreateAndOpen() throws Exception {
+        Path path = folder.newFile("grid").toPath();
+        GridFile grid = GridFile.create(path, 2, 3, 4, 5);
+        try {
+            Assert.assertEquals(60, grid.cells());
+            Assert.assertEquals(GridFile.HEADER + 2 * 60 * 4, Files.size(path));
+            FloatBuffer plane = grid.map(1, 0, 60);
+            for (int i = 0 ; i < 60 ; i++) {
+                plane.put(i, i * 0.5F);
+            }
+        } finally {
+            grid.close();
+        }
+        grid = GridFile.open(path, false);
+        try {
+            Assert.assertEquals(2, grid.planes());
+            Assert.assertEquals(3, grid.latitudes());
+            Assert.assertEquals(4, grid.longitudes());
+            Assert.assertEquals(5, grid.depths());
+            Assert.assertEquals(0.0F, grid.map(0, 10, 1).get(0));
+            long index = grid.index(2, 1, 3);
+            Assert.assertEquals(index * 0.5F, grid.map(1, index, 1).get(0));
+        } finally {
+            grid.close();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidFile() throws Exception {
+        Path path = folder.newFile("invalid").toPath();
+        Files.write(path, new byte[128]);
+        GridFile.open(path, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWindowOutOfGrid() throws Exception {
+        GridFile grid = GridFile.create(folder.newFile("grid").toPath(), 1, 2, 2, 2);
+        try {
+            grid.map(0, 4, 5);
+        } finally {
+            grid.close();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+public class HistogramTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testAdd() throws Exception {
+        Histogram histogram = new Histogram(0, 10, 10);
+        for (int i = 0 ; i < 100 ; i++) {
+            histogram.add(i / 10.0);
+        }
+        histogram.add(-1);
+        histogram.add(10);
+        histogram.add(Double.NaN);
+        Assert.assertEquals(102, histogram.count());
+        Assert.assertEquals(1, histogram.underflow());
+        Assert.assertEquals(1, histogram.overflow());
+        Assert.assertEquals(1, histogram.undefined());
+        Assert.assertEquals(10, histogram.count(3));
+        Assert.assertEquals(-1.0, histogram.min(), 0.0);
+        Assert.assertEquals(10.0, histogram.max(), 0.0);
+        Assert.assertEquals(504.0 / 102, histogram.mean(), DELTA);
+    }
+
+    @Test
+    public void testQuantile() throws Exception {
+        Histogram histogram = new Histogram(0, 100, 100);
+        for (int i = 0 ; i < 1000 ; i++) {
+            histogram.add(i / 10.0 + 0.05);
+        }
+        Assert.assertEquals(50.0, histogram.quantile(0.5), 0.1);
+        Assert.assertEquals(90.0, histogram.quantile(0.9), 0.1);
+        Assert.assertEquals(0.05, histogram.quantile(0), DELTA);
+        Assert.assertEquals(99.95, histogram.quantile(1), DELTA);
+        Assert.assertTrue(Double.isNaN(new Histogram(0, 1, 1).quantile(0.5)));
+    }
+
+    @Test
+    public void testMerge() throws Exception {
+        Histogram all = new Histogram(-5, 5, 20), left = all.empty(), right = all.empty();
+        for (int i = 0 ; i < 1000 ; i++) {
+            double value = Math.sin(i) * 6;
+            all.add(value);
+            (i % 3 == 0 ? left : right).add(value);
+        }
+        left.merge(right);
+        Assert.assertEquals(all.count(), left.count());
+        Assert.assertEquals(all.underflow(), left.underflow());
+        Assert.assertEquals(all.overflow(), left.overflow());
+        for (int bin = 0 ; bin < all.bins() ; bin++) {
+            Assert.assertEquals(all.count(bin), left.count(bin));
+        }
+        Assert.assertEquals(all.mean(), left.mean(), DELTA);
+        Assert.assertEquals(all.standardDeviation(), left.standardDeviation(), DELTA);
+        Assert.assertEquals(all.min(), left.min(), 0.0);
+        Assert.assertEquals(all.max(), left.max(), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentBins() throws Exception {
+        new Histogram(0, 1, 10).merge(new Histogram(0, 1, 20));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBins() throws Exception {
+        new Histogram(1, 0, 10);
+    }
+}
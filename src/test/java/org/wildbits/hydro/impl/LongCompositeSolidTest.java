@@ -0,0 +1,87 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.wildbits.data.FixedPoint;
+import org.wildbits.hydro.LongSolid;
+import org.wildbits.hydro.Solid;
+
+import static org.wildbits.data.Utils.big;
+
+public class LongCompositeSolidTest {
+
+    private final LongSolid solid1 = new LongHomogeneousSolid(1000000000L, 2000000L),
+            solid2 = new LongHomogeneousSolid(3000000000L, 4000000L);
+
+    private final LongSolid compositeSolid = new LongCompositeSolid(Arrays.asList(solid1, solid2));
+
+    @Test
+    public void testGetVolume() throws Exception {
+        Assert.assertEquals(4000000000L, compositeSolid.fixedVolume());
+    }
+
+    @Test
+    public void testGetMass() throws Exception {
+        Assert.assertEquals(6000000L, compositeSolid.fixedMass());
+    }
+
+    @Test
+    @SuppressWarnings("ConstantConditions")
+    public void testDensity() throws Exception {
+        Assert.assertEquals(1333333L, solid2.densityAt(0L));
+        Assert.assertEquals(1555556L, compositeSolid.densityAt(0L));
+        Assert.assertEquals(1555556L, compositeSolid.densityAt(100000000L));
+        Assert.assertEquals(big("1.555556"), compositeSolid.density(10000.0));
+    }
+
+    @Test
+    @SuppressWarnings("ConstantConditions")
+    public void testBuoyancy() throws Exception {
+        Assert.assertEquals(3994000000L, compositeSolid.buoyancyIn(1000000000L));
+        Assert.assertEquals(big("3994.000000"), compositeSolid.buoyancy(1000));
+        Assert.assertEquals(big("3994.000000"), compositeSolid.buoyancy(1000L));
+        Assert.assertEquals(-1L, new LongHomogeneousSolid(1L, 1L).buoyancyIn(1L));
+    }
+
+    @Test
+    public void testNested() throws Exception {
+        LongSolid nested = new LongCompositeSolid(Arrays.asList(compositeSolid, solid1));
+        Assert.assertEquals(5000000000L, nested.fixedVolume());
+        Assert.assertEquals(8000000L, nested.fixedMass());
+        Assert.assertEquals(1666667L, nested.densityAt(0L));
+    }
+
+    @Test
+    @SuppressWarnings("ConstantConditions")
+    public void testDensityMatchesCompositeSolid() throws Exception {
+        CompositeSolid reference = new CompositeSolid(Arrays.<Solid<BigDecimal>>asList(
+                new HomogeneousSolid(BigDecimal.ONE, new BigDecimal("2")),
+                new HomogeneousSolid(new BigDecimal("3"), new BigDecimal("4"))));
+        Assert.assertEquals(reference.density(0).setScale(6, RoundingMode.HALF_EVEN),
+                FixedPoint.toBigDecimal(compositeSolid.densityAt(0L), 6));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testOverflow() throws Exception {
+        new LongCompositeSolid(Arrays.asList(new LongHomogeneousSolid(Long.MAX_VALUE, 1L), solid1));
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.wildbits.data.FixedPoint;
+import org.wildbits.data.Precision;
+import org.wildbits.hydro.LongSaltedLiquid;
+import org.wildbits.hydro.Solid;
+
+import static org.wildbits.data.Utils.big;
+
+public class LongSeawaterTest {
+
+    @Test
+    @SuppressWarnings("ConstantConditions")
+    public void testSameDigitsAsBigDecimal() throws Exception {
+        Precision precision = Precision.fixed(LongSeawaterImpl.SCALE);
+        for (String salinity : new String[]{"0", "0.035", "0.08", "0.123456789", "0.159999999"}) {
+            SeawaterImpl exact = new SeawaterImpl(big(salinity), precision);
+            LongSaltedLiquid fixed = new LongSeawaterFactoryImpl().getInstance(big(salinity));
+            for (long t = 0 ; t < 180000000L ; t += 1234567L) {
+                BigDecimal temperature = FixedPoint.toBigDecimal(t, FixedPoint.TEMPERATURE_SCALE);
+                BigDecimal expected = exact.density(temperature).setScale(FixedPoint.DENSITY_SCALE, RoundingMode.HALF_EVEN);
+                Assert.assertEquals(expected, FixedPoint.toBigDecimal(fixed.densityAt(t), FixedPoint.DENSITY_SCALE));
+                Assert.assertEquals(expected, fixed.density(temperature));
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("ConstantConditions")
+    public void testDecimalUnits() throws Exception {
+        LongSaltedLiquid fixed = new LongSeawaterFactoryImpl().getInstance(0.035);
+        Assert.assertEquals(35000000L, fixed.fixedSalinity());
+        Assert.assertEquals(0, big("0.035").compareTo(fixed.salinity()));
+        Solid<BigDecimal> solid = new LongSolidBuilderFactoryImpl().getInstance().add(1, 1000).build();
+        Solid<BigDecimal> reference = new SolidBuilderFactoryImpl().getInstance().add(1, 1000).build();
+        BigDecimal expected = reference.buoyancy(new SeawaterFactoryImpl().getInstance(0.035).density(20));
+        BigDecimal buoyancy = solid.buoyancy(fixed.density(20));
+        Assert.assertEquals(expected.doubleValue(), buoyancy.doubleValue(), 1e-6);
+        Assert.assertEquals(fixed.density(20), fixed.density(20L));
+    }
+
+    @Test
+    public void testBulkDensity() throws Exception {
+        long[] temperatures = {-1L, 0L, 20500000L, 179999999L, 180000000L};
+        long[] out = new long[temperatures.length];
+        LongSeawaterImpl liquid = new LongSeawaterImpl(80000000L);
+        liquid.density(temperatures, out);
+        for (int i = 0 ; i < temperatures.length ; i++) {
+            Assert.assertEquals(liquid.densityAt(temperatures[i]), out[i]);
+        }
+        Assert.assertEquals(FixedPoint.UNDEFINED, out[0]);
+        Assert.assertEquals(FixedPoint.UNDEFINED, out[4]);
+    }
+
+    @Test
+    public void testSalinityOutOfRange() {
+        LongSeawaterImpl liquid = new LongSeawaterImpl(160000000L);
+        Assert.assertEquals(FixedPoint.UNDEFINED, liquid.densityAt(20000000L));
+        Assert.assertNull(liquid.density(20));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeSalinity() {
+        new LongSeawaterImpl(-1L);
+    }
+
+    @Test
+    public void testTemperatureOutOfRange() {
+        LongSeawaterImpl liquid = new LongSeawaterImpl(80000000L);
+        Assert.assertNull(liquid.density(big("-0.5")));
+        Assert.assertNull(liquid.density(185.0));
+    }
+
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.math.BigDecimal;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.wildbits.hydro.LongSolid;
+import org.wildbits.hydro.Solid;
+
+import static org.wildbits.data.Utils.big;
+
+public class LongSolidBuilderImplTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmpty() throws Exception {
+        new LongSolidBuilderImpl().build();
+    }
+
+    @Test
+    public void testBuildHomogeneousSolid() throws Exception {
+        LongSolid solid = new LongSolidBuilderImpl().add(big("30"), 40.0).build();
+        Assert.assertTrue(solid instanceof LongHomogeneousSolid);
+        Assert.assertEquals(30000000000L, solid.fixedVolume());
+        Assert.assertEquals(0, big("30").compareTo(solid.volume()));
+        Assert.assertEquals(-10000000L, solid.buoyancyIn(1000000L));
+    }
+
+    @Test
+    public void testBuildCompositeSolid() throws Exception {
+        Solid<BigDecimal> solid = new LongSolidBuilderFactoryImpl().getInstance()
+                .add(big("30"), big("40"))
+                .add(50L, 60L).build();
+        Assert.assertTrue(solid instanceof LongCompositeSolid);
+        Assert.assertEquals(0, big("80").compareTo(solid.volume()));
+        Assert.assertEquals(0, big("100").compareTo(solid.mass()));
+    }
+
+    @Test
+    public void testAddFixed() throws Exception {
+        LongSolid solid = new LongSolidBuilderImpl().addFixed(50000000000L, 60000000L).add(50, 60).build();
+        Assert.assertEquals(100000000000L, solid.fixedVolume());
+        Assert.assertEquals(120000000L, solid.fixedMass());
+    }
+
+}
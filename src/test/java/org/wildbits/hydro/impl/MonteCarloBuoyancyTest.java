@@ -0,0 +1,89 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+public class MonteCarloBuoyancyTest {
+
+    private final UncertainSolid solid = new UncertainSolid.Builder()
+            .add(Distribution.normal(1, 0.001), Distribution.normal(1000, 0.5))
+            .add(Distribution.uniform(0.099, 0.101), Distribution.constant(150))
+            .build();
+
+    @Test
+    public void testReproducible() throws Exception {
+        Distribution temperature = Distribution.normal(20.5, 0.1), salinity = Distribution.normal(0.08, 0.001);
+        ForkJoinPool single = new ForkJoinPool(1), quad = new ForkJoinPool(4);
+        try {
+            Histogram h1 = new MonteCarloBuoyancy(-100, 100, 200, single).buoyancy(solid, temperature, salinity,
+                    100000, 42);
+            Histogram h2 = new MonteCarloBuoyancy(-100, 100, 200, quad).buoyancy(solid, temperature, salinity,
+                    100000, 42);
+            Assert.assertEquals(100000, h1.count());
+            for (int bin = 0 ; bin < h1.bins() ; bin++) {
+                Assert.assertEquals(h1.count(bin), h2.count(bin));
+            }
+            Assert.assertEquals(h1.mean(), h2.mean(), 0.0);
+            Assert.assertEquals(h1.standardDeviation(), h2.standardDeviation(), 0.0);
+            Histogram other = new MonteCarloBuoyancy(-100, 100, 200, single).buoyancy(solid, temperature, salinity,
+                    100000, 43);
+            Assert.assertFalse(h1.mean() == other.mean());
+        } finally {
+            single.shutdown();
+            quad.shutdown();
+        }
+    }
+
+    @Test
+    public void testDistribution() throws Exception {
+        Histogram histogram = new MonteCarloBuoyancy(-100, 100, 400).buoyancy(solid,
+                Distribution.constant(20.5), Distribution.constant(0.08), 50000, 1);
+        double ρ = DoubleSeawaterImpl.density(20.5, 0.08);
+        Assert.assertEquals(ρ * 1.1 - 1150, histogram.mean(), 0.05);
+        Assert.assertEquals(histogram.mean(), histogram.quantile(0.5), 0.5);
+        Assert.assertTrue(histogram.standardDeviation() > 0.5);
+        Assert.assertTrue(histogram.quantile(0.05) < histogram.quantile(0.95));
+    }
+
+    @Test
+    public void testThermalExpansion() throws Exception {
+        UncertainSolid thermal = new UncertainSolid.Builder()
+                .add(Distribution.constant(1), Distribution.constant(1000), 0.0001)
+                .add(Distribution.constant(0.1), Distribution.constant(150))
+                .build();
+        Histogram histogram = new MonteCarloBuoyancy(-100, 100, 400).buoyancy(thermal,
+                Distribution.constant(5), Distribution.constant(0.08), 1000, 1);
+        double ρ = DoubleSeawaterImpl.density(5, 0.08);
+        Assert.assertEquals(ρ * (1 - 0.0015 + 0.1) - 1150, histogram.mean(), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidExpansion() throws Exception {
+        new UncertainSolid.Builder().add(Distribution.constant(1), Distribution.constant(1000), Double.NaN);
+    }
+
+    @Test
+    public void testOutOfRange() throws Exception {
+        Histogram histogram = new MonteCarloBuoyancy(-100, 100, 10).buoyancy(solid,
+                Distribution.uniform(170, 190), Distribution.constant(0.08), 10000, 1);
+        Assert.assertEquals(10000, histogram.count() + histogram.undefined());
+        Assert.assertTrue(histogram.undefined() > 4000 && histogram.undefined() < 6000);
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.wildbits.hydro.Solid;
+import org.wildbits.hydro.ThermalSolid;
+
+public class NeutralBuoyancySolverTest {
+
+    private final NeutralBuoyancySolver solver = new NeutralBuoyancySolver();
+
+    @Test
+    @SuppressWarnings("ConstantConditions")
+    public void testNeutralTemperature() {
+        double salinity = 0.035;
+        double expected = 42.5;
+        Solid<Double> solid = solid(DoubleSeawaterImpl.density(expected, salinity));
+        Double temperature = solver.neutralTemperature(solid, salinity);
+        Assert.assertNotNull(temperature);
+        Assert.assertEquals(expected, temperature, 1e-9);
+        Assert.assertEquals(0.0, solid.buoyancy(new DoubleSeawaterImpl(salinity).densityAt(temperature)), 1e-9);
+    }
+
+    @Test
+    @SuppressWarnings("ConstantConditions")
+    public void testNeutralSalinity() {
+        double temperature = 20.5;
+        double expected = 0.08;
+        Solid<Double> solid = solid(DoubleSeawaterImpl.density(temperature, expected));
+        Assert.assertEquals(expected, solver.neutralSalinity(solid, temperature), 1e-12);
+    }
+
+    @Test
+    public void testNoRoot() {
+        Assert.assertNull(solver.neutralTemperature(solid(2000.0), 0.035));
+        Assert.assertNull(solver.neutralTemperature(solid(500.0), 0.035));
+        Assert.assertNull(solver.neutralSalinity(solid(2000.0), 20.0));
+        Assert.assertNull(solver.neutralTemperature(solid(1000.0), 0.2));
+        Assert.assertNull(solver.neutralSalinity(solid(1000.0), 180.0));
+    }
+
+    @Test
+    @SuppressWarnings("ConstantConditions")
+    public void testBallastMass() {
+        Solid<Double> solid = solid(1000.0);
+        double ρ = DoubleSeawaterImpl.density(20.5, 0.08);
+        Assert.assertEquals(ρ - 1000.0, solver.ballastMass(solid, 0.08, 20.5), 1e-9);
+        Assert.assertNull(solver.ballastMass(solid, 0.08, 185.0));
+    }
+
+    @Test
+    @SuppressWarnings("ConstantConditions")
+    public void testThermalSolid() {
+        double salinity = 0.035;
+        ThermalHomogeneousSolid solid = new ThermalHomogeneousSolid(1, 1000, 0.0005);
+        Double temperature = solver.neutralTemperature(solid, salinity);
+        Assert.assertNotNull(temperature);
+        double ρ = DoubleSeawaterImpl.density(temperature, salinity);
+        Assert.assertEquals(0.0, ρ * (1 + 0.0005 * (temperature - 20)) - 1000, 1e-9);
+        Assert.assertEquals(0.0, solid.buoyancy(ρ, temperature).doubleValue(), 1e-9);
+
+        ThermalHomogeneousSolid heavy = new ThermalHomogeneousSolid(1, 1020, 0.0005);
+        Double s = solver.neutralSalinity(heavy, 40);
+        Assert.assertNotNull(s);
+        Assert.assertEquals(1020 / 1.01, DoubleSeawaterImpl.density(40, s), 1e-9);
+        ρ = DoubleSeawaterImpl.density(5, 0.08);
+        Assert.assertEquals(ρ * 0.9925 - 1000, solver.ballastMass(solid, 0.08, 5), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonLinearThermalSolid() {
+        ThermalSolid<Double> solid = new ThermalSolid<Double>() {
+            @Override
+            public Double volume(@Nonnull Number temperature) {
+                return 1 + 1e-6 * temperature.doubleValue() * temperature.doubleValue();
+            }
+
+            @Override
+            public Double buoyancy(@Nonnull Number ρ, @Nonnull Number temperature) {
+                return ρ.doubleValue() * volume(temperature) - mass();
+            }
+
+            @Override
+            public Double volume() {
+                return 1.0;
+            }
+
+            @Override
+            public Double mass() {
+                return 1000.0;
+            }
+
+            @Override
+            public Double density(@Nonnull Number temperature) {
+                return mass() / volume(temperature);
+            }
+
+            @Override
+            public Double buoyancy(@Nonnull Number ρ) {
+                return ρ.doubleValue() * volume() - mass();
+            }
+        };
+        double ρ = DoubleSeawaterImpl.density(20, 0.035);
+        Assert.assertEquals(ρ * 1.0004 - 1000, solver.ballastMass(solid, 0.035, 20), 1e-9);
+        solver.neutralTemperature(solid, 0.035);
+    }
+
+    @Test
+    public void testRoots() {
+        // (x - 1)(x - 2)(x - 3) = x^3 - 6x^2 + 11x - 6
+        List<Double> roots = NeutralBuoyancySolver.roots(new double[]{-6, 11, -6, 1}, 0, 10);
+        Assert.assertEquals(3, roots.size());
+        for (int i = 0 ; i < 3 ; i++) {
+            Assert.assertEquals(i + 1.0, roots.get(i), 1e-12);
+        }
+        Assert.assertTrue(NeutralBuoyancySolver.roots(new double[]{1, 0, 1}, -10, 10).isEmpty());
+    }
+
+    private static Solid<Double> solid(double density) {
+        return new DoubleSolidBuilderImpl().add(1.0, density).build();
+    }
+}
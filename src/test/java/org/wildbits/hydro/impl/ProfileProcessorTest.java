@@ -0,0 +1,200 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+public class ProfileProcessorTest {
+
+    private final DoubleHomogeneousSolid solid = new DoubleHomogeneousSolid(1, 1020);
+
+    @Test
+    public void testProcess() throws Exception {
+        ProfileProcessor processor = new ProfileProcessor(solid, 4);
+        Collector collector = new Collector(11);
+        processor.subscribe(collector);
+        SubmissionPublisher<ProfileSample> publisher = new SubmissionPublisher<ProfileSample>();
+        publisher.subscribe(processor);
+        for (int i = 0 ; i < 10 ; i++) {
+            publisher.submit(new ProfileSample(i, 20 - i, i < 5 ? 0.035 : 0.036));
+        }
+        publisher.submit(new ProfileSample(10, 200, 0.036));
+        publisher.close();
+        Assert.assertTrue(collector.completed.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(11, collector.results.size());
+        for (int i = 0 ; i < 10 ; i++) {
+            ProfileResult result = collector.results.get(i);
+            double ρ = new DoubleSeawaterImpl(result.sample().salinity()).densityAt(result.sample().temperature());
+            Assert.assertEquals((double) i, result.sample().depth(), 0.0);
+            Assert.assertEquals(ρ, result.density(), 0.0);
+            Assert.assertEquals(ρ - 1020, result.buoyancy(), 1e-9);
+        }
+        Assert.assertTrue(Double.isNaN(collector.results.get(10).density()));
+        Assert.assertTrue(Double.isNaN(collector.results.get(10).buoyancy()));
+    }
+
+    @Test
+    public void testThermalSolid() throws Exception {
+        ThermalHomogeneousSolid thermal = new ThermalHomogeneousSolid(1, 1020, 0.0001);
+        ProfileProcessor processor = new ProfileProcessor(thermal, 4);
+        Collector collector = new Collector(5);
+        processor.subscribe(collector);
+        SubmissionPublisher<ProfileSample> publisher = new SubmissionPublisher<ProfileSample>();
+        publisher.subscribe(processor);
+        for (int i = 0 ; i < 5 ; i++) {
+            publisher.submit(new ProfileSample(i, 30 - 5 * i, 0.035));
+        }
+        publisher.close();
+        Assert.assertTrue(collector.completed.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(5, collector.results.size());
+        for (ProfileResult result : collector.results) {
+            double t = result.sample().temperature();
+            Assert.assertEquals(result.density() * (1 + 0.0001 * (t - 20)) - 1020, result.buoyancy(), 1e-9);
+        }
+    }
+
+    @Test
+    public void testMaxDelay() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            ProfileProcessor processor = new ProfileProcessor(solid, 100, ForkJoinPool.commonPool(),
+                    Flow.defaultBufferSize(), 10, TimeUnit.MILLISECONDS, scheduler);
+            Collector collector = new Collector(3);
+            processor.subscribe(collector);
+            SubmissionPublisher<ProfileSample> publisher = new SubmissionPublisher<ProfileSample>();
+            publisher.subscribe(processor);
+            for (int i = 0 ; i < 3 ; i++) {
+                publisher.submit(new ProfileSample(i, 10, 0.035));
+            }
+            Assert.assertTrue(collector.received.await(5, TimeUnit.SECONDS));
+            publisher.close();
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testPublishOutsideLock() throws Exception {
+        // the results are delivered in the publishing thread, to a subscriber blocking until released
+        Executor direct = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        final ProfileProcessor processor = new ProfileProcessor(solid, 2, direct, Flow.defaultBufferSize(), 0,
+                TimeUnit.MILLISECONDS, null);
+        final Blocking blocking = new Blocking();
+        processor.subscribe(blocking);
+        processor.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        Thread publisher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                processor.onNext(new ProfileSample(0, 10, 0.035));
+                processor.onNext(new ProfileSample(1, 10, 0.035));
+            }
+        });
+        publisher.start();
+        blocking.entered.await();
+        processor.onNext(new ProfileSample(2, 10, 0.035));
+        blocking.released.countDown();
+        publisher.join();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBatchSize() throws Exception {
+        new ProfileProcessor(solid, 0);
+    }
+
+    private static class Blocking implements Flow.Subscriber<ProfileResult> {
+
+        private final CountDownLatch entered = new CountDownLatch(1), released = new CountDownLatch(1);
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ProfileResult item) {
+            entered.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    private static class Collector implements Flow.Subscriber<ProfileResult> {
+
+        private final List<ProfileResult> results = new CopyOnWriteArrayList<ProfileResult>();
+
+        private final CountDownLatch received, completed = new CountDownLatch(1);
+
+        private Collector(int expected) {
+            received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ProfileResult item) {
+            results.add(item);
+            received.countDown();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+}
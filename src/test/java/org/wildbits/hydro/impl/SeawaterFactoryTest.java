@@ -35,4 +35,25 @@ public class SeawaterFactoryTest {
         SaltedLiquid<BigDecimal> liquid = new SeawaterFactoryImpl().getInstance(big("0.08"));
         Assert.assertNotNull(liquid);
     }
+
+    @Test
+    public void testCache() throws Exception {
+        SeawaterFactoryImpl factory = new SeawaterFactoryImpl(2, BoundedCache.Eviction.LRU);
+        SaltedLiquid<BigDecimal> liquid = factory.getInstance(big("0.08"));
+        Assert.assertSame(liquid, factory.getInstance(0.08));
+        Assert.assertEquals(new SeawaterImpl(big("0.08")).density(big("20")), liquid.density(big("20")));
+        SaltedLiquid<BigDecimal> scaled = factory.getInstance(big("0.080"));
+        Assert.assertEquals(big("0.080"), scaled.salinity());
+        Assert.assertEquals(liquid.density(big("20")), scaled.density(big("20")));
+        Assert.assertEquals(big("0.08"), factory.getInstance(big("0.08")).salinity());
+        Assert.assertEquals(big("0.080"), new SeawaterFactoryImpl(2, BoundedCache.Eviction.LRU)
+                .getInstance(big("0.080")).salinity());
+        SeawaterFactoryImpl uncached = new SeawaterFactoryImpl();
+        Assert.assertNotSame(uncached.getInstance(big("0.08")), uncached.getInstance(big("0.08")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCacheNegativeSalinity() throws Exception {
+        new SeawaterFactoryImpl(2, BoundedCache.Eviction.FIFO).getInstance(big("-10"));
+    }
 }
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.math.BigDecimal;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.wildbits.hydro.DoubleSaltedLiquid;
+
+public class SeawaterTableTest {
+
+    /**
+     * Check the table against the exact Eq. 8 path over the whole validity range.
+     */
+    @Test
+    @SuppressWarnings("ConstantConditions")
+    public void testInterpolationError() throws Exception {
+        for (double tolerance : new double[]{1.0, 0.01, 0.0001}) {
+            SeawaterTable table = new SeawaterTable(tolerance);
+            for (int j = 0 ; j < 160 ; j += 3) {
+                BigDecimal salinity = BigDecimal.valueOf(j, 3);
+                SeawaterImpl exact = new SeawaterImpl(salinity);
+                for (int i = 0 ; i < 1800 ; i += 7) {
+                    BigDecimal temperature = BigDecimal.valueOf(i, 1);
+                    double expected = exact.density(temperature).doubleValue();
+                    double actual = table.densityAt(temperature.doubleValue(), salinity.doubleValue());
+                    Assert.assertEquals(expected, actual, tolerance * SeawaterImpl.ACCURACY * expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testResolution() throws Exception {
+        Assert.assertTrue(new SeawaterTable(0.0001).temperatureCells() > new SeawaterTable(0.01).temperatureCells());
+        Assert.assertEquals(1, new SeawaterTable(0.01).salinityCells());
+    }
+
+    @Test
+    public void testWindow() throws Exception {
+        SeawaterTable table = new SeawaterTable(0, 30, 0.03, 0.04, 0.01);
+        DoubleSaltedLiquid liquid = table.getInstance(0.035);
+        DoubleSeawaterImpl exact = new DoubleSeawaterImpl(0.035);
+        for (double t = 0 ; t < 180 ; t += 0.5) {
+            Assert.assertEquals(exact.densityAt(t), liquid.densityAt(t), 0.01 * SeawaterImpl.ACCURACY * 1000);
+        }
+        Assert.assertEquals(exact.densityAt(50.0), table.densityAt(50.0, 0.035), 0.0);
+    }
+
+    @Test
+    public void testOutOfRange() throws Exception {
+        SeawaterTable table = new SeawaterTable(0.01);
+        Assert.assertTrue(Double.isNaN(table.densityAt(-0.5, 0.035)));
+        Assert.assertTrue(Double.isNaN(table.densityAt(180.0, 0.035)));
+        Assert.assertTrue(Double.isNaN(table.densityAt(20.0, 0.16)));
+        Assert.assertNull(table.getInstance(0.2).density(20.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWindow() throws Exception {
+        new SeawaterTable(-5, 30, 0, 0.04, 0.01);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTolerance() throws Exception {
+        new SeawaterTable(0);
+    }
+}
@@ -19,6 +19,7 @@ import java.math.BigDecimal;
 
 import junit.framework.Assert;
 import org.junit.Test;
+import org.wildbits.data.Precision;
 import org.wildbits.hydro.Density;
 
 import static org.wildbits.data.Utils.big;
@@ -81,4 +82,19 @@ public class SeawaterTest {
         Assert.assertNull(density.density(big("185.0")));
     }
 
+    @Test
+    @SuppressWarnings("ConstantConditions")
+    public void testPrecision() {
+        BigDecimal temperature = big("20.5");
+        BigDecimal exact = new SeawaterImpl(big("0.08")).density(temperature);
+        for (Precision precision : new Precision[]{
+                Precision.DECIMAL32, Precision.DECIMAL64, Precision.DECIMAL128, Precision.fixed(12)}) {
+            BigDecimal density = new SeawaterImpl(big("0.08"), precision).density(temperature);
+            Assert.assertEquals(exact.doubleValue(), density.doubleValue(), 1e-3);
+        }
+        Assert.assertTrue(new SeawaterImpl(big("0.08"), Precision.fixed(6)).density(temperature).scale() <= 6);
+        Assert.assertTrue(new SeawaterImpl(big("0.08"), Precision.DECIMAL32).density(temperature).precision() <= 7);
+        Assert.assertNull(new SeawaterImpl(big("0.2"), Precision.DECIMAL64).density(temperature));
+    }
+
 }
@@ -19,7 +19,9 @@ import java.math.BigDecimal;
 
 import junit.framework.Assert;
 import org.junit.Test;
+import org.wildbits.data.Precision;
 import org.wildbits.hydro.Solid;
+import org.wildbits.hydro.ThermalSolid;
 
 import static org.wildbits.data.Utils.big;
 
@@ -44,4 +46,56 @@ public class SolidBuilderImplTest {
         Assert.assertTrue(solid instanceof CompositeSolid);
     }
 
+    @Test
+    @SuppressWarnings("ConstantConditions")
+    public void testPrecision() throws Exception {
+        Solid<BigDecimal> solid = new SolidBuilderImpl(Precision.fixed(3))
+                .add(big("3"), big("1"))
+                .add(big("3"), big("1")).build();
+        Assert.assertEquals(big("0.332"), solid.density(big("20.0")));
+        Assert.assertEquals(big("0.3333333"), new SolidBuilderImpl(Precision.DECIMAL32)
+                .add(big("3"), big("1")).build().density(big("20.0")));
+        Assert.assertEquals(big("4.000"), solid.buoyancy(big("1")));
+    }
+
+    @Test
+    @SuppressWarnings("ConstantConditions")
+    public void testSnapshot() throws Exception {
+        SolidBuilderImpl builder = new SolidBuilderImpl().add(big("1"), big("2")).add(big("3"), big("4"));
+        Solid<BigDecimal> first = builder.build();
+        BigDecimal density = first.density(big("20.0"));
+        builder.add(big("5"), big("6"));
+        Solid<BigDecimal> second = builder.build();
+        Assert.assertEquals(big("4"), first.volume());
+        Assert.assertEquals(big("6"), first.mass());
+        Assert.assertEquals(density, first.density(big("20.0")));
+        Assert.assertEquals(2, ((CompositeSolid) first).solids().size());
+        Assert.assertEquals(big("9"), second.volume());
+        Assert.assertEquals(3, ((CompositeSolid) second).solids().size());
+    }
+
+    @Test
+    public void testCopy() throws Exception {
+        SolidBuilderImpl prefix = new SolidBuilderImpl().add(big("1"), big("2"));
+        SolidBuilderImpl left = prefix.copy().add(big("3"), big("4"));
+        SolidBuilderImpl right = prefix.copy().add(big("5"), big("6"));
+        prefix.add(big("7"), big("8"));
+        Assert.assertEquals(big("4"), left.build().volume());
+        Assert.assertEquals(big("6"), right.build().volume());
+        Assert.assertEquals(big("8"), prefix.build().volume());
+        Solid<BigDecimal> leftSolid = left.build();
+        Assert.assertSame(((CompositeSolid) leftSolid).solids().get(0), ((CompositeSolid) right.build()).solids().get(0));
+    }
+
+    @Test
+    @SuppressWarnings({"ConstantConditions", "unchecked"})
+    public void testThermalExpansion() throws Exception {
+        ThermalSolid<BigDecimal> solid = (ThermalSolid<BigDecimal>) new SolidBuilderImpl()
+                .add(big("1"), big("1000"))
+                .add(big("1"), big("500"), big("0.0001")).build();
+        Assert.assertEquals(big("2"), solid.volume());
+        Assert.assertEquals(0, big("2.001").compareTo(solid.volume(big("30"))));
+        Assert.assertEquals(0, big("1.999").compareTo(solid.volume(big("10"))));
+        Assert.assertEquals(0, big("501").compareTo(solid.buoyancy(big("1000"), big("30"))));
+    }
 }
@@ -0,0 +1,173 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import junit.framework.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildbits.data.Summation;
+import org.wildbits.hydro.DoubleSolid;
+
+public class SolidStoreTest {
+
+    private static final int ROWS = 3 * SolidStore.PAGE + 123;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static double volume(long row) {
+        return 0.001 + (row % 97) * 1e-5;
+    }
+
+    private static double mass(long row) {
+        return 1 + (row % 13) * 0.1;
+    }
+
+    private static void fill(SolidStore store) throws IOException {
+        for (long row = 0 ; row < ROWS ; row++) {
+            Assert.assertEquals(row, store.add(volume(row), mass(row), (int) (row % 5)));
+        }
+    }
+
+    @Test
+    public void testColumns() throws Exception {
+        SolidStore store = SolidStore.allocate();
+        fill(store);
+        Assert.assertEquals(ROWS, store.size());
+        for (long row = 0 ; row < ROWS ; row += 997) {
+            Assert.assertEquals(volume(row), store.volume(row));
+            Assert.assertEquals(mass(row), store.mass(row));
+            Assert.assertEquals((int) (row % 5), store.material(row));
+        }
+        store.set(70000, 2, 3, 42);
+        Assert.assertEquals(2.0, store.volume(70000));
+        Assert.assertEquals(3.0, store.mass(70000));
+        Assert.assertEquals(42, store.material(70000));
+    }
+
+    @Test
+    public void testRangeView() throws Exception {
+        SolidStore store = SolidStore.allocate();
+        fill(store);
+        long from = SolidStore.PAGE - 10, to = 2 * SolidStore.PAGE + 500;
+        double[] volumes = new double[(int) (to - from)], masses = new double[volumes.length];
+        for (long row = from ; row < to ; row++) {
+            volumes[(int) (row - from)] = volume(row);
+            masses[(int) (row - from)] = mass(row);
+        }
+        DoubleSolid view = store.view(from, to);
+        double volume = Summation.sum(volumes), mass = Summation.sum(masses);
+        Assert.assertEquals(volume, view.volume(), volume * 1e-15);
+        Assert.assertEquals(mass, view.mass(), mass * 1e-15);
+        Assert.assertEquals(1025 * view.volume() - view.mass(), view.buoyancyIn(1025), 1e-9);
+        Assert.assertEquals(volume(5), store.view(5, 6).volume());
+    }
+
+    @Test
+    public void testSelectionView() throws Exception {
+        SolidStore store = SolidStore.allocate();
+        fill(store);
+        long[] rows = store.select(3);
+        Assert.assertEquals((ROWS + 1) / 5, rows.length);
+        double[] volumes = new double[rows.length], masses = new double[rows.length];
+        for (int i = 0 ; i < rows.length ; i++) {
+            Assert.assertEquals(3, store.material(rows[i]));
+            volumes[i] = volume(rows[i]);
+            masses[i] = mass(rows[i]);
+        }
+        DoubleSolid view = store.view(rows);
+        Assert.assertEquals(Summation.sum(volumes), view.volume(), 1e-12);
+        Assert.assertEquals(Summation.sum(masses), view.mass(), 1e-9);
+        Assert.assertEquals(0, store.select(9).length);
+        DoubleSolid pair = store.view(new long[]{1, 100000});
+        Assert.assertEquals(volume(1) + volume(100000), pair.volume(), 1e-15);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRowOutOfStore() throws Exception {
+        SolidStore store = SolidStore.allocate();
+        store.add(1, 1, 0);
+        store.view(new long[]{0, 1});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyRange() throws Exception {
+        SolidStore store = SolidStore.allocate();
+        store.add(1, 1, 0);
+        store.view(1, 1);
+    }
+
+    @Test
+    public void testFile() throws Exception {
+        Path path = folder.newFile("store").toPath();
+        SolidStore store = SolidStore.create(path);
+        try {
+            fill(store);
+            store.force();
+        } finally {
+            store.close();
+        }
+        Assert.assertTrue(Files.size(path) >= SolidStore.HEADER + 4L * SolidStore.PAGE * 20);
+        store = SolidStore.open(path, false);
+        try {
+            Assert.assertEquals(ROWS, store.size());
+            Assert.assertEquals(volume(ROWS - 1), store.volume(ROWS - 1));
+            Assert.assertEquals(mass(123456), store.mass(123456));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void testReopenAndAppend() throws Exception {
+        Path path = folder.newFile("store").toPath();
+        SolidStore store = SolidStore.create(path);
+        store.add(1, 2, 3);
+        store.close();
+        store = SolidStore.open(path, true);
+        try {
+            Assert.assertEquals(1, store.add(4, 5, 6));
+            Assert.assertEquals(2, store.size());
+            Assert.assertEquals(5.0, store.view(0, 2).volume());
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReadOnly() throws Exception {
+        Path path = folder.newFile("store").toPath();
+        SolidStore.create(path).close();
+        SolidStore store = SolidStore.open(path, false);
+        try {
+            store.add(1, 1, 1);
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidFile() throws Exception {
+        Path path = folder.newFile("invalid").toPath();
+        Files.write(path, new byte[128]);
+        SolidStore.open(path, false);
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.StreamSupport;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.wildbits.data.Precision;
+
+import static org.wildbits.data.Utils.big;
+
+public class TemperatureSweepTest {
+
+    @Test
+    public void testDoubleSweep() throws Exception {
+        DoubleSeawaterImpl seawater = new DoubleSeawaterImpl(0.035);
+        double[] densities = StreamSupport.doubleStream(seawater.sweep(-1, 0.001, 200000), false).toArray();
+        Assert.assertEquals(200000, densities.length);
+        for (int i = 0 ; i < densities.length ; i++) {
+            double t = -1 + i * 0.001;
+            double expected = seawater.densityAt(t);
+            if (Double.isNaN(expected)) {
+                Assert.assertTrue(Double.isNaN(densities[i]));
+            } else {
+                Assert.assertEquals(expected, densities[i], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelDoubleSweep() throws Exception {
+        DoubleSeawaterImpl seawater = new DoubleSeawaterImpl(0.1);
+        double[] sequential = StreamSupport.doubleStream(seawater.sweep(0, 0.0005, 300000), false).toArray();
+        double[] parallel = StreamSupport.doubleStream(seawater.sweep(0, 0.0005, 300000), true).toArray();
+        Assert.assertEquals(sequential.length, parallel.length);
+        for (int i = 0 ; i < parallel.length ; i++) {
+            Assert.assertEquals(seawater.densityAt(i * 0.0005), parallel[i], 1e-9);
+            Assert.assertEquals(sequential[i], parallel[i], 1e-9);
+        }
+    }
+
+    @Test
+    public void testInvalidSalinity() throws Exception {
+        double[] densities = StreamSupport.doubleStream(TemperatureSweep.of(0.2, 0, 1, 10), false).toArray();
+        for (double density : densities) {
+            Assert.assertTrue(Double.isNaN(density));
+        }
+        List<BigDecimal> exact = collect(TemperatureSweep.of(big("0.2"), big("0"), big("1"), 10));
+        Assert.assertEquals(10, exact.size());
+        for (BigDecimal density : exact) {
+            Assert.assertNull(density);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCount() throws Exception {
+        TemperatureSweep.of(0.1, 0, 1, -1);
+    }
+
+    @Test
+    public void testExactSweep() throws Exception {
+        SeawaterImpl seawater = new SeawaterImpl(big("0.035"));
+        Spliterator<BigDecimal> sweep = seawater.sweep(big("179"), big("0.25"), 6000);
+        List<BigDecimal> suffix = collect(sweep);
+        List<BigDecimal> prefix = new ArrayList<BigDecimal>();
+        sweep = seawater.sweep(big("-1"), big("0.125"), 5000);
+        Spliterator<BigDecimal> split = sweep.trySplit();
+        Assert.assertNotNull(split);
+        prefix.addAll(collect(split));
+        prefix.addAll(collect(sweep));
+        Assert.assertEquals(5000, prefix.size());
+        for (int i = 0 ; i < prefix.size() ; i++) {
+            BigDecimal expected = seawater.density(big("-1").add(big("0.125").multiply(BigDecimal.valueOf(i))));
+            if (expected == null) {
+                Assert.assertNull(prefix.get(i));
+            } else {
+                Assert.assertEquals(0, expected.compareTo(prefix.get(i)));
+            }
+        }
+        Assert.assertEquals(0, seawater.density(big("179.75")).compareTo(suffix.get(3)));
+        Assert.assertNull(suffix.get(4));
+    }
+
+    @Test
+    public void testRoundedSweep() throws Exception {
+        SeawaterImpl seawater = new SeawaterImpl(big("0.035"), Precision.DECIMAL64);
+        List<BigDecimal> densities = collect(seawater.sweep(big("20"), big("0.5"), 20));
+        Assert.assertEquals(Precision.DECIMAL64.round(new SeawaterImpl(big("0.035")).density(big("25"))),
+                densities.get(10));
+    }
+
+    private static List<BigDecimal> collect(Spliterator<BigDecimal> sweep) {
+        final List<BigDecimal> densities = new ArrayList<BigDecimal>();
+        sweep.forEachRemaining(new Consumer<BigDecimal>() {
+            @Override
+            public void accept(BigDecimal density) {
+                densities.add(density);
+            }
+        });
+        return densities;
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import java.math.BigDecimal;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.wildbits.data.Precision;
+import org.wildbits.hydro.ThermalSolid;
+
+import static org.wildbits.data.Utils.big;
+
+public class ThermalHomogeneousSolidTest {
+
+    /**
+     * {@code 1 m^3} of aluminium at {@code 20 °C}.
+     */
+    private final ThermalSolid<BigDecimal> aluminium = new ThermalHomogeneousSolid(big("1"), big("2700"), big("0.000069"));
+
+    @Test
+    public void testVolume() throws Exception {
+        Assert.assertEquals(big("1"), aluminium.volume());
+        Assert.assertEquals(0, big("1").compareTo(aluminium.volume(big("20"))));
+        Assert.assertEquals(0, big("0.99931").compareTo(aluminium.volume(big("10"))));
+        Assert.assertEquals(0, big("1.00069").compareTo(aluminium.volume(big("30"))));
+    }
+
+    @Test
+    public void testReferenceTemperature() throws Exception {
+        ThermalSolid<BigDecimal> solid = new ThermalHomogeneousSolid(big("2"), big("10"), big("0.001"), big("0"),
+                Precision.EXACT);
+        Assert.assertEquals(0, big("2.02").compareTo(solid.volume(big("10"))));
+        Assert.assertNull(solid.volume(big("-1000")));
+        Assert.assertNull(solid.density(big("-2000")));
+        Assert.assertNull(solid.buoyancy(big("1000"), big("-1000")));
+    }
+
+    @Test
+    public void testDensity() throws Exception {
+        Assert.assertEquals(0, big("2700").compareTo(aluminium.density(big("20"))));
+        Assert.assertEquals(Precision.DECIMAL128.divide(big("2700"), big("1.00069")), aluminium.density(big("30")));
+        Assert.assertTrue(aluminium.density(big("2")).compareTo(aluminium.density(big("30"))) > 0);
+    }
+
+    @Test
+    public void testBuoyancy() throws Exception {
+        Assert.assertEquals(0, big("-1700").compareTo(aluminium.buoyancy(big("1000"))));
+        Assert.assertEquals(0, big("-1700").compareTo(aluminium.buoyancy(big("1000"), big("20"))));
+        Assert.assertEquals(0, big("-1699.31").compareTo(aluminium.buoyancy(big("1000"), big("30"))));
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright 2014 wildbits.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildbits.hydro.impl;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.wildbits.hydro.CompressibleSolid;
+
+import static org.wildbits.data.Utils.big;
+
+public class WaterColumnTest {
+
+    private static final double DELTA = 1e-9;
+
+    private final double[] depths = {0, 10, 50, 200};
+
+    private final double[] temperatures = {25, 22, 12, 4};
+
+    private final double[] salinities = {0.034, 0.035, 0.0352, 0.0349};
+
+    private final WaterColumn column = new WaterColumn(depths, temperatures, salinities);
+
+    private double density(int i) {
+        return new DoubleSeawaterImpl(salinities[i]).densityAt(temperatures[i]);
+    }
+
+    @Test
+    public void testDensity() throws Exception {
+        Assert.assertEquals(4, column.size());
+        for (int i = 0 ; i < depths.length ; i++) {
+            Assert.assertEquals(density(i), column.densityAt(depths[i]), DELTA);
+        }
+        Assert.assertEquals((density(1) + density(2)) / 2, column.densityAt(30), DELTA);
+        Assert.assertEquals(density(2) + 0.25 * (density(3) - density(2)), column.densityAt(87.5), DELTA);
+        Assert.assertTrue(Double.isNaN(column.densityAt(200.1)));
+        Assert.assertTrue(Double.isNaN(column.densityAt(-1)));
+        Assert.assertTrue(Double.isNaN(column.densityAt(Double.NaN)));
+    }
+
+    @Test
+    public void testShallowestSample() throws Exception {
+        WaterColumn deep = new WaterColumn(new double[]{5, 10}, new double[]{20, 20}, new double[]{0.035, 0.035});
+        double ρ = new DoubleSeawaterImpl(0.035).densityAt(20);
+        Assert.assertEquals(ρ, deep.densityAt(2), DELTA);
+        Assert.assertEquals(CompressibleSolid.ATMOSPHERIC_PRESSURE + CompressibleSolid.GRAVITY * ρ * 7.5,
+                deep.pressureAt(7.5), 1e-6);
+    }
+
+    @Test
+    public void testPressure() throws Exception {
+        Assert.assertEquals(CompressibleSolid.ATMOSPHERIC_PRESSURE, column.pressureAt(0), DELTA);
+        double p10 = CompressibleSolid.ATMOSPHERIC_PRESSURE
+                + CompressibleSolid.GRAVITY * (density(0) + density(1)) / 2 * 10;
+        Assert.assertEquals(p10, column.pressureAt(10), 1e-6);
+        double ρ30 = column.densityAt(30);
+        Assert.assertEquals(p10 + CompressibleSolid.GRAVITY * (density(1) + ρ30) / 2 * 20, column.pressureAt(30), 1e-6);
+    }
+
+    @Test
+    public void testBuoyancy() throws Exception {
+        HomogeneousSolid solid = new HomogeneousSolid(big("0.03"), big("30.8"));
+        Assert.assertEquals(column.densityAt(120) * 0.03 - 30.8, column.buoyancy(solid, 120), DELTA);
+        GasSolid gas = new GasSolid(0.01, 0.5);
+        Assert.assertEquals(column.densityAt(40) * gas.volumeAt(column.pressureAt(40)) - 0.5,
+                column.buoyancy(gas, 40), DELTA);
+        Assert.assertTrue(Double.isNaN(column.buoyancy(solid, 300)));
+    }
+
+    @Test
+    public void testThermalBuoyancy() throws Exception {
+        Assert.assertEquals(17, column.temperatureAt(30), DELTA);
+        Assert.assertEquals(25, column.temperatureAt(0), DELTA);
+        Assert.assertTrue(Double.isNaN(column.temperatureAt(200.1)));
+        ThermalHomogeneousSolid solid = new ThermalHomogeneousSolid(big("0.03"), big("30.8"), big("0.0001"));
+        Assert.assertEquals(column.densityAt(30) * 0.03 * (1 + 0.0001 * (17 - 20)) - 30.8,
+                column.buoyancy(solid, 30), DELTA);
+        Assert.assertEquals(column.buoyancy(solid, 30), column.cursor().buoyancy(solid, 30));
+        Assert.assertTrue(Double.isNaN(column.buoyancy(solid, 300)));
+    }
+
+    @Test
+    public void testCursor() throws Exception {
+        WaterColumn.Cursor cursor = column.cursor();
+        for (double depth = 0 ; depth <= 200 ; depth += 0.7) {
+            Assert.assertEquals(column.densityAt(depth), cursor.densityAt(depth));
+            Assert.assertEquals(column.pressureAt(depth), cursor.pressureAt(depth));
+        }
+        for (double depth = 200 ; depth >= 0 ; depth -= 1.3) {
+            Assert.assertEquals(column.densityAt(depth), cursor.densityAt(depth));
+        }
+        Assert.assertEquals(column.densityAt(150), cursor.densityAt(150));
+        Assert.assertTrue(Double.isNaN(cursor.densityAt(250)));
+        Assert.assertEquals(column.densityAt(5), cursor.densityAt(5));
+        Assert.assertTrue(Double.isNaN(cursor.densityAt(-1)));
+        HomogeneousSolid solid = new HomogeneousSolid(big("0.03"), big("30.8"));
+        Assert.assertEquals(column.buoyancy(solid, 60), cursor.buoyancy(solid, 60));
+    }
+
+    @Test
+    public void testUndefinedSample() throws Exception {
+        WaterColumn column = new WaterColumn(new double[]{0, 10}, new double[]{20, 20}, new double[]{0.035, 0.2});
+        Assert.assertTrue(Double.isNaN(column.densityAt(5)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsortedDepths() throws Exception {
+        new WaterColumn(new double[]{0, 10, 10}, new double[3], new double[3]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLengthMismatch() throws Exception {
+        new WaterColumn(new double[]{0, 10}, new double[2], new double[1]);
+    }
+
+    @Test
+    public void testSimulation() throws Exception {
+        double ρ = column.densityAt(120);
+        FleetSimulator.Fleet fleet = new FleetSimulator.Fleet();
+        fleet.add(new DoubleHomogeneousSolid(0.03, ρ * 0.03), 0.05, 0.5, 0, 0);
+        new FleetSimulator(column, 200).run(fleet, 3600, 0.5, 0, new FleetSimulator.Observer() {});
+        Assert.assertEquals(120, fleet.depth(0), 2);
+    }
+}